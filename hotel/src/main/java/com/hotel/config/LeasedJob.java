@@ -0,0 +1,24 @@
+package com.hotel.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+ * Runs the annotated (usually @Scheduled) method on one node of the cluster at a time.
+ * The node that gets the job lease runs it; on every other node the call is
+ * skipped and returns null.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LeasedJob {
+
+	//LEASE NAME, SHARED BY ALL NODES
+	String value();
+
+	//HOW LONG A DEAD NODE CAN BLOCK THE JOB - RENEWED EVERY THIRD OF IT WHILE THE JOB RUNS
+	long leaseSeconds() default 300;
+}
@@ -0,0 +1,39 @@
+package com.hotel.config;
+
+import java.time.Duration;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.hotel.service.JobLeaseManager;
+
+import lombok.RequiredArgsConstructor;
+
+//WRAPS @LeasedJob METHODS (OUTSIDE ANY @Transactional) IN A CLUSTER-WIDE JOB LEASE
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class LeasedJobAspect {
+
+	private static final Logger log = LoggerFactory.getLogger(LeasedJobAspect.class);
+
+	private final JobLeaseManager leaseManager;
+
+	@Around("@annotation(job) && within(com.hotel.service..*)")
+	public Object runWithLease(ProceedingJoinPoint pjp, LeasedJob job) throws Throwable {
+		try (JobLeaseManager.Lease lease = leaseManager.acquire(job.value(), Duration.ofSeconds(job.leaseSeconds()))) {
+			if (lease == null) {
+				log.debug("Skipping job '{}' - another node holds the lease", job.value());
+				return null;
+			}
+			return pjp.proceed();
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.hotel.config;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+ * Back-pressure for virtual thread mode.
+ * Virtual threads remove Tomcat's natural limit (maxThreads), so without this
+ * thousands of requests would queue inside Hikari and time out there. Only
+ * `max-concurrent` requests run at once (sized from the connection pool); the
+ * rest wait briefly and are then answered with 503.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	private final Semaphore permits;
+	private final long waitMillis;
+
+	public RequestConcurrencyLimitFilter(
+			@Value("${app.request-limit.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+			@Value("${app.request-limit.wait-millis:2000}") long waitMillis) {
+		this.permits = new Semaphore(maxConcurrent, true);
+		this.waitMillis = waitMillis;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		boolean acquired;
+		try {
+			acquired = permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			response.getWriter().write("{\"message\":\"Server is busy, please try again\"}");
+			return;
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			permits.release();
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package com.hotel.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/*
+ * Turns on @Scheduled / @Async processing.
+ * With spring.threads.virtual.enabled=true spring boot backs the scheduler,
+ * the async executor and the Tomcat connector with virtual threads.
+ */
+@Configuration
+@EnableScheduling
+@EnableAsync
+public class SchedulingConfig {
+
+}
@@ -1,6 +1,9 @@
 package com.hotel.controller;
 
+import java.util.List;
+
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,7 +13,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.hotel.dto.UserReqDto;
 import com.hotel.entities.User;
@@ -38,12 +43,33 @@ public class AdminController {
 				.body(adminService.addUser(dto));
 	}
 
-	//GET ALL USERS
+	//ADD USERS IN BULK - JSON ARRAY, RETURNS ONE RESULT PER ROW
+	@PostMapping("/users/register/bulk")
+	public ResponseEntity<?> addUsers(@RequestBody List<UserReqDto> dtos)
+	{
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(adminService.addUsers(dtos));
+	}
+
+	//GET ALL USERS (pass ?limit= [&after=cursor] for keyset pages)
 	@GetMapping("/users")
-	public ResponseEntity<?>getAllUsers()
+	public ResponseEntity<?>getAllUsers(@RequestParam(name = "after", required = false) Long after,
+			@RequestParam(name = "limit", required = false) Integer limit)
 	{
+		if (limit == null && after == null)
+			return ResponseEntity
+					.ok(adminService.getAllUser());
 		return ResponseEntity
-				.ok(adminService.getAllUser());
+				.ok(adminService.getUsersPage(after, limit != null ? limit : 0));
+	}
+	
+	//EXPORT ALL USERS (streamed JSON array)
+	@GetMapping(value = "/users/export", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportUsers()
+	{
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(out -> adminService.exportUsers(out));
 	}
 	
 	//GET USER BY ID
@@ -85,5 +111,11 @@ public class AdminController {
 				.body(adminService.getUserByRole(role));
 	}
 	
+	//RECONCILE THE PAYMENT LEDGER NOW (flags mismatching orders)
+	@PostMapping("/payments/reconcile")
+	public ResponseEntity<?> reconcilePayments() {
+		return ResponseEntity.ok(adminService.reconcilePayments());
+	}
+	
 	
 }
@@ -1,8 +1,11 @@
 package com.hotel.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,8 +14,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.hotel.dto.BookingReqDto;
 import com.hotel.dto.BookingRespDto;
@@ -126,8 +133,9 @@ public class CustomerController {
 		@PostMapping("/{bookingId}/payment")
 	    public ResponseEntity<?> makePayment(
 	            @PathVariable("bookingId") Long bookingId,
-	            @Valid @RequestBody PaymentReqDto paymentDto) {
-	        BookingRespDto resp = userService.makePayment(bookingId, paymentDto);
+	            @Valid @RequestBody PaymentReqDto paymentDto,
+	            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+	        BookingRespDto resp = userService.makePayment(bookingId, paymentDto, idempotencyKey);
 	        return ResponseEntity.ok(resp);
 	    }
 		
@@ -153,16 +161,48 @@ public class CustomerController {
 		}
 		
 		@GetMapping("/bookings/update-status")
-		public ResponseEntity<String> manuallyUpdateBookings() {
-		    userService.updateCompletedBookingsAndRooms();
-		    return ResponseEntity.ok("Bookings updated");
+		public ResponseEntity<?> manuallyUpdateBookings() {
+		    return ResponseEntity.ok(userService.updateCompletedBookingsAndRooms());
 		}
 
+		//GET ALL ROOMS (pass ?limit= [&after=cursor] for keyset pages)
+		//the full list carries the catalog version as its ETag - If-None-Match gets a 304
 		@GetMapping("/rooms")
-		public ResponseEntity<?> getAllRooms()
+		public ResponseEntity<?> getAllRooms(@RequestParam(name = "after", required = false) Long after,
+				@RequestParam(name = "limit", required = false) Integer limit, WebRequest request)
 		{
+			if (limit == null && after == null) {
+				if (request.checkNotModified("\"" + userService.getRoomsVersion() + "\""))
+					return null;
+				return ResponseEntity
+						.ok(userService.getAllRooms());
+			}
 			return ResponseEntity
-					.ok(userService.getAllRooms());
+					.ok(userService.getRoomsPage(after, limit != null ? limit : 0));
+		}
+		
+		//EXPORT ALL ROOMS (streamed JSON array)
+		@GetMapping(value = "/rooms/export", produces = MediaType.APPLICATION_JSON_VALUE)
+		public ResponseEntity<StreamingResponseBody> exportRooms()
+		{
+			return ResponseEntity.ok()
+					.contentType(MediaType.APPLICATION_JSON)
+					.body(out -> userService.exportRooms(out));
+		}
+		
+		//SEARCH AVAILABLE ROOMS
+		@GetMapping("/rooms/search")
+		public ResponseEntity<?> searchRooms(
+				@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+				@RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+				@RequestParam(name = "category", required = false) String category,
+				@RequestParam(name = "maxPrice", required = false) Double maxPrice,
+				@RequestParam(name = "occupancy", required = false) Integer occupancy,
+				@RequestParam(name = "page", defaultValue = "0") int page,
+				@RequestParam(name = "size", defaultValue = "20") int size)
+		{
+			return ResponseEntity
+					.ok(userService.searchRooms(from, to, category, maxPrice, occupancy, page, size));
 		}
 		
 		@GetMapping("/rooms/id/{roomId}")
@@ -1,7 +1,12 @@
 package com.hotel.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,8 +15,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.hotel.dto.RoomReqDto;
 import com.hotel.entities.Room;
@@ -36,11 +45,49 @@ public class ManagerController {
 				.body(managerService.addRooms(roomDto));
 	}
 	
+	//GET ALL ROOMS (pass ?limit= [&after=cursor] for keyset pages)
 	@GetMapping("/rooms")
-	public ResponseEntity<?> getAllRooms()
+	public ResponseEntity<?> getAllRooms(@RequestParam(name = "after", required = false) Long after,
+			@RequestParam(name = "limit", required = false) Integer limit, WebRequest request)
 	{
+		if (limit == null && after == null) {
+			//304 straight from the catalog version - no query, no serialization
+			if (request.checkNotModified("\"" + managerService.getRoomsVersion() + "\""))
+				return null;
+			return ResponseEntity
+					.ok(managerService.getAllRooms());
+		}
 		return ResponseEntity
-				.ok(managerService.getAllRooms());
+				.ok(managerService.getRoomsPage(after, limit != null ? limit : 0));
+	}
+	
+	//EXPORT ALL ROOMS (streamed JSON array)
+	@GetMapping(value = "/rooms/export", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportRooms()
+	{
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(out -> managerService.exportRooms(out));
+	}
+	
+	//BULK IMPORT - text/csv (header row) or application/x-ndjson body, returns a per-row error report
+	@PostMapping(value = "/rooms/bulk", consumes = { "text/csv", "application/x-ndjson" })
+	public ResponseEntity<?> importRooms(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+			InputStream body) throws IOException
+	{
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(managerService.importRooms(body, isCsv(contentType)));
+	}
+	
+	//BULK EXPORT - ?format=csv|ndjson, same columns the import reads
+	@GetMapping("/rooms/bulk")
+	public ResponseEntity<StreamingResponseBody> exportRoomsBulk(
+			@RequestParam(name = "format", defaultValue = "csv") String format)
+	{
+		boolean csv = !"ndjson".equalsIgnoreCase(format);
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(csv ? "text/csv" : "application/x-ndjson"))
+				.body(out -> managerService.exportRoomsBulk(out, csv));
 	}
 	
 	@GetMapping("/rooms/id/{roomId}")
@@ -101,12 +148,28 @@ public class ManagerController {
 				.body(managerService.getReviewById(userId));
 	}
 			
+	//GET ALL REVIEWS (pass ?limit= [&after=cursor] for keyset pages)
 	@GetMapping("/all/reviews")
-	public ResponseEntity<?> getAllReviews()
+	public ResponseEntity<?> getAllReviews(@RequestParam(name = "after", required = false) Long after,
+			@RequestParam(name = "limit", required = false) Integer limit)
 	{
+		if (limit == null && after == null)
+			return ResponseEntity.status(HttpStatus.OK)
+					.body(managerService.getAllReviews());
 		return ResponseEntity.status(HttpStatus.OK)
-				.body(managerService.getAllReviews());
+				.body(managerService.getReviewsPage(after, limit != null ? limit : 0));
 	}
-		
 	
+	//EXPORT ALL REVIEWS (streamed JSON array)
+	@GetMapping(value = "/all/reviews/export", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportReviews()
+	{
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(out -> managerService.exportReviews(out));
+	}
+	
+	private static boolean isCsv(String contentType) {
+		return MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+	}
 }
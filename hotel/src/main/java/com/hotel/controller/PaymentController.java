@@ -1,20 +1,29 @@
 package com.hotel.controller;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.hotel.dto.BookingReqDto;
 import com.hotel.dto.BookingRespDto;
 import com.hotel.dto.PaymentReqDto;
+import com.hotel.dto.QuoteReqDto;
 import com.hotel.service.CustomerService;
 import com.hotel.service.PaymentServiceImpl;
 
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 
 @RestController
@@ -27,27 +36,47 @@ public class PaymentController {
 
 	private CustomerService userService;
 	
+	//gateway calls complete asynchronously - the request thread is released meanwhile
+	//(signed in customers and receptionists only - see SecurityConfig)
 	@PostMapping("/create-order")
-	public ResponseEntity<?> createOrder(@RequestBody BookingReqDto dto) {
-		return ResponseEntity.ok(razorpayService.processRazorpayOrder(dto));
+	public CompletableFuture<ResponseEntity<?>> createOrder(@RequestBody BookingReqDto dto,
+			@AuthenticationPrincipal UserDetails caller) {
+		return razorpayService.processRazorpayOrder(dto, caller).thenApply(ResponseEntity::ok);
 	}
 	
 	@PostMapping("/make-payment/{bookingId}")
     public ResponseEntity<BookingRespDto> makePaymentForBooking(
             @PathVariable Long bookingId,
-            @RequestBody PaymentReqDto paymentDto) {
+            @RequestBody PaymentReqDto paymentDto,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
 
-        BookingRespDto bookingResp = userService.makePayment(bookingId, paymentDto);
+        BookingRespDto bookingResp = userService.makePayment(bookingId, paymentDto, idempotencyKey);
         return ResponseEntity.ok(bookingResp);
     }
     
     @PostMapping("/verify-payment")
-    public ResponseEntity<?> verifyPayment(@RequestBody Map<String, String> paymentData) {
+    public CompletableFuture<ResponseEntity<?>> verifyPayment(@RequestBody Map<String, String> paymentData) {
         String orderId = paymentData.get("orderId");
         String paymentId = paymentData.get("paymentId");
         String signature = paymentData.get("signature");
         
-        Map<String, Object> result = razorpayService.verifyDummyPayment(orderId, paymentId, signature);
-        return ResponseEntity.ok(result);
+        return razorpayService.verifyPayment(orderId, paymentId, signature).thenApply(ResponseEntity::ok);
+    }
+    
+    //PRICE THE STAY ONCE AND HOLD THE ROOM FOR CHECKOUT - THE TOKEN GOES TO create-order, BOOKING AND make-payment
+    //(signed in customers and receptionists only - see SecurityConfig)
+    @PostMapping("/quote")
+    public ResponseEntity<?> quote(@RequestBody @Valid QuoteReqDto dto, @AuthenticationPrincipal UserDetails caller) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(razorpayService.quote(dto, caller));
+    }
+    
+    @DeleteMapping("/quote/{token}")
+    public ResponseEntity<?> releaseQuote(@PathVariable String token, @AuthenticationPrincipal UserDetails caller) {
+        return ResponseEntity.ok(razorpayService.releaseQuote(token, caller));
+    }
+    
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<?> getOrder(@PathVariable String orderId) {
+        return ResponseEntity.ok(razorpayService.getOrder(orderId));
     }
 }
@@ -3,6 +3,7 @@ package com.hotel.controller;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,9 +11,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.hotel.dto.BlockBookingReqDto;
 import com.hotel.dto.BookingReqDto;
 import com.hotel.dto.BookingRespDto;
 import com.hotel.dto.CustomerReqDto;
@@ -37,6 +42,14 @@ public class RecptionistController {
 				.body(receptionistService.registerCustomer(custDto));
 	}
 	
+	//GROUP CHECK-IN - JSON ARRAY OF GUESTS, RETURNS ONE RESULT PER ROW
+	@PostMapping("/guests/register/bulk")
+	public ResponseEntity<?> addCustomers(@RequestBody List<CustomerReqDto> custDtos)
+	{
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(receptionistService.registerCustomers(custDtos));
+	}
+	
 	@GetMapping("/guest/{custid}")
 	public ResponseEntity<?>getCustById(@PathVariable("custid") Long custid)
 	{
@@ -44,11 +57,25 @@ public class RecptionistController {
 				.body(receptionistService.getCustomerById(custid));
 	}
 	
+	//GET ALL GUESTS (pass ?limit= [&after=cursor] for keyset pages)
 	@GetMapping("/guests")
-	public ResponseEntity<?>getAllCustomers()
+	public ResponseEntity<?>getAllCustomers(@RequestParam(name = "after", required = false) Long after,
+			@RequestParam(name = "limit", required = false) Integer limit)
 	{
+		if (limit == null && after == null)
+			return ResponseEntity
+					.ok(receptionistService.getAllCustomer());
 		return ResponseEntity
-				.ok(receptionistService.getAllCustomer());
+				.ok(receptionistService.getCustomersPage(after, limit != null ? limit : 0));
+	}
+	
+	//EXPORT ALL GUESTS (streamed JSON array)
+	@GetMapping(value = "/guests/export", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportCustomers()
+	{
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(out -> receptionistService.exportCustomers(out));
 	}
 	
 	@GetMapping("/guest/email/{email}")
@@ -63,12 +90,20 @@ public class RecptionistController {
 		return ResponseEntity.ok(receptionistService.createBooking(dto));
 	}
 	
+	//BLOCK BOOKING - ALL REQUESTED ROOMS OR NONE
+	@PostMapping("/guest/bookings/block")
+	public ResponseEntity<?> makeBlockBooking(@Valid @RequestBody BlockBookingReqDto dto){
+		return ResponseEntity.status(HttpStatus.CREATED)
+				.body(receptionistService.createBlockBooking(dto));
+	}
+	
 	//MAKE PAYMENT
 	@PostMapping("/guest/{bookingId}/payment")
     public ResponseEntity<?> makePayment(
             @PathVariable("bookingId") Long bookingId,
-            @Valid @RequestBody PaymentReqDto paymentDto) {
-        BookingRespDto resp = receptionistService.makePayment(bookingId, paymentDto);
+            @Valid @RequestBody PaymentReqDto paymentDto,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        BookingRespDto resp = receptionistService.makePayment(bookingId, paymentDto, idempotencyKey);
         return ResponseEntity.ok(resp);
     }
 	
@@ -94,9 +129,8 @@ public class RecptionistController {
 	}
 	
 	@GetMapping("/guest/bookings/update-status")
-	public ResponseEntity<String> manuallyUpdateBookings() {
-	    receptionistService.updateCompletedBookingsAndRooms();
-	    return ResponseEntity.ok("Bookings updated");
+	public ResponseEntity<?> manuallyUpdateBookings() {
+	    return ResponseEntity.ok(receptionistService.updateCompletedBookingsAndRooms());
 	}
 
 
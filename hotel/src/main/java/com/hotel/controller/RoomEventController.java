@@ -0,0 +1,30 @@
+package com.hotel.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.hotel.service.RoomEventBroadcaster;
+
+import lombok.AllArgsConstructor;
+
+@RestController
+@RequestMapping("/rooms")
+@AllArgsConstructor
+public class RoomEventController {
+
+	private final RoomEventBroadcaster broadcaster;
+
+	//LIVE ROOM CHANGES (Server-Sent Events, one "room" event per committed change)
+	@GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> roomEvents()
+	{
+		return ResponseEntity.ok()
+				//stop nginx style proxies from buffering the stream
+				.header("X-Accel-Buffering", "no")
+				.body(broadcaster.subscribe());
+	}
+}
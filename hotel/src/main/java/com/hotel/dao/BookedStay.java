@@ -0,0 +1,13 @@
+package com.hotel.dao;
+
+import java.time.LocalDate;
+
+//LIGHTWEIGHT PROJECTION OF A BOOKING - ONLY WHAT THE AVAILABILITY INDEX NEEDS
+public interface BookedStay {
+
+	Long getRoomId();
+
+	LocalDate getCheckInDate();
+
+	LocalDate getCheckOutDate();
+}
@@ -1,16 +1,77 @@
 package com.hotel.dao;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.hotel.dto.BookingRespDto;
 import com.hotel.entities.Booking;
 import com.hotel.entities.BookingStatus;
 
 public interface BookingDao extends JpaRepository<Booking, Long> {
 
+	//FLAT BOOKING + ROOM + USER + PAYMENT ROW, ONE SQL STATEMENT
+	String BOOKING_RESP_SELECT = "select new com.hotel.dto.BookingRespDto(b.bookingId, b.bookingDate, b.bookingStatus, "
+			+ "b.checkInDate, b.checkOutDate, r.roomId, u.userId, u.firstName, "
+			+ "p.paymentId, p.amount, p.paymentStatus, p.paymentDate) "
+			+ "from Booking b left join b.room r left join b.user u left join b.payment p ";
+
 	List<Booking> findByUserUserId(Long userId);
-	
-	List<Booking> findByBookingStatusNotAndCheckOutDateBefore(BookingStatus status, LocalDate date);
+
+	@Query(BOOKING_RESP_SELECT + "where u.userId = :userId order by b.bookingId")
+	List<BookingRespDto> findBookingRespByUserId(@Param("userId") Long userId);
+
+	@Query(BOOKING_RESP_SELECT + "where b.bookingId = :bookingId")
+	Optional<BookingRespDto> findBookingRespById(@Param("bookingId") Long bookingId);
+
+	//PAYMENT REPLAY - THE BOOKING PAID FOR BY THE REQUEST WITH THIS IDEMPOTENCY KEY
+	@Query(BOOKING_RESP_SELECT + "where p.idempotencyKey = :key")
+	Optional<BookingRespDto> findBookingRespByIdempotencyKey(@Param("key") String key);
+
+	//KEYSET CHUNK OF BOOKING IDS IN THE GIVEN STATES WHOSE STAY ENDED BEFORE THE GIVEN DAY
+	@Query("select b.bookingId from Booking b where b.bookingStatus in :statuses and b.checkOutDate < :date "
+			+ "and b.bookingId > :after order by b.bookingId")
+	List<Long> findIdsByStatusInAndCheckOutBefore(@Param("statuses") Collection<BookingStatus> statuses,
+			@Param("date") LocalDate date, @Param("after") Long after, Limit limit);
+
+	//ACTIVE BOOKINGS OF THE ROOM OVERLAPPING [checkIn, checkOut) - THE CHECK EVERY NODE SEES
+	@Query("select count(b) > 0 from Booking b where b.room.roomId = :roomId and b.bookingStatus in :statuses "
+			+ "and b.checkInDate < :checkOut and b.checkOutDate > :checkIn")
+	boolean existsOverlapping(@Param("roomId") Long roomId, @Param("statuses") Collection<BookingStatus> statuses,
+			@Param("checkIn") LocalDate checkIn, @Param("checkOut") LocalDate checkOut);
+
+	//SAME FOR A BLOCK - THE ROOMS (OUT OF THE GIVEN ONES) WITH AN OVERLAPPING ACTIVE BOOKING
+	@Query("select distinct b.room.roomId from Booking b where b.room.roomId in :roomIds and b.bookingStatus in :statuses "
+			+ "and b.checkInDate < :checkOut and b.checkOutDate > :checkIn")
+	List<Long> findOverlappingRoomIds(@Param("roomIds") Collection<Long> roomIds,
+			@Param("statuses") Collection<BookingStatus> statuses, @Param("checkIn") LocalDate checkIn,
+			@Param("checkOut") LocalDate checkOut);
+
+	@Query("select distinct b.room.roomId from Booking b where b.bookingId in :ids")
+	List<Long> findRoomIdsByBookingIdIn(@Param("ids") Collection<Long> ids);
+
+	//SET-BASED STATUS CHANGE - ONLY ROWS STILL IN ONE OF THE `from` STATES ARE TOUCHED
+	@Modifying
+	@Query("update Booking b set b.bookingStatus = :status where b.bookingId in :ids and b.bookingStatus in :from")
+	int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("from") Collection<BookingStatus> from,
+			@Param("status") BookingStatus status);
+
+	//ROOM NIGHTS STILL HELD BY LIVE BOOKINGS (USED TO WARM UP THE AVAILABILITY INDEX)
+	@Query("select b.room.roomId as roomId, b.checkInDate as checkInDate, b.checkOutDate as checkOutDate "
+			+ "from Booking b where b.bookingStatus in :statuses and b.checkOutDate > :date")
+	List<BookedStay> findStaysByStatusInAndCheckOutAfter(@Param("statuses") Collection<BookingStatus> statuses,
+			@Param("date") LocalDate date);
+
+	//SAME FOR ONE ROOM (RE-SYNCS A NODE'S INDEX WHEN IT DISAGREES WITH THE DATABASE)
+	@Query("select b.room.roomId as roomId, b.checkInDate as checkInDate, b.checkOutDate as checkOutDate "
+			+ "from Booking b where b.room.roomId = :roomId and b.bookingStatus in :statuses and b.checkOutDate > :date")
+	List<BookedStay> findStaysByRoomIdAndStatusInAndCheckOutAfter(@Param("roomId") Long roomId,
+			@Param("statuses") Collection<BookingStatus> statuses, @Param("date") LocalDate date);
 }
@@ -0,0 +1,21 @@
+package com.hotel.dao;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.hotel.entities.CatalogVersion;
+
+public interface CatalogVersionDao extends JpaRepository<CatalogVersion, String> {
+
+	//0 WHEN THE ROW DOES NOT EXIST YET
+	@Modifying
+	@Query("update CatalogVersion c set c.version = c.version + 1 where c.name = :name")
+	int increment(@Param("name") String name);
+
+	@Query("select c.version from CatalogVersion c where c.name = :name")
+	Optional<Long> findVersionByName(@Param("name") String name);
+}
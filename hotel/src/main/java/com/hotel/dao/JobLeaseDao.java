@@ -0,0 +1,46 @@
+package com.hotel.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hotel.entities.JobLease;
+
+/*
+ * EVERY LEASE CHANGE COMMITS ON ITS OWN, WHATEVER TRANSACTION THE CALLER IS IN.
+ * Lease times come from the database clock (LOCALTIMESTAMP), never from a node's
+ * own clock, so nodes with skewed clocks still agree on when a lease expires.
+ */
+public interface JobLeaseDao extends JpaRepository<JobLease, String> {
+
+	//FIRST RUN OF A JOB ANYWHERE - THE PRIMARY KEY LETS ONLY ONE NODE INSERT THE ROW
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	@Modifying
+	@Query(value = "insert into job_leases (job_name, owner, locked_at, locked_until) values (:jobName, :owner, "
+			+ "LOCALTIMESTAMP(6), TIMESTAMPADD(MICROSECOND, :ttlMicros, LOCALTIMESTAMP(6)))", nativeQuery = true)
+	int insert(@Param("jobName") String jobName, @Param("owner") String owner, @Param("ttlMicros") long ttlMicros);
+
+	//TAKE THE LEASE IF IT HAS EXPIRED (OR IS ALREADY OURS)
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	@Modifying
+	@Query(value = "update job_leases set owner = :owner, locked_at = LOCALTIMESTAMP(6), "
+			+ "locked_until = TIMESTAMPADD(MICROSECOND, :ttlMicros, LOCALTIMESTAMP(6)) "
+			+ "where job_name = :jobName and (locked_until <= LOCALTIMESTAMP(6) or owner = :owner)", nativeQuery = true)
+	int takeOver(@Param("jobName") String jobName, @Param("owner") String owner, @Param("ttlMicros") long ttlMicros);
+
+	//HEARTBEAT - FAILS ONCE ANOTHER NODE HAS TAKEN THE LEASE OVER
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	@Modifying
+	@Query(value = "update job_leases set locked_until = TIMESTAMPADD(MICROSECOND, :ttlMicros, LOCALTIMESTAMP(6)) "
+			+ "where job_name = :jobName and owner = :owner", nativeQuery = true)
+	int renew(@Param("jobName") String jobName, @Param("owner") String owner, @Param("ttlMicros") long ttlMicros);
+
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	@Modifying
+	@Query(value = "update job_leases set locked_until = LOCALTIMESTAMP(6) where job_name = :jobName and owner = :owner",
+			nativeQuery = true)
+	int release(@Param("jobName") String jobName, @Param("owner") String owner);
+}
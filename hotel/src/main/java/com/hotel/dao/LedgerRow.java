@@ -0,0 +1,29 @@
+package com.hotel.dao;
+
+import java.time.LocalDateTime;
+
+import com.hotel.entities.LedgerMismatch;
+import com.hotel.entities.OrderStatus;
+
+//ONE PAYMENT ORDER NEXT TO THE PAYMENT OF ITS BOOKING - ONLY WHAT RECONCILIATION NEEDS
+public interface LedgerRow {
+
+	Long getPaymentOrderId();
+
+	Long getBookingId();
+
+	long getAmount();
+
+	OrderStatus getStatus();
+
+	LocalDateTime getUpdatedAt();
+
+	LocalDateTime getCreatedAt();
+
+	LedgerMismatch getMismatch();
+
+	//null when the booking has no payment (or the order no booking)
+	Long getPaymentId();
+
+	Double getPaymentAmount();
+}
@@ -0,0 +1,43 @@
+package com.hotel.dao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.hotel.entities.LedgerMismatch;
+import com.hotel.entities.OrderStatus;
+import com.hotel.entities.PaymentOrder;
+
+public interface PaymentOrderDao extends JpaRepository<PaymentOrder, Long> {
+
+	Optional<PaymentOrder> findByOrderId(String orderId);
+
+	//LINKS A SETTLED ORDER TO THE BOOKING IT PAID FOR - ATOMIC, AN ORDER PAYS FOR ONE BOOKING ONLY
+	@Modifying
+	@Query("update PaymentOrder o set o.bookingId = :bookingId, o.updatedAt = :at, o.version = o.version + 1 "
+			+ "where o.orderId = :orderId and o.status = :status and o.bookingId is null "
+			+ "and o.roomId = :roomId and o.amount = :amount")
+	int linkBooking(@Param("orderId") String orderId, @Param("bookingId") Long bookingId, @Param("roomId") Long roomId,
+			@Param("amount") long amount, @Param("status") OrderStatus status, @Param("at") LocalDateTime at);
+
+	//KEYSET CHUNK OF THE LEDGER, EACH ORDER WITH ITS BOOKING'S PAYMENT (payments.booking_id is unique)
+	@Query("select o.paymentOrderId as paymentOrderId, o.bookingId as bookingId, o.amount as amount, "
+			+ "o.status as status, o.updatedAt as updatedAt, o.createdAt as createdAt, o.mismatch as mismatch, "
+			+ "p.paymentId as paymentId, p.amount as paymentAmount "
+			+ "from PaymentOrder o left join Payment p on p.booking.bookingId = o.bookingId "
+			+ "where o.paymentOrderId > :after order by o.paymentOrderId")
+	List<LedgerRow> findLedgerRows(@Param("after") Long after, Limit limit);
+
+	//SET-BASED FLAGGING - null mismatch clears the flag
+	@Modifying
+	@Query("update PaymentOrder o set o.mismatch = :mismatch, o.mismatchAt = :at where o.paymentOrderId in :ids")
+	int updateMismatchByIdIn(@Param("ids") Collection<Long> ids, @Param("mismatch") LedgerMismatch mismatch,
+			@Param("at") LocalDateTime at);
+}
@@ -2,6 +2,8 @@ package com.hotel.dao;
 
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.hotel.entities.Review;
@@ -13,5 +15,9 @@ public interface ReviewDao extends JpaRepository<Review, Long>{
 	boolean existsByUser(User user);
 	
 	List<Review> findByUser(User user);
+	
+	//KEYSET PAGE - reviewer fetched in the same query
+	@EntityGraph(attributePaths = "user")
+	List<Review> findByReviewIdGreaterThanOrderByReviewIdAsc(Long reviewId, Limit limit);
 
 }
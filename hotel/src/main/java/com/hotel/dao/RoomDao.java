@@ -1,12 +1,23 @@
 package com.hotel.dao;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.hotel.entities.BookingStatus;
 import com.hotel.entities.Category;
 import com.hotel.entities.Room;
+import com.hotel.entities.Status;
+
+import jakarta.persistence.LockModeType;
 
 
 public interface RoomDao extends JpaRepository<Room, Long> {
@@ -14,6 +25,37 @@ public interface RoomDao extends JpaRepository<Room, Long> {
 	boolean existsByRoomNumber(String roomNo);
 	
 	List<Room> findByCategory(Category category);
+
+	//ROOMS OF THE CATEGORY WITH NO ACTIVE BOOKING OVERLAPPING [checkIn, checkOut), LOWEST ID FIRST
+	@Query("select r.roomId from Room r where r.category = :category and not exists (select b.bookingId from Booking b "
+			+ "where b.room = r and b.bookingStatus in :statuses and b.checkInDate < :checkOut "
+			+ "and b.checkOutDate > :checkIn) order by r.roomId")
+	List<Long> findFreeRoomIds(@Param("category") Category category,
+			@Param("statuses") Collection<BookingStatus> statuses, @Param("checkIn") LocalDate checkIn,
+			@Param("checkOut") LocalDate checkOut);
 	
 	Optional<Room> findByRoomNumber(String roomNumber);
+	
+	@Query("select r.roomNumber from Room r")
+	List<String> findAllRoomNumbers();
+
+	
+	//KEYSET PAGE - NEXT `limit` ROOMS AFTER THE GIVEN ID
+	List<Room> findByRoomIdGreaterThanOrderByRoomIdAsc(Long roomId, Limit limit);
+	
+	//LOAD A ROOM FOR BOOKING - ITS VERSION IS BUMPED ON COMMIT SO RACING BOOKINGS CONFLICT
+	@Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+	@Query("select r from Room r where r.roomId = :roomId")
+	Optional<Room> findForBookingByRoomId(@Param("roomId") Long roomId);
+	
+	//BLOCK BOOKING - ROW LOCKS TAKEN IN ROOM-ID ORDER, VERSIONS BUMPED SO SINGLE BOOKINGS ON OTHER NODES CONFLICT
+	@Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+	@Query("select r from Room r where r.roomId in :roomIds order by r.roomId")
+	List<Room> findForBookingByRoomIdIn(@Param("roomIds") Collection<Long> roomIds);
+	
+	//SET-BASED STATUS CHANGE - BUMPS THE VERSION SO IN-FLIGHT BOOKINGS OF THESE ROOMS RETRY
+	@Modifying
+	@Query("update Room r set r.status = :status, r.version = r.version + 1 "
+			+ "where r.roomId in :ids and r.status <> :status")
+	int updateStatusByRoomIdIn(@Param("ids") Collection<Long> ids, @Param("status") Status status);
 }
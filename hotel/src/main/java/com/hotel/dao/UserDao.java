@@ -1,9 +1,15 @@
 package com.hotel.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.hotel.entities.Role;
 import com.hotel.entities.User;
@@ -16,5 +22,19 @@ public interface UserDao extends JpaRepository<User, Long> {
 	List<User> findByRole(Role role);
 	
 	Optional<User> findByEmail(String email);
+	
+	//WHICH OF THESE EMAILS ARE ALREADY REGISTERED (ONE IN QUERY)
+	@Query("select u.email from User u where u.email in :emails")
+	List<String> findEmailsByEmailIn(@Param("emails") Collection<String> emails);
+	
+	//KEYSET PAGE - NEXT `limit` USERS AFTER THE GIVEN ID
+	List<User> findByUserIdGreaterThanOrderByUserIdAsc(Long userId, Limit limit);
+	
+	//SWAP THE HASH ONLY IF NOBODY CHANGED THE PASSWORD IN THE MEANTIME
+	@Transactional
+	@Modifying
+	@Query("update User u set u.password = :newHash where u.userId = :userId and u.password = :oldHash")
+	int updatePasswordHash(@Param("userId") Long userId, @Param("oldHash") String oldHash,
+			@Param("newHash") String newHash);
 
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.hotel.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+//BLOCK BOOKING - EITHER explicit roomIds OR a category + count, for one date range
+@Getter
+@Setter
+@ToString
+public class BlockBookingReqDto {
+
+	@NotNull(message = "Please enter user ID")
+	private Long userId;
+
+	private List<Long> roomIds;
+
+	private String category;
+	private Integer count;
+
+	@NotNull(message = "Please enter check-in date")
+	private LocalDate checkInDate;
+
+	@NotNull(message = "Please enter check-out date")
+	private LocalDate checkOutDate;
+
+	private String bookingStatus;
+}
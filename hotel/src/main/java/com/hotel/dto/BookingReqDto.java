@@ -24,4 +24,6 @@ public class BookingReqDto {
 	private LocalDate checkInDate;
 	private LocalDate checkOutDate;
 	private String bookingStatus;
+	//signed quote from /payment/quote (optional)
+	private String quoteToken;
 }
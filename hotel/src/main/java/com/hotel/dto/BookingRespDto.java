@@ -7,6 +7,7 @@ import com.hotel.entities.BookingStatus;
 import com.hotel.entities.PaymentStatus;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
@@ -14,6 +15,7 @@ import lombok.ToString;
 @Getter
 @Setter
 @ToString
+@NoArgsConstructor
 public class BookingRespDto {
 
 	private Long bookingId;
@@ -31,5 +33,22 @@ public class BookingRespDto {
 	private double amount;
 	private PaymentStatus paymentStatus;
 	private LocalDateTime paymentDate;
+	
+	//USED BY JPQL CONSTRUCTOR EXPRESSIONS (payment columns are null when there is no payment yet)
+	public BookingRespDto(Long bookingId, LocalDate bookingDate, BookingStatus status, LocalDate checkInDate,
+			LocalDate checkOutDate, Long roomId, Long userId, String userName, Long paymentId, Double amount,
+			PaymentStatus paymentStatus, LocalDateTime paymentDate) {
+		this.bookingId = bookingId;
+		this.bookingDate = bookingDate;
+		this.status = status;
+		this.checkInDate = checkInDate;
+		this.checkOutDate = checkOutDate;
+		this.roomId = roomId;
+		this.userId = userId;
+		this.userName = userName;
+		this.paymentId = paymentId;
+		this.amount = amount != null ? amount : 0;
+		this.paymentStatus = paymentStatus;
+		this.paymentDate = paymentDate;
+	}
 }
-
@@ -0,0 +1,30 @@
+package com.hotel.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+public class BulkImportRespDto {
+
+	//a file of bad rows must not turn into an equally large response
+	public static final int MAX_ERRORS = 100;
+
+	private long rowsRead;
+	private long inserted;
+	//every rejected row - errors only lists the first MAX_ERRORS of them
+	private long rejected;
+	private List<RowErrorDto> errors = new ArrayList<>();
+
+	public void reject(long line, String key, String message) {
+		rejected++;
+		if (errors.size() < MAX_ERRORS) {
+			errors.add(new RowErrorDto(line, key, message));
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package com.hotel.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+public class BulkRegisterRespDto {
+
+	private int created;
+	private int rejected;
+	//one entry per request row, in request order
+	private List<RowResultDto> rows;
+}
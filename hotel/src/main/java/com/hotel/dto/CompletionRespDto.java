@@ -0,0 +1,17 @@
+package com.hotel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+public class CompletionRespDto {
+
+	private int bookingsCompleted;
+	private int roomsReleased;
+	private int chunks;
+}
@@ -0,0 +1,26 @@
+package com.hotel.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+//ONE KEYSET PAGE - PASS nextCursor AS ?after= TO GET THE NEXT ONE (null = last page)
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+public class CursorPageRespDto<T> {
+
+	private List<T> content;
+	private Long nextCursor;
+	private int limit;
+
+	public static <T> CursorPageRespDto<T> of(List<T> content, int limit, Function<T, Long> idOf) {
+		Long next = content.size() == limit ? idOf.apply(content.get(content.size() - 1)) : null;
+		return new CursorPageRespDto<>(content, next, limit);
+	}
+}
@@ -18,4 +18,8 @@ public class PaymentReqDto {
 	private double amount;
 	private String method;
 	private PaymentStatus paymentStatus = PaymentStatus.SUCCESS;
+	//gateway order the amount was paid with (optional - links the ledger to the booking)
+	private String orderId;
+	//signed quote from /payment/quote (optional)
+	private String quoteToken;
 }
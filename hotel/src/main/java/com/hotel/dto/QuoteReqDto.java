@@ -0,0 +1,26 @@
+package com.hotel.dto;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+public class QuoteReqDto {
+
+	//guest the stay is for - receptionists must send it, customers always quote for themselves
+	private Long userId;
+
+	@NotNull(message = "Please enter room ID")
+	private Long roomId;
+
+	@NotNull(message = "Please enter check-in date")
+	private LocalDate checkInDate;
+
+	@NotNull(message = "Please enter check-out date")
+	private LocalDate checkOutDate;
+}
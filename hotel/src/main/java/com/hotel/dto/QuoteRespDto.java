@@ -0,0 +1,29 @@
+package com.hotel.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+//A PRICED, HELD STAY - amounts in rupees, the token carries them signed
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+public class QuoteRespDto {
+
+	private String token;
+	private Long roomId;
+	private LocalDate checkInDate;
+	private LocalDate checkOutDate;
+	private int nights;
+	private BigDecimal subtotal;
+	private int discountPercent;
+	private BigDecimal discount;
+	private BigDecimal total;
+	private LocalDateTime expiresAt;
+}
@@ -0,0 +1,25 @@
+package com.hotel.dto;
+
+import java.util.Map;
+
+import com.hotel.entities.LedgerMismatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+public class ReconciliationRespDto {
+
+	private long ordersChecked;
+	private int chunks;
+	//orders currently in each kind of mismatch
+	private Map<LedgerMismatch, Integer> mismatches;
+	//flags set or cleared by this run
+	private int flagsChanged;
+	private int ordersResumed;
+}
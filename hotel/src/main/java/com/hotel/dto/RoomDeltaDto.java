@@ -0,0 +1,25 @@
+package com.hotel.dto;
+
+import com.hotel.entities.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * One room change pushed on /rooms/events.
+ * roomId null = many rooms changed (bulk import) - reload the list.
+ * version increases by one per change, so a gap means deltas were dropped.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RoomDeltaDto {
+
+	private Long roomId;
+	//ADDED, UPDATED, DELETED or STATUS
+	private String kind;
+	//null when deleted
+	private Status status;
+	private long version;
+}
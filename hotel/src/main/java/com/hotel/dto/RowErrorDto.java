@@ -0,0 +1,18 @@
+package com.hotel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+//ONE REJECTED ROW OF A BULK REQUEST (line = 1-based line / row number in the input)
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+public class RowErrorDto {
+
+	private long line;
+	private String key;
+	private String message;
+}
@@ -0,0 +1,24 @@
+package com.hotel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+//OUTCOME OF ONE ROW OF A BULK REGISTRATION (row = 1-based position in the request)
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+public class RowResultDto {
+
+	public enum Outcome {
+		CREATED, REJECTED
+	}
+
+	private int row;
+	private String email;
+	private Outcome outcome;
+	private Long userId;
+	private String message;
+}
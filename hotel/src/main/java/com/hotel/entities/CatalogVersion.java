@@ -0,0 +1,29 @@
+package com.hotel.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+//ONE COUNTER ROW PER CATALOG - RAISED IN THE SAME TRANSACTION AS EVERY CHANGE TO IT
+@Entity
+@Table(name = "catalog_versions")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class CatalogVersion {
+
+	@Id
+	@Column(length = 50)
+	private String name;
+
+	@Column(nullable = false)
+	private Long version;
+}
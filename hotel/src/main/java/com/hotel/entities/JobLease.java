@@ -0,0 +1,37 @@
+package com.hotel.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+//ONE ROW PER CLUSTER-WIDE JOB - WHOEVER HOLDS AN UNEXPIRED LEASE RUNS IT
+@Entity
+@Table(name = "job_leases")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class JobLease {
+
+	@Id
+	@Column(length = 100)
+	private String jobName;
+
+	@Column(nullable = false, length = 200)
+	private String owner;
+
+	@Column(nullable = false)
+	private LocalDateTime lockedAt;
+
+	@Column(nullable = false)
+	private LocalDateTime lockedUntil;
+}
@@ -0,0 +1,13 @@
+package com.hotel.entities;
+
+/*
+ * Disagreements between the payment ledger (payment_orders) and the payments table:
+ * MISSING_PAYMENT - order PAID for a booking which has no payment row
+ * AMOUNT_MISMATCH - the booking's payment is not the amount the order charged
+ * UNPAID_ORDER    - a payment was recorded against an order that is not PAID
+ * UNLINKED        - order PAID but never linked to a booking (money taken, nothing booked)
+ * STUCK           - still VERIFYING long after the checkout
+ */
+public enum LedgerMismatch {
+	MISSING_PAYMENT, AMOUNT_MISMATCH, UNPAID_ORDER, UNLINKED, STUCK
+}
@@ -0,0 +1,6 @@
+package com.hotel.entities;
+
+//LIFECYCLE OF A GATEWAY ORDER: CREATED -> VERIFYING -> PAID | FAILED
+public enum OrderStatus {
+	CREATED, VERIFYING, PAID, FAILED
+}
@@ -14,6 +14,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -31,7 +32,9 @@ import lombok.ToString;
 public class Payment {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "payment_ids")
+	@TableGenerator(name = "payment_ids", table = "id_sequences", pkColumnName = "sequence_name",
+			valueColumnName = "next_val", pkColumnValue = "payments", allocationSize = 50)
 	private Long paymentId;
 	
 	@Column(nullable = false)
@@ -49,7 +52,11 @@ public class Payment {
 	private PaymentStatus paymentStatus = PaymentStatus.SUCCESS;
 	
 	@OneToOne
-	@JoinColumn(name = "booking_id")
+	@JoinColumn(name = "booking_id", unique = true)
 	private Booking  booking;
 	
+	//client supplied Idempotency-Key of the request which created this payment
+	@Column(name = "idempotency_key", length = 64, unique = true)
+	private String idempotencyKey;
+	
 }
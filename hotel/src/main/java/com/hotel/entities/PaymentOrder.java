@@ -0,0 +1,92 @@
+package com.hotel.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/*
+ * Payment ledger: one payment gateway order, where its verification stands and the
+ * booking it paid for. Looked up by gateway order id (unique index) and by booking;
+ * PaymentReconciliationJob compares it against the payments table.
+ */
+@Entity
+@Table(name = "payment_orders", indexes = {
+		@Index(name = "idx_payment_orders_booking", columnList = "booking_id"),
+		@Index(name = "idx_payment_orders_mismatch", columnList = "mismatch") })
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode(of = "paymentOrderId", callSuper = false)
+public class PaymentOrder {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "payment_order_ids")
+	@TableGenerator(name = "payment_order_ids", table = "id_sequences", pkColumnName = "sequence_name",
+			valueColumnName = "next_val", pkColumnValue = "payment_orders", allocationSize = 50)
+	private Long paymentOrderId;
+
+	//id given by the gateway
+	@Column(nullable = false, unique = true, length = 64)
+	private String orderId;
+
+	@Column(nullable = false)
+	private Long roomId;
+
+	//booking paid with this order - set when the payment is recorded against the booking
+	@Column(name = "booking_id")
+	private Long bookingId;
+
+	//amount in paise
+	@Column(nullable = false)
+	private long amount;
+
+	@Column(nullable = false, length = 3)
+	private String currency;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private OrderStatus status = OrderStatus.CREATED;
+
+	@Column(length = 64)
+	private String gatewayPaymentId;
+
+	@Column(length = 128)
+	private String signature;
+
+	//verification attempts made so far
+	private int attempts;
+
+	@Column(length = 500)
+	private String lastError;
+
+	@Column(nullable = false)
+	private LocalDateTime createdAt = LocalDateTime.now();
+
+	private LocalDateTime updatedAt;
+
+	//what the last reconciliation found wrong with this order (null = nothing)
+	@Enumerated(EnumType.STRING)
+	@Column(length = 20)
+	private LedgerMismatch mismatch;
+
+	private LocalDateTime mismatchAt;
+
+	@Version
+	private Long version;
+}
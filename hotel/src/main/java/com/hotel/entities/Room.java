@@ -13,6 +13,8 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -29,7 +31,9 @@ import lombok.ToString;
 public class Room {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "room_ids")
+	@TableGenerator(name = "room_ids", table = "id_sequences", pkColumnName = "sequence_name",
+			valueColumnName = "next_val", pkColumnValue = "rooms", allocationSize = 50)
 	private Long roomId;
 	
 	@Column(nullable = false,unique = true)
@@ -52,6 +56,11 @@ public class Room {
 	@Column(nullable = false)
 	private Status status = Status.AVAILABLE;
 	
+	//OPTIMISTIC LOCK - BUMPED BY EVERY BOOKING OF THIS ROOM
+	@Version
+	@Column(nullable = false, columnDefinition = "bigint default 0")
+	private long version;
+	
 	@OneToMany(mappedBy = "room", orphanRemoval = true ,fetch = FetchType.LAZY)
 	private List<Booking> booking = new ArrayList<>();
 	
@@ -0,0 +1,138 @@
+package com.hotel.mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.hotel.dto.AddBookingRespDto;
+import com.hotel.dto.BookingRespDto;
+import com.hotel.dto.CustomerRespDto;
+import com.hotel.dto.ReviewRespDto;
+import com.hotel.dto.RoomRespDto;
+import com.hotel.dto.UpdateUserDto;
+import com.hotel.dto.UserRespDto;
+import com.hotel.entities.Booking;
+import com.hotel.entities.Payment;
+import com.hotel.entities.Review;
+import com.hotel.entities.Room;
+import com.hotel.entities.User;
+
+/*
+ * Plain getter/setter mapping for the response DTOs on hot paths
+ * (replaces reflective ModelMapper calls + the fields patched in after them).
+ * ModelMapper is still used for the request DTO -> entity conversions.
+ */
+@Component
+public class DtoMapper {
+
+	//---------ROOM---------
+
+	public RoomRespDto toRoomResp(Room room) {
+		RoomRespDto dto = new RoomRespDto();
+		dto.setRoomId(room.getRoomId());
+		dto.setRoomNumber(room.getRoomNumber());
+		dto.setOccupancy(room.getOccupancy());
+		dto.setCategory(room.getCategory());
+		dto.setPrice(room.getPrice());
+		dto.setStatus(room.getStatus());
+		dto.setImagePath(room.getImagePath());
+		return dto;
+	}
+
+	//---------BOOKING---------
+
+	public BookingRespDto toBookingResp(Booking booking) {
+		BookingRespDto dto = new BookingRespDto();
+		dto.setBookingId(booking.getBookingId());
+		dto.setBookingDate(booking.getBookingDate());
+		dto.setStatus(booking.getBookingStatus());
+		dto.setCheckInDate(booking.getCheckInDate());
+		dto.setCheckOutDate(booking.getCheckOutDate());
+		if (booking.getRoom() != null) {
+			dto.setRoomId(booking.getRoom().getRoomId());
+		}
+		if (booking.getUser() != null) {
+			dto.setUserId(booking.getUser().getUserId());
+			dto.setUserName(booking.getUser().getFirstName());
+		}
+		Payment payment = booking.getPayment();
+		if (payment != null) {
+			dto.setPaymentId(payment.getPaymentId());
+			dto.setAmount(payment.getAmount());
+			dto.setPaymentStatus(payment.getPaymentStatus());
+			dto.setPaymentDate(payment.getPaymentDate());
+		}
+		return dto;
+	}
+
+	public AddBookingRespDto toAddBookingResp(Booking booking) {
+		AddBookingRespDto dto = new AddBookingRespDto();
+		dto.setBookingId(booking.getBookingId());
+		dto.setBookingDate(booking.getBookingDate());
+		dto.setBookingStatus(booking.getBookingStatus());
+		dto.setCheckInDate(booking.getCheckInDate());
+		dto.setCheckOutDate(booking.getCheckOutDate());
+		if (booking.getRoom() != null) {
+			dto.setRoomId(booking.getRoom().getRoomId());
+			dto.setCategory(booking.getRoom().getCategory());
+		}
+		if (booking.getUser() != null) {
+			dto.setUserId(booking.getUser().getUserId());
+			dto.setUserName(booking.getUser().getFirstName());
+		}
+		return dto;
+	}
+
+	//---------USER---------
+
+	//(password hash is deliberately never copied into a response)
+	public UserRespDto toUserResp(User user) {
+		UserRespDto dto = new UserRespDto();
+		dto.setUserId(user.getUserId());
+		dto.setFirstName(user.getFirstName());
+		dto.setLastName(user.getLastName());
+		dto.setEmail(user.getEmail());
+		dto.setPhone(user.getPhone());
+		dto.setGender(user.getGender());
+		dto.setIdCard(user.getIdCard());
+		dto.setRole(user.getRole());
+		return dto;
+	}
+
+	public CustomerRespDto toCustomerResp(User user) {
+		CustomerRespDto dto = new CustomerRespDto();
+		dto.setFirstName(user.getFirstName());
+		dto.setLastName(user.getLastName());
+		dto.setEmail(user.getEmail());
+		dto.setPhone(user.getPhone());
+		dto.setGender(user.getGender());
+		dto.setIdCard(user.getIdCard());
+		dto.setRole(user.getRole());
+		return dto;
+	}
+
+	//PUT semantics - null fields in the request leave the entity untouched
+	public void updateUser(UpdateUserDto dto, User user) {
+		if (dto.getFirstName() != null) {
+			user.setFirstName(dto.getFirstName());
+		}
+		if (dto.getLastName() != null) {
+			user.setLastName(dto.getLastName());
+		}
+		if (dto.getPhone() != null) {
+			user.setPhone(dto.getPhone());
+		}
+	}
+
+	//---------REVIEW---------
+
+	public ReviewRespDto toReviewResp(Review review) {
+		ReviewRespDto dto = new ReviewRespDto();
+		dto.setRating(review.getRating());
+		dto.setComment(review.getComment());
+		dto.setReviewDate(review.getDate());
+		if (review.getUser() != null) {
+			dto.setUserId(review.getUser().getUserId());
+			dto.setUserName(review.getUser().getFirstName());
+		}
+		return dto;
+	}
+}
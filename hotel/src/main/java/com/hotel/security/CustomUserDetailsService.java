@@ -17,11 +17,21 @@ import lombok.RequiredArgsConstructor;
 public class CustomUserDetailsService implements UserDetailsService{
 
 	private final UserDao userDao;
+	private final UserDetailsCache userCache;
     
     
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+    	return userCache.get(email, this::loadFromDb);
+    }
+
+    // drop the cached entry of a user whose row is being changed / deleted
+    public void evictUser(String email) {
+    	userCache.evictAfterCommit(email);
+    }
+
+    private UserDetails loadFromDb(String email) {
 
         // Try User
         return userDao.findByEmail(email).map(user ->
@@ -1,14 +1,18 @@
 package com.hotel.security;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +30,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
     @Autowired
     private final CustomUserDetailsService userDetailsService;
 
+    // true -> every request re-checks the user against the (cached) DB row instead of trusting token claims
+    @Value("${auth.verify-user-against-db:false}")
+    private boolean verifyUserAgainstDb;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -33,18 +41,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
             throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        String jwt = null;
-        String email = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            email = jwtService.extractUsername(jwt);
-        }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+        		&& SecurityContextHolder.getContext().getAuthentication() == null) {
+            // single parse : signature + expiry checked here
+            Claims claims = jwtService.parseValidClaims(authHeader.substring(7));
 
-            if (jwtService.validateToken(jwt, userDetails)) {
+            if (claims != null && claims.getSubject() != null) {
+                UserDetails userDetails = toUserDetails(claims);
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
 
@@ -54,4 +58,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails toUserDetails(Claims claims) {
+    	String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+    	if (role == null || verifyUserAgainstDb) {
+    		// token issued before role/uid claims existed (or DB check forced) - cached DB lookup
+    		return userDetailsService.loadUserByUsername(claims.getSubject());
+    	}
+    	Number userId = claims.get(JwtService.CLAIM_USER_ID, Number.class);
+    	return new JwtUser(userId != null ? userId.longValue() : null, claims.getSubject(),
+    			List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
 }
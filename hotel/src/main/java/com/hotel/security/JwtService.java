@@ -7,10 +7,13 @@ import java.util.function.Function;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.hotel.entities.User;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
 @Service
@@ -18,10 +21,16 @@ public class JwtService {
 
 	private static final String SECRET_KEY = "9a$Bv8!k@7T#qZzP1Xo3^yLr6U&nFsE@RgHsKt4M%JzWn8A&fLp";
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(java.util.Base64.getEncoder().encodeToString(SECRET_KEY.getBytes()));
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
+	public static final String CLAIM_USER_ID = "uid";
+	public static final String CLAIM_ROLE = "role";
+
+	private static final long EXPIRATION_MILLIS = 1000 * 60 * 60 * 10; // 10 hours
+
+	// key and parser are immutable + thread safe - build them once
+	private final Key signInKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+	private final JwtParser parser = Jwts.parserBuilder()
+			.setSigningKey(signInKey)
+			.build();
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -37,11 +46,19 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /*
+     * Verify signature + expiry and return the claims in a single parse.
+     * Returns null for an invalid / expired / tampered token.
+     */
+    public Claims parseValidClaims(String token) {
+    	try {
+    		return extractAllClaims(token);
+    	} catch (JwtException | IllegalArgumentException e) {
+    		return null;
+    	}
     }
 
     private Boolean isTokenExpired(String token) {
@@ -52,11 +69,23 @@ public class JwtService {
         return Jwts.builder()
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 hours
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MILLIS))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    // token carrying user id + role so requests can be authenticated without a DB lookup
+    public String generateToken(User user) {
+    	return Jwts.builder()
+    			.setSubject(user.getEmail())
+    			.claim(CLAIM_USER_ID, user.getUserId())
+    			.claim(CLAIM_ROLE, user.getRole().name())
+    			.setIssuedAt(new Date(System.currentTimeMillis()))
+    			.setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MILLIS))
+    			.signWith(signInKey, SignatureAlgorithm.HS256)
+    			.compact();
+    }
+
     public Boolean validateToken(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
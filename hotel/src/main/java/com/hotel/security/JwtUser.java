@@ -0,0 +1,22 @@
+package com.hotel.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import lombok.Getter;
+
+// principal rebuilt from signed token claims - no password, carries the user id
+@Getter
+public class JwtUser extends User {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Long userId;
+
+	public JwtUser(Long userId, String email, Collection<? extends GrantedAuthority> authorities) {
+		super(email, "", authorities);
+		this.userId = userId;
+	}
+}
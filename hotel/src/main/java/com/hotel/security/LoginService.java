@@ -0,0 +1,53 @@
+package com.hotel.security;
+
+import org.springframework.stereotype.Service;
+
+import com.hotel.custom_exception.ApiException;
+import com.hotel.dao.UserDao;
+import com.hotel.dto.JwtRequest;
+import com.hotel.dto.JwtResponse;
+import com.hotel.entities.User;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Login pipeline : one user lookup + one password check, and the token
+ * and response are built from that same User row.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoginService {
+
+	private final UserDao userDao;
+	private final PasswordHasher passwordHasher;
+	private final JwtService jwtService;
+	private final UserDetailsCache userCache;
+
+	public JwtResponse login(JwtRequest request) {
+		User user = authenticate(request.getEmail(), request.getPassword());
+		String token = jwtService.generateToken(user);
+		return new JwtResponse(user.getUserId(), token, user.getEmail(), user.getFirstName(), user.getRole().toString());
+	}
+
+	public User authenticate(String email, String password) {
+		User user = userDao.findByEmail(email)
+				.orElseThrow(() -> new ApiException("Invalid email or password"));
+		if (!passwordHasher.matches(password, user.getPassword())) {
+			throw new ApiException("Invalid email or password");
+		}
+		rehashIfNeeded(user, password);
+		return user;
+	}
+
+	// we hold the plain password only right now - move the row to the current algorithm / cost
+	private void rehashIfNeeded(User user, String password) {
+		if (!passwordHasher.needsUpgrade(user.getPassword())) {
+			return;
+		}
+		String newHash = passwordHasher.encode(password);
+		if (userDao.updatePasswordHash(user.getUserId(), user.getPassword(), newHash) == 1) {
+			user.setPassword(newHash);
+			userCache.evict(user.getEmail());
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.hotel.security;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/*
+ * Builds the application PasswordEncoder :
+ *  - hashes are stored as "{id}hash" so several algorithms can co-exist
+ *  - legacy hashes without a prefix are plain BCrypt
+ *  - BCrypt cost is the configured one; only when calibration is switched on
+ *    is it measured at startup so that one hash takes about `targetMillis` on
+ *    this host (so every node of a cluster hashes at the same cost by default)
+ */
+public final class PasswordEncoderFactory {
+
+	private static final Logger log = LoggerFactory.getLogger(PasswordEncoderFactory.class);
+
+	static final int MIN_STRENGTH = 10;
+	static final int MAX_STRENGTH = 16;
+	//what BCryptPasswordEncoder itself accepts
+	private static final int MIN_CONFIGURED = 4;
+	private static final int MAX_CONFIGURED = 31;
+
+	private PasswordEncoderFactory() {
+	}
+
+	public static PasswordEncoder create(String encodingId, int bcryptStrength, boolean calibrate, long targetMillis) {
+		if (!calibrate && (bcryptStrength < MIN_CONFIGURED || bcryptStrength > MAX_CONFIGURED)) {
+			throw new IllegalArgumentException("BCrypt strength must be between " + MIN_CONFIGURED + " and "
+					+ MAX_CONFIGURED + ": " + bcryptStrength);
+		}
+		int strength = calibrate ? calibrateBcryptStrength(targetMillis) : bcryptStrength;
+
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+		Map<String, PasswordEncoder> encoders = new HashMap<>();
+		encoders.put("bcrypt", bcrypt);
+		encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+		if (!encoders.containsKey(encodingId)) {
+			throw new IllegalArgumentException("Unknown password encoder '" + encodingId + "', allowed: " + encoders.keySet());
+		}
+		DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encodingId, encoders);
+		// rows created before prefixes were introduced
+		delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+		log.info("Password encoder: {} (bcrypt cost {}, {})", encodingId, strength,
+				calibrate ? "calibrated" : "configured");
+		return delegating;
+	}
+
+	/*
+	 * Self benchmark : time one hash at the minimum cost, then keep doubling the
+	 * work (cost + 1) while the estimate stays inside the latency budget.
+	 */
+	static int calibrateBcryptStrength(long targetMillis) {
+		String sample = "calibration-Passw0rd#";
+		// warm up the JIT so the measurement isn't dominated by interpretation
+		new BCryptPasswordEncoder(4).encode(sample);
+		new BCryptPasswordEncoder(MIN_STRENGTH).encode(sample);
+
+		long start = System.nanoTime();
+		new BCryptPasswordEncoder(MIN_STRENGTH).encode(sample);
+		double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+		int strength = MIN_STRENGTH;
+		while (strength < MAX_STRENGTH && millis * 2 <= targetMillis) {
+			strength++;
+			millis *= 2;
+		}
+		log.info("BCrypt calibration: cost {} ~ {} ms per hash (target {} ms)", strength, Math.round(millis), targetMillis);
+		return strength;
+	}
+}
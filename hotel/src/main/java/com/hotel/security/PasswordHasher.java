@@ -0,0 +1,166 @@
+package com.hotel.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.hotel.custom_exception.ApiException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Runs password hashing (BCrypt) on its own small, bounded pool.
+ * A login / registration storm can then only use `threads` cores for hashing and
+ * excess requests are turned away quickly instead of piling up on Tomcat threads.
+ * Bulk hashing (encodeAll) may hold at most half the queue, so it never turns logins
+ * away, and hashes on the calling thread when the pool is full rather than failing.
+ */
+@Component
+public class PasswordHasher {
+
+	private final PasswordEncoder passwordEncoder;
+	private final ThreadPoolExecutor pool;
+	private final long timeoutMillis;
+	private final Semaphore bulkPermits;
+	private final Timer matchTimer;
+	private final Timer encodeTimer;
+
+	public PasswordHasher(PasswordEncoder passwordEncoder, MeterRegistry registry,
+			@Value("${auth.hash-pool.threads:0}") int threads,
+			@Value("${auth.hash-pool.queue-size:256}") int queueSize,
+			@Value("${auth.hash-pool.timeout-millis:5000}") long timeoutMillis) {
+		this.passwordEncoder = passwordEncoder;
+		this.timeoutMillis = timeoutMillis;
+		this.bulkPermits = new Semaphore(Math.max(1, queueSize / 2));
+		int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		AtomicInteger counter = new AtomicInteger();
+		this.pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueSize),
+				r -> {
+					Thread t = new Thread(r, "password-hash-" + counter.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+		// hashing cost as seen on the pool (GET /actuator/metrics/auth.password.hash)
+		this.matchTimer = Timer.builder("auth.password.hash").tag("op", "matches").register(registry);
+		this.encodeTimer = Timer.builder("auth.password.hash").tag("op", "encode").register(registry);
+	}
+
+	public boolean matches(String rawPassword, String encodedPassword) {
+		if (rawPassword == null || encodedPassword == null) {
+			return false;
+		}
+		return await(submit(() -> matchTimer.recordCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword))));
+	}
+
+	public String encode(String rawPassword) {
+		return await(encodeAsync(rawPassword));
+	}
+
+	// hand out the future so callers can hash several passwords in parallel
+	public Future<String> encodeAsync(String rawPassword) {
+		return submit(() -> encodeTimer.recordCallable(() -> passwordEncoder.encode(rawPassword)));
+	}
+
+	// hash a batch (bulk registration) - same order as the input
+	public List<String> encodeAll(List<String> rawPasswords) {
+		List<Future<String>> hashes = new ArrayList<>(rawPasswords.size());
+		try {
+			for (String rawPassword : rawPasswords) {
+				hashes.add(encodeBulk(rawPassword));
+			}
+			List<String> encoded = new ArrayList<>(hashes.size());
+			for (Future<String> hash : hashes) {
+				encoded.add(await(hash));
+			}
+			return encoded;
+		} finally {
+			// no-op for finished hashes, frees the pool when the batch failed part way
+			hashes.forEach(hash -> hash.cancel(true));
+		}
+	}
+
+	private Future<String> encodeBulk(String rawPassword) {
+		Callable<String> task = () -> encodeTimer.recordCallable(() -> passwordEncoder.encode(rawPassword));
+		try {
+			bulkPermits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ApiException("Request interrupted");
+		}
+		// done() runs on completion and on cancel - the permit always comes back
+		FutureTask<String> future = new FutureTask<>(task) {
+			@Override
+			protected void done() {
+				bulkPermits.release();
+			}
+		};
+		try {
+			pool.execute(future);
+			return future;
+		} catch (RejectedExecutionException e) {
+			// logins filled the queue - hash this one on the caller's thread
+			bulkPermits.release();
+			try {
+				return CompletableFuture.completedFuture(task.call());
+			} catch (RuntimeException re) {
+				throw re;
+			} catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+	}
+
+	// true when the stored hash uses an older algorithm / lower cost than configured
+	public boolean needsUpgrade(String encodedPassword) {
+		return encodedPassword != null && passwordEncoder.upgradeEncoding(encodedPassword);
+	}
+
+	public <T> T await(Future<T> future) {
+		try {
+			return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			throw new ApiException("Server is busy, please try again");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ApiException("Request interrupted");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException re) {
+				throw re;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private <T> Future<T> submit(Callable<T> task) {
+		try {
+			return pool.submit(task);
+		} catch (RejectedExecutionException e) {
+			throw new ApiException("Server is busy, please try again");
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		pool.shutdown();
+	}
+}
@@ -2,6 +2,7 @@ package com.hotel.security;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,7 +10,7 @@ import org.springframework.security.config.annotation.authentication.builders.Au
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -38,9 +39,11 @@ public class SecurityConfig {
                 .requestMatchers("/customer/register").permitAll()
                 .requestMatchers("/uploads/**").permitAll()  
                 .requestMatchers("/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/customer/**").hasRole("CUSTOMER")
                 .requestMatchers("/manager/**").hasRole("MANAGER")
                 .requestMatchers("/receptionist/**").hasRole("RECEPTIONIST")
+                .requestMatchers("/payment/create-order", "/payment/quote", "/payment/quote/**").hasAnyRole("CUSTOMER", "RECEPTIONIST")
                 .requestMatchers("/payment/**").permitAll()
                 .requestMatchers(
                         "/v3/api-docs/**",
@@ -62,16 +65,20 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationManager authManager(HttpSecurity http) throws Exception {
+    public AuthenticationManager authManager(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
         return http.getSharedObject(AuthenticationManagerBuilder.class)
             .userDetailsService(userDetailsService)
-            .passwordEncoder(passwordEncoder())
+            .passwordEncoder(passwordEncoder)
             .and().build();
     }
 
+    // fixed BCrypt cost unless calibration against the latency target is switched on
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.encoder:bcrypt}") String encodingId,
+    		@Value("${auth.password.bcrypt-strength:12}") int bcryptStrength,
+    		@Value("${auth.password.calibrate:false}") boolean calibrate,
+    		@Value("${auth.password.target-millis:250}") long targetMillis) {
+        return PasswordEncoderFactory.create(encodingId, bcryptStrength, calibrate, targetMillis);
     }
     
     
@@ -0,0 +1,132 @@
+package com.hotel.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Bounded LRU cache of UserDetails keyed by email, with a time-to-live per entry.
+ * Hit / miss / eviction counts are published as "auth.user.cache.*" meters
+ * (GET /actuator/metrics/auth.user.cache.gets?tag=result:hit ...).
+ */
+@Component
+public class UserDetailsCache {
+
+	private final int maxSize;
+	private final long ttlMillis;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/*
+	 * Bumped (under the entries lock) by every evict. A load only gets cached
+	 * if no evict happened while it ran, so a row read before an update can't
+	 * be put back after that update's eviction.
+	 */
+	private long generation;
+
+	// access ordered -> eldest entry is the least recently used one
+	private final LinkedHashMap<String, Entry> entries;
+
+	public UserDetailsCache(@Value("${auth.user-cache.max-size:50000}") int maxSize,
+			@Value("${auth.user-cache.ttl-seconds:300}") long ttlSeconds,
+			MeterRegistry registry) {
+		this.maxSize = maxSize;
+		this.ttlMillis = ttlSeconds * 1000;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > UserDetailsCache.this.maxSize) {
+					evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+
+		FunctionCounter.builder("auth.user.cache.gets", hits, AtomicLong::get).tag("result", "hit").register(registry);
+		FunctionCounter.builder("auth.user.cache.gets", misses, AtomicLong::get).tag("result", "miss").register(registry);
+		FunctionCounter.builder("auth.user.cache.evictions", evictions, AtomicLong::get).register(registry);
+		Gauge.builder("auth.user.cache.size", this, UserDetailsCache::size).register(registry);
+	}
+
+	public UserDetails get(String email, Function<String, UserDetails> loader) {
+		long now = System.currentTimeMillis();
+		long gen;
+		synchronized (entries) {
+			Entry entry = entries.get(email);
+			if (entry != null && entry.expiresAt > now) {
+				hits.incrementAndGet();
+				return copy(entry.details);
+			}
+			if (entry != null) {
+				entries.remove(email);
+				evictions.incrementAndGet();
+			}
+			gen = generation;
+		}
+		misses.incrementAndGet();
+		// load outside the lock - a concurrent duplicate load is harmless
+		UserDetails details = loader.apply(email);
+		synchronized (entries) {
+			if (generation == gen) {
+				entries.put(email, new Entry(details, now + ttlMillis));
+			}
+		}
+		return copy(details);
+	}
+
+	// callers get their own instance - spring security erases credentials on the returned principal
+	private static UserDetails copy(UserDetails details) {
+		return User.withUserDetails(details).build();
+	}
+
+	public void evict(String email) {
+		synchronized (entries) {
+			generation++;
+			if (entries.remove(email) != null) {
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	/*
+	 * Evict now and again once the surrounding transaction commits, so a
+	 * request racing with the update can't re-cache the old row.
+	 */
+	public void evictAfterCommit(String email) {
+		evict(email);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evict(email);
+				}
+			});
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	private record Entry(UserDetails details, long expiresAt) {
+	}
+}
@@ -1,9 +1,14 @@
 package com.hotel.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import com.hotel.dto.ApiResponse;
+import com.hotel.dto.BulkRegisterRespDto;
+import com.hotel.dto.CursorPageRespDto;
 import com.hotel.dto.LoginReqDto;
+import com.hotel.dto.ReconciliationRespDto;
 import com.hotel.dto.UserReqDto;
 import com.hotel.dto.UserRespDto;
 import com.hotel.entities.User;
@@ -14,8 +19,14 @@ public interface AdminService {
 	
 	List<UserRespDto> getAllUser();
 	
+	CursorPageRespDto<UserRespDto> getUsersPage(Long after, int limit);
+	
+	void exportUsers(OutputStream out) throws IOException;
+	
 	UserRespDto addUser(UserReqDto UserDto);
 	
+	BulkRegisterRespDto addUsers(List<UserReqDto> userDtos);
+	
 	UserRespDto getUserById(Long id);
 	
 	UserRespDto getUserByEmail(String email);
@@ -25,4 +36,6 @@ public interface AdminService {
 	ApiResponse deleteUser(Long id);
 	
 	List<UserRespDto> getUserByRole(String role);
+	
+	ReconciliationRespDto reconcilePayments();
 }
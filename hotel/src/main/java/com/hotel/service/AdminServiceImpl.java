@@ -1,22 +1,31 @@
 package com.hotel.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.modelmapper.ModelMapper;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.hotel.custom_exception.ApiException;
 import com.hotel.custom_exception.ResourceNotFoundException;
 import com.hotel.dao.UserDao;
 import com.hotel.dto.ApiResponse;
+import com.hotel.dto.BulkRegisterRespDto;
+import com.hotel.dto.CursorPageRespDto;
 import com.hotel.dto.LoginReqDto;
+import com.hotel.dto.ReconciliationRespDto;
 import com.hotel.dto.UserReqDto;
 import com.hotel.dto.UserRespDto;
 import com.hotel.entities.Role;
 import com.hotel.entities.User;
+import com.hotel.mapper.DtoMapper;
+import com.hotel.security.CustomUserDetailsService;
 
 import lombok.AllArgsConstructor;
 
@@ -29,13 +38,18 @@ public class AdminServiceImpl implements AdminService {
 	private final UserDao userDao;
 	
 	private final ModelMapper modelMapper;
-	private final BCryptPasswordEncoder passwordEncoder;
+	private final DtoMapper dtoMapper;
+	private final PasswordEncoder passwordEncoder;
+	private final CustomUserDetailsService userDetailsService;
+	private final JdbcExporter exporter;
+	private final UserBulkRegistrar bulkRegistrar;
+	private final PaymentReconciliationJob reconciliationJob;
 
 	@Override
 	public List<UserRespDto> getAllUser() {
 		return userDao.findAll()
 				.stream()
-				.map(user -> modelMapper.map(user, UserRespDto.class))
+				.map(user -> dtoMapper.toUserResp(user))
 				.collect(Collectors.toList());
 	}
 	
@@ -46,7 +60,7 @@ public class AdminServiceImpl implements AdminService {
 		if (!passwordEncoder.matches(loginDto.getPassword(), user.getPassword())) {
 			throw new ApiException("Invalid email or password");
 		}
-		return modelMapper.map(user, UserRespDto.class);
+		return dtoMapper.toUserResp(user);
 	}
 
 
@@ -59,20 +73,36 @@ public class AdminServiceImpl implements AdminService {
 		entity.setPassword(passwordEncoder.encode(userDto.getPassword()));
 		Role role = Role.valueOf(userDto.getRole().toUpperCase());
 		entity.setRole(role);
-		return modelMapper.map(userDao.save(entity),UserRespDto.class);
+		return dtoMapper.toUserResp(userDao.save(entity));
+	}
+
+	//STAFF / GUEST BATCH - PASSWORDS ARE HASHED IN PARALLEL ON THE HASH POOL
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public BulkRegisterRespDto addUsers(List<UserReqDto> userDtos) {
+		return bulkRegistrar.register(userDtos, UserReqDto::getEmail, UserReqDto::getPassword, dto -> {
+			if (dto.getPassword() == null) {
+				throw new ApiException("Password is required");
+			}
+			User entity = modelMapper.map(dto, User.class);
+			entity.setPassword(null);
+			entity.setRole(UserBulkRegistrar.roleOf(dto.getRole(), null));
+			return entity;
+		});
 	}
 
 	@Override
 	public UserRespDto getUserById(Long id) {
 		User user = userDao.findById(id)
 				.orElseThrow(()->new ResourceNotFoundException("Invalid id"));
-		return modelMapper.map(user, UserRespDto.class);
+		return dtoMapper.toUserResp(user);
 	}
 
 	@Override
 	public User updateDetails(Long id, User user) {
 		User user2 = userDao.findById(id)
 				.orElseThrow(()->new ResourceNotFoundException("Invalid id"));
+		userDetailsService.evictUser(user2.getEmail());
 		return userDao.save(user2);
 	}
 
@@ -82,6 +112,7 @@ public class AdminServiceImpl implements AdminService {
 				.orElseThrow(()->new ResourceNotFoundException("Invalid id"));
 		
 		userDao.delete(user);
+		userDetailsService.evictUser(user.getEmail());
 		return new ApiResponse("User deleted");
 	}
 
@@ -91,7 +122,7 @@ public class AdminServiceImpl implements AdminService {
 		List<User> users = userDao.findByRole(role1);
 		return users
 				.stream()
-				.map(user -> modelMapper.map(user, UserRespDto.class))
+				.map(user -> dtoMapper.toUserResp(user))
 				.collect(Collectors.toList());
 	}
 
@@ -99,8 +130,38 @@ public class AdminServiceImpl implements AdminService {
 	public UserRespDto getUserByEmail(String email) {
 		User user = userDao.findByEmail(email)
 				.orElseThrow(()->new ResourceNotFoundException("Invalid id"));
-		return modelMapper.map(user, UserRespDto.class);
+		return dtoMapper.toUserResp(user);
+	}
+
+	//KEYSET PAGE OF USERS (ordered by id)
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageRespDto<UserRespDto> getUsersPage(Long after, int limit) {
+		int size = PageLimits.clamp(limit);
+		List<UserRespDto> users = userDao.findByUserIdGreaterThanOrderByUserIdAsc(after != null ? after : 0L, Limit.of(size))
+				.stream()
+				.map(user -> dtoMapper.toUserResp(user))
+				.collect(Collectors.toList());
+		return CursorPageRespDto.of(users, size, UserRespDto::getUserId);
+	}
+
+	//STREAM ALL USERS AS JSON (no password hashes)
+	@Override
+	@Transactional(readOnly = true)
+	public void exportUsers(OutputStream out) throws IOException {
+		exporter.export("select user_id as userId, first_name as firstName, last_name as lastName, email, phone, "
+				+ "gender, id_card as idCard, role from users order by user_id", out);
+	}
+
+	//PAYMENT LEDGER vs PAYMENTS - THE NIGHTLY SCHEDULE LIVES IN PaymentReconciliationJob
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public ReconciliationRespDto reconcilePayments() {
+		ReconciliationRespDto result = reconciliationJob.run();
+		if (result == null) {
+			throw new ApiException("Payment reconciliation is already running on another instance");
+		}
+		return result;
 	}
 
-	
 }
@@ -0,0 +1,112 @@
+package com.hotel.service;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.custom_exception.ApiException;
+
+/*
+ * Admission layer for booking writes.
+ * Requests for the same room are serialized on a lock stripe (held until the
+ * booking transaction has committed), requests for different rooms run in
+ * parallel. The stripes only cover this node: across app instances the booking
+ * transaction checks the database for overlapping stays and force-increments
+ * the room's @Version, so of two racing instances the later commit fails its
+ * version check. Such conflicts are retried a bounded number of times and the
+ * retry then sees the committed booking.
+ */
+@Component
+public class BookingAdmission {
+
+	static final int STRIPES = 64;
+	static final int MAX_ATTEMPTS = 3;
+	private static final long LOCK_WAIT_SECONDS = 5;
+
+	private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+	private final TransactionTemplate txTemplate;
+
+	public BookingAdmission(TransactionTemplate txTemplate) {
+		this.txTemplate = txTemplate;
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	//RUN THE WORK IN ITS OWN TRANSACTION WHILE HOLDING THE ROOM'S STRIPE
+	public <T> T admit(Long roomId, Supplier<T> work) {
+		ReentrantLock lock = stripeFor(roomId);
+		acquire(lock);
+		try {
+			return runWithRetry(work);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/*
+	 * Same for a booking that spans several rooms (block bookings): all their
+	 * stripes are taken in stripe order, so two overlapping blocks can never
+	 * wait on each other in a cycle.
+	 */
+	public <T> T admitAll(Collection<Long> roomIds, Supplier<T> work) {
+		TreeMap<Integer, ReentrantLock> ordered = new TreeMap<>();
+		for (Long roomId : roomIds) {
+			ordered.put(stripeIndex(roomId), stripes[stripeIndex(roomId)]);
+		}
+		Deque<ReentrantLock> held = new ArrayDeque<>(ordered.size());
+		try {
+			for (ReentrantLock lock : ordered.values()) {
+				acquire(lock);
+				held.push(lock);
+			}
+			return runWithRetry(work);
+		} finally {
+			while (!held.isEmpty()) {
+				held.pop().unlock();
+			}
+		}
+	}
+
+	private <T> T runWithRetry(Supplier<T> work) {
+		for (int attempt = 1;; attempt++) {
+			try {
+				return txTemplate.execute(status -> work.get());
+			} catch (ConcurrencyFailureException e) {
+				//version conflict with another instance, or a DB lock wait / deadlock victim
+				if (attempt >= MAX_ATTEMPTS) {
+					throw new ApiException("Room is being booked by someone else, please try again");
+				}
+			}
+		}
+	}
+
+	private void acquire(ReentrantLock lock) {
+		try {
+			if (!lock.tryLock(LOCK_WAIT_SECONDS, TimeUnit.SECONDS)) {
+				throw new ApiException("Too many booking requests for this room, please try again");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ApiException("Booking request interrupted");
+		}
+	}
+
+	ReentrantLock stripeFor(Long roomId) {
+		return stripes[stripeIndex(roomId)];
+	}
+
+	private static int stripeIndex(Long roomId) {
+		int h = Long.hashCode(roomId);
+		h ^= (h >>> 16);
+		return Math.floorMod(h, STRIPES);
+	}
+}
@@ -0,0 +1,99 @@
+package com.hotel.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.config.LeasedJob;
+import com.hotel.dao.BookingDao;
+import com.hotel.dao.RoomDao;
+import com.hotel.dto.CompletionRespDto;
+import com.hotel.entities.BookingStatus;
+import com.hotel.entities.Status;
+
+/*
+ * Nightly completion of bookings whose stay has ended.
+ * Works in keyset chunks of booking ids - each chunk is one short transaction
+ * with two set-based UPDATEs (bookings -> COMPLETED, their rooms -> AVAILABLE),
+ * so memory and lock time stay bounded however many bookings expired.
+ * Only BOOKED / CONFIRMED bookings are completed, CANCELLED ones are left alone.
+ * Runs on one node of the cluster at a time (see @LeasedJob) - run() returns
+ * null on the nodes which skipped it, and stops between chunks if the lease
+ * is lost.
+ */
+@Component
+public class BookingCompletionJob {
+
+	private static final Logger log = LoggerFactory.getLogger(BookingCompletionJob.class);
+
+	private final BookingDao bookingDao;
+	private final RoomDao roomDao;
+	private final TransactionTemplate txTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final JobLeaseManager leaseManager;
+	private final int chunkSize;
+
+	public BookingCompletionJob(BookingDao bookingDao, RoomDao roomDao, TransactionTemplate txTemplate,
+			ApplicationEventPublisher eventPublisher, JobLeaseManager leaseManager,
+			@Value("${app.completion.chunk-size:500}") int chunkSize) {
+		this.bookingDao = bookingDao;
+		this.roomDao = roomDao;
+		this.txTemplate = txTemplate;
+		this.eventPublisher = eventPublisher;
+		this.leaseManager = leaseManager;
+		this.chunkSize = chunkSize;
+	}
+
+	@Scheduled(cron = "${app.completion.cron:0 0 1 * * ?}") // daily at 1 AM by default
+	@LeasedJob(value = "booking-completion", leaseSeconds = 600)
+	public CompletionRespDto run() {
+		LocalDate today = LocalDate.now();
+		int bookings = 0;
+		int rooms = 0;
+		int chunks = 0;
+		long after = 0L;
+
+		while (true) {
+			//ANOTHER NODE HAS TAKEN THE JOB OVER - IT PICKS UP WHAT IS LEFT
+			if (leaseManager.currentLeaseLost()) {
+				log.warn("Booking completion stopped after {} chunk(s) - lease lost", chunks);
+				break;
+			}
+			List<Long> ids = bookingDao.findIdsByStatusInAndCheckOutBefore(RoomAvailabilityIndex.HOLDING_STATUSES,
+					today, after, Limit.of(chunkSize));
+			if (ids.isEmpty()) {
+				break;
+			}
+			int[] touched = txTemplate.execute(status -> completeChunk(ids));
+			bookings += touched[0];
+			rooms += touched[1];
+			chunks++;
+			after = ids.get(ids.size() - 1);
+			if (ids.size() < chunkSize) {
+				break;
+			}
+		}
+
+		log.info("Booking completion: {} bookings completed, {} rooms released in {} chunk(s)", bookings, rooms, chunks);
+		return new CompletionRespDto(bookings, rooms, chunks);
+	}
+
+	private int[] completeChunk(List<Long> bookingIds) {
+		List<Long> roomIds = bookingDao.findRoomIdsByBookingIdIn(bookingIds);
+		int bookings = bookingDao.updateStatusByIdIn(bookingIds, RoomAvailabilityIndex.HOLDING_STATUSES,
+				BookingStatus.COMPLETED);
+		int rooms = roomIds.isEmpty() ? 0 : roomDao.updateStatusByRoomIdIn(roomIds, Status.AVAILABLE);
+		//cached copies of these rooms are dropped when the chunk commits
+		roomIds.forEach(roomId -> eventPublisher.publishEvent(
+				new RoomChangedEvent(roomId, RoomChangedEvent.Kind.STATUS, Status.AVAILABLE)));
+		return new int[] { bookings, rooms };
+	}
+}
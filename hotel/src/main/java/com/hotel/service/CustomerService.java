@@ -1,12 +1,18 @@
 package com.hotel.service;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 import com.hotel.dto.AddBookingRespDto;
 import com.hotel.dto.ApiResponse;
 import com.hotel.dto.BookingReqDto;
 import com.hotel.dto.BookingRespDto;
+import com.hotel.dto.CompletionRespDto;
 import com.hotel.dto.ChangePasswordDto;
+import com.hotel.dto.CursorPageRespDto;
 import com.hotel.dto.LoginReqDto;
+import com.hotel.dto.PageRespDto;
 import com.hotel.dto.PaymentReqDto;
 import com.hotel.dto.ReviewReqDto;
 import com.hotel.dto.ReviewRespDto;
@@ -44,7 +50,7 @@ public interface CustomerService {
 	
 	AddBookingRespDto createBooking(BookingReqDto dto);
 	
-	BookingRespDto makePayment(Long bookingId, PaymentReqDto paymentDto);
+	BookingRespDto makePayment(Long bookingId, PaymentReqDto paymentDto, String idempotencyKey);
 	
 	List<BookingRespDto> getBookingsByUserId(Long userId);
 	
@@ -52,10 +58,19 @@ public interface CustomerService {
 	
 	BookingRespDto getBookingById(Long bookingId);
 	
-	void updateCompletedBookingsAndRooms();
+	CompletionRespDto updateCompletedBookingsAndRooms();
 	
 	List<RoomRespDto> getAllRooms();
 	
+	String getRoomsVersion();
+	
+	CursorPageRespDto<RoomRespDto> getRoomsPage(Long after, int limit);
+	
+	void exportRooms(OutputStream out) throws IOException;
+	
 	RoomRespDto getRoomById(Long id);
+	
+	PageRespDto<RoomRespDto> searchRooms(LocalDate from, LocalDate to, String category, Double maxPrice,
+			Integer occupancy, int page, int size);
 }
 
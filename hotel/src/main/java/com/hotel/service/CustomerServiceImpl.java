@@ -1,16 +1,20 @@
 package com.hotel.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 import org.modelmapper.ModelMapper;
-import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.hotel.custom_exception.ApiException;
@@ -25,7 +29,10 @@ import com.hotel.dto.ApiResponse;
 import com.hotel.dto.BookingReqDto;
 import com.hotel.dto.BookingRespDto;
 import com.hotel.dto.ChangePasswordDto;
+import com.hotel.dto.CompletionRespDto;
+import com.hotel.dto.CursorPageRespDto;
 import com.hotel.dto.LoginReqDto;
+import com.hotel.dto.PageRespDto;
 import com.hotel.dto.PaymentReqDto;
 import com.hotel.dto.ReviewReqDto;
 import com.hotel.dto.ReviewRespDto;
@@ -35,6 +42,7 @@ import com.hotel.dto.UserReqDto;
 import com.hotel.dto.UserRespDto;
 import com.hotel.entities.Booking;
 import com.hotel.entities.BookingStatus;
+import com.hotel.entities.Category;
 import com.hotel.entities.Method;
 import com.hotel.entities.Payment;
 import com.hotel.entities.PaymentStatus;
@@ -43,6 +51,8 @@ import com.hotel.entities.Role;
 import com.hotel.entities.Room;
 import com.hotel.entities.Status;
 import com.hotel.entities.User;
+import com.hotel.mapper.DtoMapper;
+import com.hotel.security.CustomUserDetailsService;
 
 import lombok.AllArgsConstructor;
 
@@ -54,13 +64,27 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 	
-	private final BCryptPasswordEncoder passwordEncoder;
+	private final PasswordEncoder passwordEncoder;
 	private final UserDao userDao;
 	private final ModelMapper modelMapper;
+	private final DtoMapper dtoMapper;
 	private final ReviewDao reviewDao;
 	private final BookingDao bookingDao;
 	private final RoomDao roomDao;
 	private final PaymentDao paymentDao;
+	private final RoomAvailabilityIndex availabilityIndex;
+	private final BookingAdmission bookingAdmission;
+	private final BookingCompletionJob completionJob;
+	private final RoomCache roomCache;
+	private final PaymentIntake paymentIntake;
+	private final PaymentServiceImpl paymentService;
+	private final PricingEngine pricingEngine;
+	private final QuoteService quoteService;
+	private final StayPolicy stayPolicy;
+	private final ApplicationEventPublisher eventPublisher;
+	private final RoomCatalog roomCatalog;
+	private final CustomUserDetailsService userDetailsService;
+	private final JdbcExporter exporter;
 	
 	
 	//---------USER-----------
@@ -75,7 +99,7 @@ public class CustomerServiceImpl implements CustomerService {
 		User entity = modelMapper.map(dto, User.class);
 		entity.setPassword(passwordEncoder.encode(dto.getPassword()));
 		entity.setRole(Role.CUSTOMER);
-		return modelMapper.map(userDao.save(entity), UserRespDto.class);
+		return dtoMapper.toUserResp(userDao.save(entity));
 	}
 
 	//USER SIGNIN
@@ -86,7 +110,7 @@ public class CustomerServiceImpl implements CustomerService {
 		if (!passwordEncoder.matches(loginDto.getPassword(), user.getPassword())) {
 			throw new ApiException("Invalid email or password");
 		}
-		return modelMapper.map(user, UserRespDto.class);
+		return dtoMapper.toUserResp(user);
 	}
 
 	//CHANGE PASSWORD
@@ -105,6 +129,7 @@ public class CustomerServiceImpl implements CustomerService {
 	    // Encode and update new password
 	    user.setPassword(passwordEncoder.encode(dto.getNewPassword()));
 	    userDao.save(user);
+	    userDetailsService.evictUser(user.getEmail());
 
 	    return new ApiResponse("Password updated successfully");
 	}
@@ -114,7 +139,7 @@ public class CustomerServiceImpl implements CustomerService {
 	public UserRespDto getUserById(Long id) {
 
 		return userDao.findById(id)
-				.map(user->modelMapper.map(user, UserRespDto.class))
+				.map(user->dtoMapper.toUserResp(user))
 				.orElseThrow(()->new ApiException("User Not Found!"));
 	}
  
@@ -125,9 +150,10 @@ public class CustomerServiceImpl implements CustomerService {
 	public UserRespDto updateUserDetails(Long id, UpdateUserDto dto) {
 		User user = userDao.findById(id)
 				.orElseThrow(()->new ResourceNotFoundException("User Not Found!"));
-		modelMapper.map(dto, user);
+		dtoMapper.updateUser(dto, user);
+		userDetailsService.evictUser(user.getEmail());
 		
-		return modelMapper.map(user, UserRespDto.class);
+		return dtoMapper.toUserResp(user);
 	}
 
 	@Override
@@ -135,6 +161,7 @@ public class CustomerServiceImpl implements CustomerService {
 		User user = userDao.findById(id)
 				.orElseThrow(()->new ResourceNotFoundException("User Not Found!"));
 		userDao.delete(user);
+		userDetailsService.evictUser(user.getEmail());
 		return new ApiResponse("User Deleted Successfully!");
 	}
 
@@ -149,7 +176,7 @@ public class CustomerServiceImpl implements CustomerService {
 		Review review = modelMapper.map(dto, Review.class);
 		review.setUser(user);
 		
-		return modelMapper.map(reviewDao.save(review), ReviewRespDto.class);
+		return dtoMapper.toReviewResp(reviewDao.save(review));
 	}
 
 	//UPDATE REVIEW
@@ -163,8 +190,7 @@ public class CustomerServiceImpl implements CustomerService {
 
 	    Review updated = reviewDao.save(review);
 
-	    ReviewRespDto res = modelMapper.map(updated, ReviewRespDto.class);
-	    res.setUserId(updated.getUser().getUserId());
+	    ReviewRespDto res = dtoMapper.toReviewResp(updated);
 	    return res;
 	}
 
@@ -174,9 +200,7 @@ public class CustomerServiceImpl implements CustomerService {
 				.orElseThrow(()->new ResourceNotFoundException("User Not Found!"));
 		List<Review> reviews = reviewDao.findByUser(user);
 		return reviews.stream().map(review -> {
-			ReviewRespDto dto = modelMapper.map(review, ReviewRespDto.class);
-			dto.setUserId(review.getUser().getUserId());
-			dto.setUserName(review.getUser().getFirstName());
+			ReviewRespDto dto = dtoMapper.toReviewResp(review);
 			
 			return dto;
 			
@@ -188,10 +212,7 @@ public class CustomerServiceImpl implements CustomerService {
 		 List<Review> reviews = reviewDao.findAll();
 
 		    return reviews.stream().map(review -> {
-		        ReviewRespDto dto = modelMapper.map(review, ReviewRespDto.class);
-
-		        dto.setUserId(review.getUser().getUserId());
-		        dto.setUserName(review.getUser().getFirstName());
+		        ReviewRespDto dto = dtoMapper.toReviewResp(review);
 		        return dto;
 		    }).collect(Collectors.toList());
 	}
@@ -208,26 +229,36 @@ public class CustomerServiceImpl implements CustomerService {
 	//---------------BOOKING--------------
 	
 	//CREATE BOOKING
+	//(runs its own transaction inside the room's admission lock)
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public AddBookingRespDto createBooking(BookingReqDto bookDto) {
+		return bookingAdmission.admit(bookDto.getRoomId(), () -> bookRoom(bookDto));
+	}
+
+	private AddBookingRespDto bookRoom(BookingReqDto bookDto) {
 		User user = userDao.findById(bookDto.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        Room room = roomDao.findById(bookDto.getRoomId())
+        Room room = roomDao.findForBookingByRoomId(bookDto.getRoomId())
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
         room.setStatus(Status.NOT_AVAILABLE);
 
         
-        LocalDate today = LocalDate.now();
-        
-        if (bookDto.getCheckInDate().isBefore(today)) {
-            throw new ApiException("Check-in date cannot be in the past");
-        }
+        stayPolicy.check(bookDto.getCheckInDate(), bookDto.getCheckOutDate());
 
-        if (!bookDto.getCheckOutDate().isAfter(bookDto.getCheckInDate())) {
-            throw new ApiException("Check-out date must be after check-in date");
+        //CHECK THE REQUESTED NIGHTS AGAINST EXISTING BOOKINGS (a live quote already holds them)
+        boolean held = bookDto.getQuoteToken() != null && quoteService.claimForTransaction(bookDto.getQuoteToken(),
+                user.getUserId(), room.getRoomId(), bookDto.getCheckInDate(), bookDto.getCheckOutDate());
+        if (!held && !availabilityIndex.tryReserveForTransaction(room.getRoomId(), bookDto.getCheckInDate(), bookDto.getCheckOutDate())) {
+            throw new ApiException("Room is already booked for the selected dates");
+        }
+        //THE INDEX ONLY KNOWS THIS NODE'S BOOKINGS - THE DATABASE KNOWS EVERY NODE'S
+        //(a racing booking on another node bumps the room version and this transaction retries)
+        if (bookingDao.existsOverlapping(room.getRoomId(), RoomAvailabilityIndex.HOLDING_STATUSES,
+                bookDto.getCheckInDate(), bookDto.getCheckOutDate())) {
+            throw new ApiException("Room is already booked for the selected dates");
         }
-
         
         Booking booking = new Booking();
         booking.setUser(user);
@@ -244,21 +275,25 @@ public class CustomerServiceImpl implements CustomerService {
         roomDao.save(room);
         
         roomDao.saveAndFlush(room);
+        publishStatus(room);
         
         // Map to response DTO
         
-        AddBookingRespDto respDto = modelMapper.map(savedBooking, AddBookingRespDto.class);
-        respDto.setRoomId(savedBooking.getRoom().getRoomId());
-        respDto.setCategory(savedBooking.getRoom().getCategory());
-        respDto.setUserId(savedBooking.getUser().getUserId());
-        respDto.setUserName(savedBooking.getUser().getFirstName());
+        AddBookingRespDto respDto = dtoMapper.toAddBookingResp(savedBooking);
        
         return respDto;
 	}
 
 
 	 //MAKE PAYMENT FOR EXISTING BOOKING
-   public BookingRespDto makePayment(Long bookingId, PaymentReqDto paymentDto) {
+   //(idempotent per Idempotency-Key, runs its own transaction - see PaymentIntake)
+   @Override
+   @Transactional(propagation = Propagation.NOT_SUPPORTED)
+   public BookingRespDto makePayment(Long bookingId, PaymentReqDto paymentDto, String idempotencyKey) {
+	   return paymentIntake.pay(bookingId, idempotencyKey, () -> pay(bookingId, paymentDto, idempotencyKey));
+   }
+
+   private BookingRespDto pay(Long bookingId, PaymentReqDto paymentDto, String idempotencyKey) {
 	   Booking booking = bookingDao.findById(bookingId)
                .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
 
@@ -266,12 +301,22 @@ public class CustomerServiceImpl implements CustomerService {
            throw new ApiException("Payment already exists for this booking");
        }
        
-       //CHECK PRICE 
+       //CHECK PRICE - THE WHOLE STAY, EXACT TO THE PAISA
        Room room = booking.getRoom();
-       double expectedAmount = room.getPrice();
+       //A LIVE QUOTE FOR THIS STAY FIXES THE PRICE, OTHERWISE PRICE IT NOW
+       OptionalLong quoted = paymentDto.getQuoteToken() == null ? OptionalLong.empty()
+       		: quoteService.quotedTotal(paymentDto.getQuoteToken(), booking.getUser().getUserId(), room.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate());
+       long expectedAmount = quoted.isPresent() ? quoted.getAsLong()
+       		: pricingEngine.quote(room.getCategory(), PricingEngine.toPaise(room.getPrice()),
+       				booking.getCheckInDate(), booking.getCheckOutDate()).total();
        
-       if(paymentDto.getAmount()!=expectedAmount) {
-       	throw new ApiException("Invalid payment amount. Expected: " + expectedAmount);
+       if(PricingEngine.toPaise(paymentDto.getAmount()) != expectedAmount) {
+       	throw new ApiException("Invalid payment amount. Expected: " + PricingEngine.toRupees(expectedAmount));
+       }
+       
+       //GATEWAY ORDER -> BOOKING, IN THE SAME TRANSACTION AS THE PAYMENT
+       if(paymentDto.getOrderId() != null) {
+       	paymentService.linkOrder(paymentDto.getOrderId(), bookingId, room.getRoomId(), paymentDto.getAmount());
        }
        
        Payment payment = new Payment();
@@ -281,6 +326,7 @@ public class CustomerServiceImpl implements CustomerService {
        payment.setMethod(method);
        payment.setPaymentStatus(paymentDto.getPaymentStatus() != null ? paymentDto.getPaymentStatus() : PaymentStatus.SUCCESS);
        payment.setBooking(booking);
+       payment.setIdempotencyKey(idempotencyKey);
        
        
        
@@ -293,16 +339,7 @@ public class CustomerServiceImpl implements CustomerService {
        bookingDao.save(booking);
 
        //Map to BookingRespDTO including payment info
-       BookingRespDto respDto = modelMapper.map(booking, BookingRespDto.class);
-       respDto.setRoomId(booking.getRoom().getRoomId());
-       respDto.setUserId(booking.getUser().getUserId());
-       respDto.setUserName(booking.getUser().getFirstName());
-
-       //Payment info
-       respDto.setPaymentId(savedPayment.getPaymentId());
-       respDto.setAmount(savedPayment.getAmount());
-       respDto.setPaymentStatus(savedPayment.getPaymentStatus());
-       respDto.setPaymentDate(savedPayment.getPaymentDate());
+       BookingRespDto respDto = dtoMapper.toBookingResp(booking);
 
        return respDto;
 	}
@@ -310,74 +347,30 @@ public class CustomerServiceImpl implements CustomerService {
    
    
    //UPDATE COMPLETE BOOKING
-   @Scheduled(cron = "0 0 1 * * ?") // Runs daily at 1 AM
-   public void updateCompletedBookingsAndRooms() {
-       LocalDate today = LocalDate.now();
-
-       // Step 1: Find bookings whose check-out date is before today and not completed
-       List<Booking> expiredBookings = bookingDao
-               .findByBookingStatusNotAndCheckOutDateBefore(BookingStatus.COMPLETED, today);
-
-       // Step 2: Update booking status and collect room IDs
-       Set<Long> roomIdsToUpdate = new HashSet<>();
-
-       for (Booking booking : expiredBookings) {
-           booking.setBookingStatus(BookingStatus.COMPLETED);
-           if (booking.getRoom() != null) {
-               roomIdsToUpdate.add(booking.getRoom().getRoomId());
-           }
-       }
-
-       // Save updated bookings in batch
-       bookingDao.saveAll(expiredBookings);
-
-       // Step 3: Update room statuses to AVAILABLE
-       if (!roomIdsToUpdate.isEmpty()) {
-           List<Room> rooms = roomDao.findAllById(roomIdsToUpdate);
-
-           for (Room room : rooms) {
-               room.setStatus(Status.AVAILABLE);
-           }
-
-           roomDao.saveAll(rooms);
+   @Transactional(propagation = Propagation.NOT_SUPPORTED)
+   public CompletionRespDto updateCompletedBookingsAndRooms() {
+       //SET-BASED, CHUNKED - THE NIGHTLY SCHEDULE LIVES IN BookingCompletionJob
+       CompletionRespDto result = completionJob.run();
+       if (result == null) {
+           throw new ApiException("Booking completion is already running on another instance");
        }
+       return result;
    }
 
        //GET ALL BOOKINGS BY USERID
 	@Override
 	public List<BookingRespDto> getBookingsByUserId(Long userId) {
-		User user = userDao.findById(userId)
-				.orElseThrow(() -> new ResourceNotFoundException("User not found"));
+		if (!userDao.existsById(userId)) {
+			throw new ResourceNotFoundException("User not found");
+		}
 		
-		List<Booking> bookings = bookingDao.findByUserUserId(userId);
+		//single joined query - room, user and payment columns come back in the same row
+		List<BookingRespDto> bookings = bookingDao.findBookingRespByUserId(userId);
 		
 		if(bookings.isEmpty()) {
 			throw new ResourceNotFoundException("No bookings found for this user");
 		}
-		
-		return bookings.stream().map(booking -> {
-			BookingRespDto dto = modelMapper.map(booking, BookingRespDto.class);
-			
-			//SET ROOM AND PGPROPERTY
-	        if (booking.getRoom() != null) {
-	            dto.setRoomId(booking.getRoom().getRoomId());
-	        }
-	        
-	     //SET USER
-	        if (booking.getUser() != null) {
-	            dto.setUserId(booking.getUser().getUserId());
-	            dto.setUserName(booking.getUser().getFirstName());
-	        }
-
-	        //SET PAYMENT
-	        if (booking.getPayment() != null) {
-	            dto.setPaymentId(booking.getPayment().getPaymentId());
-	            dto.setAmount(booking.getPayment().getAmount());
-	            dto.setPaymentStatus(booking.getPayment().getPaymentStatus());
-	            dto.setPaymentDate(booking.getPayment().getPaymentDate());
-	        }
-	        return dto;
-	    }).collect(Collectors.toList());
+		return bookings;
 	}
 
 
@@ -395,6 +388,7 @@ public class CustomerServiceImpl implements CustomerService {
         }
 
         // Step 3: Set booking status to CANCELLED
+        boolean wasHolding = RoomAvailabilityIndex.HOLDING_STATUSES.contains(booking.getBookingStatus());
         booking.setBookingStatus(BookingStatus.CANCELLED);
         bookingDao.save(booking);
 
@@ -403,6 +397,10 @@ public class CustomerServiceImpl implements CustomerService {
         if (room != null) {
             room.setStatus(com.hotel.entities.Status.AVAILABLE);
             roomDao.save(room);
+            publishStatus(room);
+            if (wasHolding) {
+                availabilityIndex.releaseAfterCommit(room.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate());
+            }
         }
 
         return new ApiResponse("Booking with ID " + bookingId + " has been cancelled successfully.");
@@ -411,46 +409,71 @@ public class CustomerServiceImpl implements CustomerService {
 	
 	@Override
 	public BookingRespDto getBookingById(Long bookingId) {
-		Booking booking = bookingDao.findById(bookingId)
+		return bookingDao.findBookingRespById(bookingId)
 	            .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
-
-	    BookingRespDto dto = modelMapper.map(booking, BookingRespDto.class);
-
-	    // Set Room and PGProperty
-	    if (booking.getRoom() != null) {
-	        dto.setRoomId(booking.getRoom().getRoomId());
-	    }
-
-	    // Set User
-	    if (booking.getUser() != null) {
-	        dto.setUserId(booking.getUser().getUserId());
-	        dto.setUserName(booking.getUser().getFirstName());
-	    }
-
-	    // Set Payment
-	    if (booking.getPayment() != null) {
-	        dto.setPaymentId(booking.getPayment().getPaymentId());
-	        dto.setAmount(booking.getPayment().getAmount());
-	        dto.setPaymentStatus(booking.getPayment().getPaymentStatus());
-	        dto.setPaymentDate(booking.getPayment().getPaymentDate());
-	    }
-
-	    return dto;
 	}
 	
 	@Override
 	public List<RoomRespDto> getAllRooms() {
-		return roomDao.findAll()
+		return roomCache.getAll();
+	}
+
+	//CATALOG VERSION (no transaction - at most one small query per cache refresh)
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public String getRoomsVersion() {
+		return roomCache.version();
+	}
+
+	//KEYSET PAGE OF ROOMS (ordered by id)
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageRespDto<RoomRespDto> getRoomsPage(Long after, int limit) {
+		int size = PageLimits.clamp(limit);
+		List<RoomRespDto> rooms = roomDao.findByRoomIdGreaterThanOrderByRoomIdAsc(after != null ? after : 0L, Limit.of(size))
 				.stream()
-				.map(room->modelMapper.map(room, RoomRespDto.class))
+				.map(room->dtoMapper.toRoomResp(room))
 				.collect(Collectors.toList());
+		return CursorPageRespDto.of(rooms, size, RoomRespDto::getRoomId);
+	}
+	
+	//STREAM ALL ROOMS AS JSON
+	@Override
+	@Transactional(readOnly = true)
+	public void exportRooms(OutputStream out) throws IOException {
+		exporter.export("select room_id as roomId, room_number as roomNumber, occupancy, category, price, status, "
+				+ "image_path as imagePath from rooms order by room_id", out);
 	}
 
 	
 	@Override
 	public RoomRespDto getRoomById(Long id) {
-		Room room = roomDao.findById(id)
-				.orElseThrow(()->new ResourceNotFoundException("Invalid room no"));
-		return modelMapper.map(room, RoomRespDto.class);
+		return roomCache.get(id);
 	}
+
+	//SEARCH BOOKABLE ROOMS FOR A DATE RANGE (served from the in-memory catalog)
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+	public PageRespDto<RoomRespDto> searchRooms(LocalDate from, LocalDate to, String category, Double maxPrice,
+			Integer occupancy, int page, int size) {
+		stayPolicy.check(from, to);
+		if (page < 0 || size < 1 || size > 100) {
+			throw new ApiException("Page must be >= 0 and size between 1 and 100");
+		}
+		Category cat = null;
+		if (category != null && !category.isBlank()) {
+			try {
+				cat = Category.valueOf(category.toUpperCase());
+			} catch (IllegalArgumentException e) {
+				throw new ApiException("Invalid category. Allowed values: " + Arrays.toString(Category.values()));
+			}
+		}
+		return roomCatalog.search(from, to, cat, maxPrice, occupancy, page, size);
+	}
+
+	//ROOM CACHE DROPS THE ROOM ONCE THE STATUS CHANGE COMMITS
+	private void publishStatus(Room room) {
+		eventPublisher.publishEvent(new RoomChangedEvent(room.getRoomId(), RoomChangedEvent.Kind.STATUS, room.getStatus()));
+	}
+
 }
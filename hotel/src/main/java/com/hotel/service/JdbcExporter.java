@@ -0,0 +1,143 @@
+package com.hotel.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * Streams the result of a query straight from the JDBC cursor to the response -
+ * nothing is collected in memory. Output is a JSON array, NDJSON (one object
+ * per line) or CSV with a header row.
+ * Column labels become the field names, so queries alias them in camelCase.
+ * (MySQL only streams rows with fetchSize = Integer.MIN_VALUE)
+ */
+@Component
+public class JdbcExporter {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ObjectMapper objectMapper;
+
+	public JdbcExporter(DataSource dataSource, ObjectMapper objectMapper,
+			@Value("${app.export.fetch-size:-2147483648}") int fetchSize) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.jdbcTemplate.setFetchSize(fetchSize);
+		this.objectMapper = objectMapper;
+	}
+
+	//JSON ARRAY
+	public void export(String sql, OutputStream out) throws IOException {
+		try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+			json.writeStartArray();
+			jdbcTemplate.query(sql, rs -> {
+				try {
+					writeObject(json, rs);
+				} catch (IOException e) {
+					// client went away - abort the query
+					throw new UncheckedIOException(e);
+				}
+			});
+			json.writeEndArray();
+		}
+	}
+
+	//ONE JSON OBJECT PER LINE
+	public void exportNdjson(String sql, OutputStream out) throws IOException {
+		try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+			json.setRootValueSeparator(null);
+			jdbcTemplate.query(sql, rs -> {
+				try {
+					writeObject(json, rs);
+					json.writeRaw('\n');
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+	}
+
+	//CSV WITH A HEADER ROW OF COLUMN LABELS
+	public void exportCsv(String sql, OutputStream out) throws IOException {
+		Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+		jdbcTemplate.query(sql, (ResultSetExtractor<Void>) rs -> {
+			ResultSetMetaData meta = rs.getMetaData();
+			try {
+				for (int i = 1; i <= meta.getColumnCount(); i++) {
+					writeCsvField(writer, i, meta.getColumnLabel(i));
+				}
+				writer.write('\n');
+				while (rs.next()) {
+					for (int i = 1; i <= meta.getColumnCount(); i++) {
+						Object value = rs.getObject(i);
+						writeCsvField(writer, i, value == null ? "" : textOf(value));
+					}
+					writer.write('\n');
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return null;
+		});
+		writer.flush();
+	}
+
+	private void writeObject(JsonGenerator json, ResultSet rs) throws IOException, SQLException {
+		ResultSetMetaData meta = rs.getMetaData();
+		json.writeStartObject();
+		for (int i = 1; i <= meta.getColumnCount(); i++) {
+			json.writeFieldName(meta.getColumnLabel(i));
+			writeValue(json, rs.getObject(i));
+		}
+		json.writeEndObject();
+	}
+
+	private void writeValue(JsonGenerator json, Object value) throws IOException {
+		if (value == null) {
+			json.writeNull();
+		} else if (value instanceof Number || value instanceof Boolean) {
+			json.writeObject(value);
+		} else {
+			json.writeString(textOf(value));
+		}
+	}
+
+	private static String textOf(Object value) {
+		if (value instanceof java.sql.Date date) {
+			return date.toLocalDate().toString();
+		}
+		if (value instanceof Timestamp timestamp) {
+			return timestamp.toLocalDateTime().toString();
+		}
+		return value.toString();
+	}
+
+	//QUOTE ONLY WHEN NEEDED, DOUBLING EMBEDDED QUOTES
+	private static void writeCsvField(Writer writer, int column, String text) throws IOException {
+		if (column > 1) {
+			writer.write(',');
+		}
+		if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+			writer.write(text);
+			return;
+		}
+		writer.write('"');
+		writer.write(text.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
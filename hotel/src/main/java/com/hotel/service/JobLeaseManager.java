@@ -0,0 +1,165 @@
+package com.hotel.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.hotel.dao.JobLeaseDao;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Cluster-wide job leases kept in the job_leases table.
+ * A node may run a job only while it holds the job's lease: acquire with a TTL,
+ * a heartbeat renews it every TTL/3 while the job runs, and it is released
+ * (expired) as soon as the job finishes. If a node dies mid-run the lease simply
+ * times out and the next node takes it over.
+ * Expiry is judged by the database clock (see JobLeaseDao). A job running under
+ * a lease checks currentLeaseLost() between units of work and stops once another
+ * node has taken over.
+ */
+@Component
+public class JobLeaseManager {
+
+	private static final Logger log = LoggerFactory.getLogger(JobLeaseManager.class);
+
+	private final JobLeaseDao jobLeaseDao;
+	private final String owner;
+	//lease of the job running on this thread (set by acquire, cleared by close)
+	private final ThreadLocal<Lease> current = new ThreadLocal<>();
+	private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "job-lease-heartbeat");
+		t.setDaemon(true);
+		return t;
+	});
+
+	public JobLeaseManager(JobLeaseDao jobLeaseDao, @Value("${app.instance-id:}") String instanceId) {
+		this.jobLeaseDao = jobLeaseDao;
+		this.owner = instanceId.isBlank()
+				? ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID()
+				: instanceId;
+	}
+
+	public String getOwner() {
+		return owner;
+	}
+
+	//TAKE THE LEASE AND KEEP IT ALIVE UNTIL THE RETURNED LEASE IS CLOSED, NULL IF ANOTHER NODE HOLDS IT
+	public Lease acquire(String jobName, Duration ttl) {
+		if (!tryAcquire(jobName, ttl)) {
+			return null;
+		}
+		long period = Math.max(1, ttl.toMillis() / 3);
+		Lease lease = new Lease(jobName, ttl);
+		lease.renewal = heartbeat.scheduleAtFixedRate(lease::renew, period, period, TimeUnit.MILLISECONDS);
+		current.set(lease);
+		return lease;
+	}
+
+	//TRUE WHEN THE JOB ON THIS THREAD RUNS UNDER A LEASE IT NO LONGER HOLDS
+	public boolean currentLeaseLost() {
+		Lease lease = current.get();
+		return lease != null && lease.isLost();
+	}
+
+	public boolean tryAcquire(String jobName, Duration ttl) {
+		if (jobLeaseDao.takeOver(jobName, owner, micros(ttl)) == 1) {
+			return true;
+		}
+		if (jobLeaseDao.existsById(jobName)) {
+			return false;
+		}
+		try {
+			return jobLeaseDao.insert(jobName, owner, micros(ttl)) == 1;
+		} catch (DataAccessException e) {
+			return false;
+		}
+	}
+
+	public boolean renew(String jobName, Duration ttl) {
+		return jobLeaseDao.renew(jobName, owner, micros(ttl)) == 1;
+	}
+
+	public void release(String jobName) {
+		jobLeaseDao.release(jobName, owner);
+	}
+
+	private static long micros(Duration ttl) {
+		return TimeUnit.NANOSECONDS.toMicros(ttl.toNanos());
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		heartbeat.shutdownNow();
+	}
+
+	//A HELD LEASE - CLOSING IT STOPS THE HEARTBEAT AND HANDS THE JOB BACK
+	public final class Lease implements AutoCloseable {
+
+		private final String jobName;
+		private final Duration ttl;
+		private volatile ScheduledFuture<?> renewal;
+		private volatile boolean lost;
+		//guarded by this - a heartbeat never runs after (or while) the lease is closed
+		private boolean closed;
+		private long renewedAt = System.nanoTime();
+
+		private Lease(String jobName, Duration ttl) {
+			this.jobName = jobName;
+			this.ttl = ttl;
+		}
+
+		public boolean isLost() {
+			return lost;
+		}
+
+		private synchronized void renew() {
+			if (closed || lost) {
+				return;
+			}
+			try {
+				if (JobLeaseManager.this.renew(jobName, ttl)) {
+					renewedAt = System.nanoTime();
+				} else {
+					markLost("was taken over by another node");
+				}
+			} catch (DataAccessException e) {
+				log.warn("Could not renew lease for job '{}': {}", jobName, e.getMessage());
+				//another node may hold it by now
+				if (System.nanoTime() - renewedAt >= ttl.toNanos()) {
+					markLost("expired while the database was unreachable");
+				}
+			}
+		}
+
+		private void markLost(String why) {
+			lost = true;
+			log.warn("Lease for job '{}' {}", jobName, why);
+			renewal.cancel(false);
+		}
+
+		@Override
+		public void close() {
+			if (current.get() == this) {
+				current.remove();
+			}
+			synchronized (this) {
+				closed = true;
+				renewal.cancel(false);
+			}
+			if (!lost) {
+				release(jobName);
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package com.hotel.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/*
+ * Offline stand-in for the payment gateway, for development and checkout benchmarks.
+ * Deterministic: whether a payment is declined depends only on its order / payment
+ * ids, and the n-th call for the same payment fails transiently or not depending
+ * only on n - so a benchmark run can be repeated exactly.
+ * latency-millis is added to every call; decline-rate and error-rate are 0..1.
+ * With check-signature on, signatures must be HMAC-SHA256(orderId|paymentId,
+ * key-secret) like Razorpay's; it is off by default because the demo checkout
+ * sends made-up signatures.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "local", matchIfMissing = true)
+public class LocalPaymentGateway implements PaymentGateway {
+
+	private static final int MAX_TRACKED = 100_000;
+
+	private final String keyId;
+	private final String keySecret;
+	private final long latencyMillis;
+	private final double declineRate;
+	private final double errorRate;
+	private final boolean checkSignature;
+
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong orders = new AtomicLong();
+	//calls made so far per payment - picks which attempts fail transiently
+	private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+	public LocalPaymentGateway(@Value("${razorpay.key_id:rzp_test_dummy_key}") String keyId,
+			@Value("${razorpay.key_secret:dummy_secret}") String keySecret,
+			@Value("${app.payment.local.latency-millis:40}") long latencyMillis,
+			@Value("${app.payment.local.decline-rate:0.1}") double declineRate,
+			@Value("${app.payment.local.error-rate:0.05}") double errorRate,
+			@Value("${app.payment.local.check-signature:false}") boolean checkSignature) {
+		this.keyId = keyId;
+		this.keySecret = keySecret;
+		this.latencyMillis = latencyMillis;
+		this.declineRate = declineRate;
+		this.errorRate = errorRate;
+		this.checkSignature = checkSignature;
+	}
+
+	@Override
+	public GatewayOrder createOrder(long amount, String currency, String receipt) {
+		pause();
+		String orderId = "order_" + epoch + Long.toString(orders.incrementAndGet(), 36);
+		return new GatewayOrder(orderId, amount, currency);
+	}
+
+	@Override
+	public Verification verify(String orderId, String paymentId, String signature) {
+		pause();
+		String payment = orderId + "|" + paymentId;
+		if (calls.size() > MAX_TRACKED) {
+			calls.clear();
+		}
+		int call = calls.computeIfAbsent(payment, p -> new AtomicInteger()).incrementAndGet();
+		if (bucket(payment + "#" + call) < errorRate) {
+			throw new GatewayException("Local gateway: simulated timeout (call " + call + ")", true, null);
+		}
+		calls.remove(payment);
+		if (paymentId == null || paymentId.isBlank()) {
+			return new Verification(Outcome.DECLINED, "Payment id is missing");
+		}
+		if (checkSignature && (signature == null || !MessageDigest.isEqual(
+				signature.getBytes(StandardCharsets.UTF_8), sign(orderId, paymentId).getBytes(StandardCharsets.UTF_8)))) {
+			return new Verification(Outcome.DECLINED, "Invalid payment signature");
+		}
+		if (bucket(payment) < declineRate) {
+			return new Verification(Outcome.DECLINED, "Declined by the local gateway");
+		}
+		return new Verification(Outcome.CAPTURED, "Payment captured");
+	}
+
+	@Override
+	public String publicKey() {
+		return keyId;
+	}
+
+	//THE SIGNATURE A REAL CHECKOUT WOULD HAND BACK (used by benchmark clients)
+	public String sign(String orderId, String paymentId) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(keySecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+			return HexFormat.of().formatHex(mac.doFinal((orderId + "|" + paymentId).getBytes(StandardCharsets.UTF_8)));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	//STABLE 0..1 VALUE FOR A STRING - SAME INPUT, SAME ANSWER ON EVERY RUN
+	static double bucket(String text) {
+		long h = text.hashCode() * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 32;
+		return (h & 0xFFFFFFL) / (double) 0x1000000L;
+	}
+
+	private void pause() {
+		if (latencyMillis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(latencyMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new GatewayException("Local gateway call interrupted", true, e);
+		}
+	}
+}
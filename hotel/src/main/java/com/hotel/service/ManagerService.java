@@ -1,9 +1,14 @@
 package com.hotel.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 import com.hotel.dto.ApiResponse;
+import com.hotel.dto.BulkImportRespDto;
 import com.hotel.dto.ChangePasswordDto;
+import com.hotel.dto.CursorPageRespDto;
 import com.hotel.dto.LoginReqDto;
 import com.hotel.dto.ReviewRespDto;
 import com.hotel.dto.RoomReqDto;
@@ -19,6 +24,16 @@ public interface ManagerService {
 	
 	List<RoomRespDto> getAllRooms();
 	
+	String getRoomsVersion();
+	
+	CursorPageRespDto<RoomRespDto> getRoomsPage(Long after, int limit);
+	
+	void exportRooms(OutputStream out) throws IOException;
+	
+	BulkImportRespDto importRooms(InputStream in, boolean csv) throws IOException;
+	
+	void exportRoomsBulk(OutputStream out, boolean csv) throws IOException;
+	
 	RoomRespDto getRoomById(Long id);
 	
 	RoomRespDto getRoomByRoomNumber(String roomNo);
@@ -38,5 +53,9 @@ public interface ManagerService {
 	List<ReviewRespDto> getReviewById(Long userId);
 	
 	List<ReviewRespDto> getAllReviews();
+	
+	CursorPageRespDto<ReviewRespDto> getReviewsPage(Long after, int limit);
+	
+	void exportReviews(OutputStream out) throws IOException;
 
 }
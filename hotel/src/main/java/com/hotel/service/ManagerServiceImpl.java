@@ -1,12 +1,18 @@
 package com.hotel.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.modelmapper.ModelMapper;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.hotel.custom_exception.ApiException;
@@ -15,7 +21,9 @@ import com.hotel.dao.ReviewDao;
 import com.hotel.dao.RoomDao;
 import com.hotel.dao.UserDao;
 import com.hotel.dto.ApiResponse;
+import com.hotel.dto.BulkImportRespDto;
 import com.hotel.dto.ChangePasswordDto;
+import com.hotel.dto.CursorPageRespDto;
 import com.hotel.dto.LoginReqDto;
 import com.hotel.dto.ReviewRespDto;
 import com.hotel.dto.RoomReqDto;
@@ -26,6 +34,7 @@ import com.hotel.entities.Review;
 import com.hotel.entities.Room;
 import com.hotel.entities.Status;
 import com.hotel.entities.User;
+import com.hotel.mapper.DtoMapper;
 
 import lombok.AllArgsConstructor;
 
@@ -35,10 +44,15 @@ import lombok.AllArgsConstructor;
 public class ManagerServiceImpl implements ManagerService {
 	
 	private final ModelMapper modelMapper;
-	private final BCryptPasswordEncoder passwordEncoder;
+	private final DtoMapper dtoMapper;
+	private final PasswordEncoder passwordEncoder;
 	private final RoomDao roomDao;
 	private final UserDao userDao;
 	private final ReviewDao reviewDao;
+	private final ApplicationEventPublisher eventPublisher;
+	private final JdbcExporter exporter;
+	private final RoomBulkImporter roomImporter;
+	private final RoomCache roomCache;
 	
 	@Override
 	public UserRespDto loginUser(LoginReqDto loginDto) {
@@ -47,7 +61,7 @@ public class ManagerServiceImpl implements ManagerService {
 		if (!passwordEncoder.matches(loginDto.getPassword(), user.getPassword())) {
 			throw new ApiException("Invalid email or password");
 		}
-		return modelMapper.map(user, UserRespDto.class);
+		return dtoMapper.toUserResp(user);
 	}
 	
 //	@Override
@@ -80,37 +94,83 @@ public class ManagerServiceImpl implements ManagerService {
 	    room.setImagePath(roomDto.getImagePath());
 	    room.setStatus(Status.AVAILABLE);
 
-	    return modelMapper.map(roomDao.save(room), RoomRespDto.class);
+	    Room saved = roomDao.save(room);
+	    publishChange(saved, RoomChangedEvent.Kind.ADDED);
+	    return dtoMapper.toRoomResp(saved);
 	}
 
 	@Override
 	public List<RoomRespDto> getAllRooms() {
-		return roomDao.findAll()
+		return roomCache.getAll();
+	}
+
+	//CATALOG VERSION (no transaction - at most one small query per cache refresh)
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public String getRoomsVersion() {
+		return roomCache.version();
+	}
+
+	//KEYSET PAGE OF ROOMS (ordered by id)
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageRespDto<RoomRespDto> getRoomsPage(Long after, int limit) {
+		int size = PageLimits.clamp(limit);
+		List<RoomRespDto> rooms = roomDao.findByRoomIdGreaterThanOrderByRoomIdAsc(after != null ? after : 0L, Limit.of(size))
 				.stream()
-				.map(room->modelMapper.map(room, RoomRespDto.class))
+				.map(room->dtoMapper.toRoomResp(room))
 				.collect(Collectors.toList());
+		return CursorPageRespDto.of(rooms, size, RoomRespDto::getRoomId);
+	}
+
+	//STREAM ALL ROOMS AS JSON
+	@Override
+	@Transactional(readOnly = true)
+	public void exportRooms(OutputStream out) throws IOException {
+		exporter.export("select room_id as roomId, room_number as roomNumber, occupancy, category, price, status, "
+				+ "image_path as imagePath from rooms order by room_id", out);
+	}
+
+	//BULK IMPORT - CHUNKS COMMIT ON THEIR OWN, ONE CATALOG REFRESH AT THE END
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public BulkImportRespDto importRooms(InputStream in, boolean csv) throws IOException {
+		BulkImportRespDto report = csv ? roomImporter.importCsv(in) : roomImporter.importNdjson(in);
+		if (report.getInserted() > 0) {
+			eventPublisher.publishEvent(new RoomChangedEvent(null, RoomChangedEvent.Kind.ADDED, null));
+		}
+		return report;
+	}
+
+	//BULK EXPORT IN THE SAME FORMAT THE IMPORT READS
+	@Override
+	@Transactional(readOnly = true)
+	public void exportRoomsBulk(OutputStream out, boolean csv) throws IOException {
+		String sql = "select room_number as roomNumber, occupancy, category, price, image_path as imagePath, "
+				+ "room_id as roomId, status from rooms order by room_id";
+		if (csv) {
+			exporter.exportCsv(sql, out);
+		} else {
+			exporter.exportNdjson(sql, out);
+		}
 	}
 
 	@Override
 	public RoomRespDto getRoomById(Long id) {
-		Room room = roomDao.findById(id)
-				.orElseThrow(()->new ResourceNotFoundException("Invalid room no"));
-		return modelMapper.map(room, RoomRespDto.class);
+		return roomCache.get(id);
 	}
 
 	@Override
 	public List<RoomRespDto> getRoomByCategory(String category) {
 		Category cat = Category.valueOf(category.toUpperCase()) ;
-		List<Room> rooms = roomDao.findByCategory(cat);
-		return rooms.stream()
-				.map(room->modelMapper.map(room, RoomRespDto.class))
-				.collect(Collectors.toList());
+		return roomCache.getByCategory(cat);
 	}
 
 	@Override
 	public Room updateRoom(Long id, Room room) {
 		Room room1 = roomDao.findById(id)
 				.orElseThrow(()->new ResourceNotFoundException("Invalid id"));
+		publishChange(room1, RoomChangedEvent.Kind.UPDATED);
 		return roomDao.save(room1);
 	}
 
@@ -119,6 +179,7 @@ public class ManagerServiceImpl implements ManagerService {
 		Room room = roomDao.findById(id)
 				.orElseThrow(()->new ResourceNotFoundException("Invalid id"));
 		roomDao.delete(room);
+		publishChange(room, RoomChangedEvent.Kind.DELETED);
 		return new ApiResponse("Room deleted");
 	}
 
@@ -130,15 +191,14 @@ public class ManagerServiceImpl implements ManagerService {
 
 	@Override
 	public RoomRespDto getRoomByRoomNumber(String roomNo) {
-		Room room = roomDao.findByRoomNumber(roomNo)
-				.orElseThrow(()->new ResourceNotFoundException("Invalid room no"));
-		return modelMapper.map(room, RoomRespDto.class);
+		return roomCache.getByRoomNumber(roomNo);
 	}
 
 	@Override
 	public Room updateRoomByRoomNumber(String id, Room room) {
 		Room room1 = roomDao.findByRoomNumber(id)
 				.orElseThrow(()->new ResourceNotFoundException("Invalid room number"));
+		publishChange(room1, RoomChangedEvent.Kind.UPDATED);
 		return roomDao.save(room1);
 	}
 
@@ -147,6 +207,7 @@ public class ManagerServiceImpl implements ManagerService {
 		Room room = roomDao.findByRoomNumber(roomNo)
 				.orElseThrow(()->new ResourceNotFoundException("Invalid id"));
 		roomDao.delete(room);
+		publishChange(room, RoomChangedEvent.Kind.DELETED);
 		return new ApiResponse("Room deleted");
 	}
 	
@@ -156,9 +217,7 @@ public class ManagerServiceImpl implements ManagerService {
 				.orElseThrow(()->new ResourceNotFoundException("User Not Found!"));
 		List<Review> reviews = reviewDao.findByUser(user);
 		return reviews.stream().map(review -> {
-			ReviewRespDto dto = modelMapper.map(review, ReviewRespDto.class);
-			dto.setUserId(review.getUser().getUserId());
-			dto.setUserName(review.getUser().getFirstName());
+			ReviewRespDto dto = dtoMapper.toReviewResp(review);
 			
 			return dto;
 			
@@ -170,13 +229,38 @@ public class ManagerServiceImpl implements ManagerService {
 		List<Review> reviews = reviewDao.findAll();
 
 	    return reviews.stream().map(review -> {
-	        ReviewRespDto dto = modelMapper.map(review, ReviewRespDto.class);
-
-	        dto.setUserId(review.getUser().getUserId());
-	        dto.setUserName(review.getUser().getFirstName());
+	        ReviewRespDto dto = dtoMapper.toReviewResp(review);
 	        return dto;
 	    }).collect(Collectors.toList());
 	}
 
+	//KEYSET PAGE OF REVIEWS - reviewer loaded in the same query
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageRespDto<ReviewRespDto> getReviewsPage(Long after, int limit) {
+		int size = PageLimits.clamp(limit);
+		List<Review> reviews = reviewDao.findByReviewIdGreaterThanOrderByReviewIdAsc(after != null ? after : 0L, Limit.of(size));
+		List<ReviewRespDto> content = reviews.stream().map(review -> {
+			ReviewRespDto dto = dtoMapper.toReviewResp(review);
+			return dto;
+		}).collect(Collectors.toList());
+		Long next = reviews.size() == size ? reviews.get(reviews.size() - 1).getReviewId() : null;
+		return new CursorPageRespDto<>(content, next, size);
+	}
+
+	//STREAM ALL REVIEWS AS JSON
+	@Override
+	@Transactional(readOnly = true)
+	public void exportReviews(OutputStream out) throws IOException {
+		exporter.export("select r.review_id as reviewId, r.rating, r.comment, r.date as reviewDate, u.user_id as userId, "
+				+ "u.first_name as userName from reviews r left join users u on u.user_id = r.user_id "
+				+ "order by r.review_id", out);
+	}
+
+	//LET CATALOG / AVAILABILITY VIEWS REFRESH ONCE THIS TRANSACTION COMMITS
+	private void publishChange(Room room, RoomChangedEvent.Kind kind) {
+		eventPublisher.publishEvent(new RoomChangedEvent(room.getRoomId(), kind,
+				kind == RoomChangedEvent.Kind.DELETED ? null : room.getStatus()));
+	}
 
 }
@@ -0,0 +1,18 @@
+package com.hotel.service;
+
+//BOUNDS FOR CLIENT SUPPLIED PAGE SIZES
+final class PageLimits {
+
+	static final int DEFAULT_LIMIT = 50;
+	static final int MAX_LIMIT = 500;
+
+	private PageLimits() {
+	}
+
+	static int clamp(int limit) {
+		if (limit < 1) {
+			return DEFAULT_LIMIT;
+		}
+		return Math.min(limit, MAX_LIMIT);
+	}
+}
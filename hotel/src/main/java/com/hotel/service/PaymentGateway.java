@@ -0,0 +1,46 @@
+package com.hotel.service;
+
+/*
+ * Payment gateway as seen by checkout. Calls may block on the network; callers
+ * run them through PaymentVerificationPipeline, never on a request thread.
+ * app.payment.gateway picks the implementation: local (default, offline
+ * stand-in) or razorpay.
+ */
+public interface PaymentGateway {
+
+	//amount in paise
+	GatewayOrder createOrder(long amount, String currency, String receipt);
+
+	//what the gateway says about a payment the client claims to have made for an order
+	Verification verify(String orderId, String paymentId, String signature);
+
+	//public key handed to the checkout widget
+	String publicKey();
+
+	record GatewayOrder(String orderId, long amount, String currency) {
+	}
+
+	enum Outcome {
+		CAPTURED, DECLINED
+	}
+
+	record Verification(Outcome outcome, String message) {
+	}
+
+	//retryable = a transient failure (network, 5xx) - the same call may succeed later
+	class GatewayException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		private final boolean retryable;
+
+		public GatewayException(String message, boolean retryable, Throwable cause) {
+			super(message, cause);
+			this.retryable = retryable;
+		}
+
+		public boolean isRetryable() {
+			return retryable;
+		}
+	}
+}
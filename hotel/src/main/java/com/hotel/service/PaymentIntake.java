@@ -0,0 +1,135 @@
+package com.hotel.service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.custom_exception.ApiException;
+import com.hotel.dao.BookingDao;
+import com.hotel.dto.BookingRespDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Idempotent payment intake shared by every make-payment endpoint.
+ * A request carrying an Idempotency-Key that already created a payment is
+ * answered from one indexed lookup, without re-running validation. Concurrent
+ * duplicates on this node wait for the first one instead of racing it, and
+ * duplicates on other nodes lose on the unique index and are then replayed.
+ * Metered as "payment.intake" (result = created / replayed / collapsed).
+ */
+@Component
+public class PaymentIntake {
+
+	static final int MAX_KEY_LENGTH = 64;
+
+	private final BookingDao bookingDao;
+	private final TransactionTemplate txTemplate;
+
+	private final ConcurrentHashMap<String, CompletableFuture<BookingRespDto>> inFlight = new ConcurrentHashMap<>();
+
+	private final Counter created;
+	private final Counter replayed;
+	private final Counter collapsed;
+
+	public PaymentIntake(BookingDao bookingDao, TransactionTemplate txTemplate, MeterRegistry registry) {
+		this.bookingDao = bookingDao;
+		this.txTemplate = txTemplate;
+		this.created = Counter.builder("payment.intake").tag("result", "created").register(registry);
+		this.replayed = Counter.builder("payment.intake").tag("result", "replayed").register(registry);
+		this.collapsed = Counter.builder("payment.intake").tag("result", "collapsed").register(registry);
+	}
+
+	/*
+	 * Runs `payment` (which must store `key` on the payment it creates) in its own
+	 * transaction. key may be null - then only the one-payment-per-booking rule applies.
+	 */
+	public BookingRespDto pay(Long bookingId, String key, Supplier<BookingRespDto> payment) {
+		if (key == null) {
+			return insert(bookingId, null, payment);
+		}
+		if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+			throw new ApiException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+		}
+
+		//REPLAY - NO VALIDATION, NO LOCKS
+		Optional<BookingRespDto> original = replay(bookingId, key);
+		if (original.isPresent()) {
+			replayed.increment();
+			return original.get();
+		}
+
+		CompletableFuture<BookingRespDto> mine = new CompletableFuture<>();
+		CompletableFuture<BookingRespDto> running = inFlight.putIfAbsent(key, mine);
+		if (running != null) {
+			collapsed.increment();
+			return sameBooking(bookingId, key, await(running));
+		}
+		try {
+			BookingRespDto resp = insert(bookingId, key, payment);
+			mine.complete(resp);
+			return resp;
+		} catch (RuntimeException e) {
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, mine);
+		}
+	}
+
+	private BookingRespDto insert(Long bookingId, String key, Supplier<BookingRespDto> payment) {
+		try {
+			BookingRespDto resp = txTemplate.execute(status -> payment.get());
+			created.increment();
+			return resp;
+		} catch (DataIntegrityViolationException | ApiException e) {
+			//another node committed first - with the same key that is a replay, otherwise a real duplicate
+			if (key != null) {
+				Optional<BookingRespDto> original = replay(bookingId, key);
+				if (original.isPresent()) {
+					replayed.increment();
+					return original.get();
+				}
+			}
+			if (e instanceof ApiException api) {
+				throw api;
+			}
+			throw new ApiException("Payment already exists for this booking");
+		}
+	}
+
+	private Optional<BookingRespDto> replay(Long bookingId, String key) {
+		return bookingDao.findBookingRespByIdempotencyKey(key)
+				.map(resp -> sameBooking(bookingId, key, resp));
+	}
+
+	//A KEY NAMES ONE PAYMENT - REUSING IT FOR ANOTHER BOOKING IS A CLIENT BUG
+	private static BookingRespDto sameBooking(Long bookingId, String key, BookingRespDto resp) {
+		if (!resp.getBookingId().equals(bookingId)) {
+			throw new ApiException("Idempotency-Key " + key + " was already used for another booking");
+		}
+		return resp;
+	}
+
+	private static BookingRespDto await(CompletableFuture<BookingRespDto> running) {
+		try {
+			return running.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ApiException("Interrupted while waiting for the original payment request");
+		} catch (ExecutionException e) {
+			//the original request failed - so does its duplicate, with the same error
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package com.hotel.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.config.LeasedJob;
+import com.hotel.dao.LedgerRow;
+import com.hotel.dao.PaymentOrderDao;
+import com.hotel.dto.ReconciliationRespDto;
+import com.hotel.entities.LedgerMismatch;
+import com.hotel.entities.OrderStatus;
+import com.hotel.entities.PaymentOrder;
+
+/*
+ * Nightly reconciliation of the payment ledger (payment_orders) against the payments table.
+ * Streams the ledger in keyset chunks of order ids, each order joined to the payment of
+ * its booking, so memory stays bounded however many orders there are. Every order is
+ * classified (see LedgerMismatch) and only flags that changed are written - one short
+ * set-based UPDATE per kind per chunk, a clean ledger costs no writes at all.
+ * Orders still VERIFYING after grace-minutes get one more verification attempt
+ * (at most max-resumes per run). Runs on one node of the cluster at a time.
+ */
+@Component
+public class PaymentReconciliationJob {
+
+	private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationJob.class);
+
+	private final PaymentOrderDao orderDao;
+	private final PaymentVerificationPipeline pipeline;
+	private final TransactionTemplate txTemplate;
+	private final JobLeaseManager leaseManager;
+	private final int chunkSize;
+	private final long graceMinutes;
+	private final int maxResumes;
+
+	public PaymentReconciliationJob(PaymentOrderDao orderDao, PaymentVerificationPipeline pipeline,
+			TransactionTemplate txTemplate, JobLeaseManager leaseManager,
+			@Value("${app.reconciliation.chunk-size:1000}") int chunkSize,
+			@Value("${app.reconciliation.grace-minutes:30}") long graceMinutes,
+			@Value("${app.reconciliation.max-resumes:200}") int maxResumes) {
+		this.orderDao = orderDao;
+		this.pipeline = pipeline;
+		this.txTemplate = txTemplate;
+		this.leaseManager = leaseManager;
+		this.chunkSize = chunkSize;
+		this.graceMinutes = graceMinutes;
+		this.maxResumes = maxResumes;
+	}
+
+	@Scheduled(cron = "${app.reconciliation.cron:0 30 2 * * ?}") // daily at 2:30 AM by default
+	@LeasedJob(value = "payment-reconciliation", leaseSeconds = 1800)
+	public ReconciliationRespDto run() {
+		LocalDateTime now = LocalDateTime.now();
+		//orders untouched since before this are expected to be settled and linked
+		LocalDateTime settledBefore = now.minusMinutes(graceMinutes);
+		Map<LedgerMismatch, Integer> found = new EnumMap<>(LedgerMismatch.class);
+		long orders = 0;
+		int chunks = 0;
+		int changed = 0;
+		int resumed = 0;
+		long after = 0L;
+
+		while (true) {
+			if (leaseManager.currentLeaseLost()) {
+				log.warn("Payment reconciliation stopped after {} chunk(s) - lease lost", chunks);
+				break;
+			}
+			List<LedgerRow> rows = orderDao.findLedgerRows(after, Limit.of(chunkSize));
+			if (rows.isEmpty()) {
+				break;
+			}
+			//new flag (null = cleared) -> orders whose flag changes to it
+			Map<LedgerMismatch, List<Long>> changes = new HashMap<>();
+			List<Long> stuck = new ArrayList<>();
+			for (LedgerRow row : rows) {
+				LedgerMismatch mismatch = classify(row, settledBefore);
+				if (mismatch != null) {
+					found.merge(mismatch, 1, Integer::sum);
+				}
+				if (mismatch == LedgerMismatch.STUCK && resumed + stuck.size() < maxResumes) {
+					stuck.add(row.getPaymentOrderId());
+				}
+				if (mismatch != row.getMismatch()) {
+					changes.computeIfAbsent(mismatch, m -> new ArrayList<>()).add(row.getPaymentOrderId());
+				}
+			}
+			if (!changes.isEmpty()) {
+				changed += txTemplate.execute(status -> {
+					int flagged = 0;
+					for (Map.Entry<LedgerMismatch, List<Long>> change : changes.entrySet()) {
+						flagged += orderDao.updateMismatchByIdIn(change.getValue(), change.getKey(), now);
+					}
+					return flagged;
+				});
+			}
+			resumed += resume(stuck);
+			orders += rows.size();
+			chunks++;
+			after = rows.get(rows.size() - 1).getPaymentOrderId();
+			if (rows.size() < chunkSize) {
+				break;
+			}
+		}
+
+		log.info("Payment reconciliation: {} orders in {} chunk(s), mismatches {}, {} flag(s) changed, {} order(s) resumed",
+				orders, chunks, found, changed, resumed);
+		return new ReconciliationRespDto(orders, chunks, found, changed, resumed);
+	}
+
+	static LedgerMismatch classify(LedgerRow row, LocalDateTime settledBefore) {
+		LocalDateTime lastChange = row.getUpdatedAt() != null ? row.getUpdatedAt() : row.getCreatedAt();
+		boolean settled = lastChange.isBefore(settledBefore);
+		if (row.getPaymentId() != null) {
+			if (row.getStatus() != OrderStatus.PAID) {
+				return LedgerMismatch.UNPAID_ORDER;
+			}
+			//payments store rupees, the ledger paise
+			return Math.round(row.getPaymentAmount() * 100) != row.getAmount() ? LedgerMismatch.AMOUNT_MISMATCH : null;
+		}
+		return switch (row.getStatus()) {
+		case PAID -> row.getBookingId() != null ? LedgerMismatch.MISSING_PAYMENT
+				: settled ? LedgerMismatch.UNLINKED : null;
+		case VERIFYING -> settled ? LedgerMismatch.STUCK : null;
+		//CREATED orders nobody paid simply expire, FAILED ones took no money
+		default -> null;
+		};
+	}
+
+	//ONE MORE VERIFICATION ATTEMPT FOR EACH STUCK ORDER (runs in the background on the pipeline)
+	private int resume(List<Long> orderIds) {
+		if (orderIds.isEmpty()) {
+			return 0;
+		}
+		int resumed = 0;
+		for (PaymentOrder order : orderDao.findAllById(orderIds)) {
+			if (order.getStatus() == OrderStatus.VERIFYING) {
+				pipeline.resume(order);
+				resumed++;
+			}
+		}
+		return resumed;
+	}
+}
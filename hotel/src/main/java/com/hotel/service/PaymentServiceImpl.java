@@ -1,20 +1,29 @@
 package com.hotel.service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import com.hotel.custom_exception.ApiException;
 import com.hotel.custom_exception.ResourceNotFoundException;
 import com.hotel.dao.BookingDao;
-import com.hotel.dao.RoomDao;
+import com.hotel.dao.PaymentOrderDao;
+import com.hotel.dao.UserDao;
+import com.hotel.dto.ApiResponse;
 import com.hotel.dto.BookingReqDto;
-import com.hotel.entities.Room;
+import com.hotel.dto.QuoteReqDto;
+import com.hotel.dto.QuoteRespDto;
+import com.hotel.dto.RoomRespDto;
+import com.hotel.entities.OrderStatus;
+import com.hotel.entities.PaymentOrder;
+import com.hotel.entities.User;
+import com.hotel.security.JwtUser;
 
 @Service
 public class PaymentServiceImpl {
@@ -22,83 +31,165 @@ public class PaymentServiceImpl {
 	@Autowired
 	private BookingDao bookingDao;
 	
-	// Dummy Razorpay credentials for testing
-	@Value("${razorpay.key_id:rzp_test_dummy_key}")
-	private String RAZORPAY_KEY;
+	@Autowired
+	private  RoomCache roomCache;
 	
-	@Value("${razorpay.key_secret:dummy_secret}")
-	private String RAZORPAY_SECRET;
+	@Autowired
+	private PaymentVerificationPipeline pipeline;
 	
 	@Autowired
-	private  RoomDao roomDao;
+	private PaymentOrderDao orderDao;
 	
+	@Autowired
+	private PricingEngine pricingEngine;
 	
-	public Map<String, Object> processRazorpayOrder(BookingReqDto dto) {
-	    try {
-	        Room room = roomDao.findById(dto.getRoomId())
-	                .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
-
-	        double expectedAmount = room.getPrice();
-	        expectedAmount = Math.round(expectedAmount * 100.0) / 100.0;
-
-	        // Convert to paise (integer) for Razorpay
-	        int amountInPaise = (int) Math.round(expectedAmount * 100);
-	        
-	        // Create dummy Razorpay order (no actual API call)
-	        Map<String, Object> dummyOrder = createDummyRazorpayOrder(amountInPaise);
-
-	        // Prepare response with dummy data
-	        Map<String, Object> response = new HashMap<>();
-	        response.put("orderId", dummyOrder.get("id"));
-	        response.put("amount", dummyOrder.get("amount"));
-	        response.put("currency", dummyOrder.get("currency"));
-	        response.put("key", RAZORPAY_KEY);
-	        response.put("roomId", dto.getRoomId());
-	        response.put("roomPrice", expectedAmount);
-
-	        return response;
-
-	    } catch (Exception e) {
-	        throw new ApiException("Failed to create dummy Razorpay order. Please try again.");
-	    }
+	@Autowired
+	private QuoteService quoteService;
+	
+	@Autowired
+	private UserDao userDao;
+	
+	
+	/*
+	 * CREATE A GATEWAY ORDER FOR THE PRICE OF THE STAY (gateway call runs off the request thread).
+	 * With a quote token the signed total is charged as is - no room read, no pricing
+	 * (customers can only use their own quotes, receptionists any guest's).
+	 * Without dates the order is for one night from today.
+	 */
+	public CompletableFuture<Map<String, Object>> processRazorpayOrder(BookingReqDto dto, UserDetails caller) {
+		Map<String, Object> details = new HashMap<>();
+		Long roomId;
+		long amountInPaise;
+		if (dto.getQuoteToken() != null) {
+			QuoteService.SignedQuote quote = quoteService.read(dto.getQuoteToken());
+			if (quote.isExpired()) {
+				throw new ApiException("Quote has expired, please get a new quote");
+			}
+			if (isCustomer(caller) && !quote.userId().equals(callerId(caller))) {
+				throw new ApiException("Quote does not belong to this user");
+			}
+			roomId = quote.roomId();
+			amountInPaise = quote.total();
+		} else {
+			RoomRespDto room = roomCache.get(dto.getRoomId());
+			LocalDate checkIn = dto.getCheckInDate() != null ? dto.getCheckInDate() : LocalDate.now();
+			LocalDate checkOut = dto.getCheckOutDate() != null ? dto.getCheckOutDate() : checkIn.plusDays(1);
+			PricingEngine.Quote quote = pricingEngine.quote(room.getCategory(), PricingEngine.toPaise(room.getPrice()),
+					checkIn, checkOut);
+			roomId = dto.getRoomId();
+			amountInPaise = quote.total();
+			details.put("roomPrice", room.getPrice());
+			details.put("nights", quote.nights());
+			details.put("discountPercent", quote.discountPercent());
+		}
+		// Razorpay works in paise
+		return pipeline.createOrder(roomId, amountInPaise, "INR")
+				.handle((order, error) -> {
+					if (error != null) {
+						throw new ApiException("Failed to create payment order. Please try again.");
+					}
+					Map<String, Object> response = new HashMap<>(details);
+					response.put("orderId", order.getOrderId());
+					response.put("amount", order.getAmount());
+					response.put("currency", order.getCurrency());
+					response.put("key", pipeline.publicKey());
+					response.put("roomId", roomId);
+					response.put("total", PricingEngine.toRupees(order.getAmount()));
+					return response;
+				});
 	}
 	
-	// Dummy method to simulate Razorpay order creation
-	private Map<String, Object> createDummyRazorpayOrder(int amountInPaise) {
-		Map<String, Object> dummyOrder = new HashMap<>();
-		
-		// Generate dummy order ID
-		String orderId = "order_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
-		
-		dummyOrder.put("id", orderId);
-		dummyOrder.put("amount", amountInPaise);
-		dummyOrder.put("currency", "INR");
-		dummyOrder.put("receipt", "txn_" + System.currentTimeMillis());
-		dummyOrder.put("status", "created");
-		dummyOrder.put("created_at", System.currentTimeMillis() / 1000);
-		
-		return dummyOrder;
+	//PRICE AND HOLD A STAY FOR CHECKOUT
+	//customers quote for themselves, receptionists for the guest they are booking
+	public QuoteRespDto quote(QuoteReqDto dto, UserDetails caller) {
+		Long userId;
+		if (isCustomer(caller)) {
+			userId = callerId(caller);
+			if (dto.getUserId() != null && !dto.getUserId().equals(userId)) {
+				throw new ApiException("Customers can only get quotes for themselves");
+			}
+		} else if (dto.getUserId() == null) {
+			throw new ApiException("Please enter user ID");
+		} else {
+			userId = dto.getUserId();
+		}
+		return quoteService.quote(userId, dto.getRoomId(), dto.getCheckInDate(), dto.getCheckOutDate());
 	}
 	
-	// Dummy method to verify payment (simulates success/failure)
-	public Map<String, Object> verifyDummyPayment(String orderId, String paymentId, String signature) {
+	//CHECKOUT ABANDONED - HAND THE HELD NIGHTS BACK (customers only their own)
+	public ApiResponse releaseQuote(String token, UserDetails caller) {
+		quoteService.release(token, isCustomer(caller) ? callerId(caller) : null);
+		return new ApiResponse("Quote released");
+	}
+	
+	private static boolean isCustomer(UserDetails caller) {
+		return caller.getAuthorities().stream().anyMatch(a -> "ROLE_CUSTOMER".equals(a.getAuthority()));
+	}
+	
+	//id from the signed token claims, by email for principals loaded from the database
+	private Long callerId(UserDetails caller) {
+		if (caller instanceof JwtUser jwtUser && jwtUser.getUserId() != null) {
+			return jwtUser.getUserId();
+		}
+		return userDao.findByEmail(caller.getUsername()).map(User::getUserId)
+				.orElseThrow(() -> new ResourceNotFoundException("User not found"));
+	}
+	
+	//VERIFY A CHECKOUT WITH THE GATEWAY (async pipeline - "pending" while it is still being checked)
+	public CompletableFuture<Map<String, Object>> verifyPayment(String orderId, String paymentId, String signature) {
+		if (orderId == null || orderId.isBlank()) {
+			throw new ApiException("orderId is required");
+		}
+		return pipeline.verify(orderId, paymentId, signature).thenApply(PaymentServiceImpl::toResult);
+	}
+	
+	//CURRENT STATE OF AN ORDER (clients poll this after a "pending" answer)
+	public Map<String, Object> getOrder(String orderId) {
+		PaymentOrder order = orderDao.findByOrderId(orderId)
+				.orElseThrow(() -> new ResourceNotFoundException("Payment order not found"));
+		return toResult(order);
+	}
+	
+	//RECORD THE BOOKING A VERIFIED ORDER PAID FOR (joins the caller's payment transaction)
+	public void linkOrder(String orderId, Long bookingId, Long roomId, double amount) {
+		long amountInPaise = Math.round(amount * 100);
+		if (orderDao.linkBooking(orderId, bookingId, roomId, amountInPaise, OrderStatus.PAID, LocalDateTime.now()) == 1) {
+			return;
+		}
+		PaymentOrder order = orderDao.findByOrderId(orderId)
+				.orElseThrow(() -> new ResourceNotFoundException("Payment order not found"));
+		if (bookingId.equals(order.getBookingId())) {
+			return;
+		}
+		if (order.getStatus() != OrderStatus.PAID) {
+			throw new ApiException("Payment order " + orderId + " is not paid");
+		}
+		if (order.getBookingId() != null) {
+			throw new ApiException("Payment order " + orderId + " was already used for another booking");
+		}
+		throw new ApiException("Payment order " + orderId + " does not match this booking");
+	}
+	
+	private static Map<String, Object> toResult(PaymentOrder order) {
 		Map<String, Object> result = new HashMap<>();
-		
-		// Simulate 90% success rate for demo purposes
-		boolean isSuccess = Math.random() > 0.1;
-		
-		if (isSuccess) {
+		result.put("orderId", order.getOrderId());
+		result.put("paymentId", order.getGatewayPaymentId());
+		result.put("attempts", order.getAttempts());
+		switch (order.getStatus()) {
+		case PAID -> {
 			result.put("status", "success");
-			result.put("paymentId", paymentId != null ? paymentId : "pay_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14));
-			result.put("orderId", orderId);
-			result.put("signature", signature != null ? signature : "dummy_signature_" + System.currentTimeMillis());
 			result.put("message", "Payment verified successfully");
-		} else {
+		}
+		case FAILED -> {
 			result.put("status", "failed");
 			result.put("message", "Payment verification failed");
-			result.put("error", "Dummy payment failure for testing");
+			result.put("error", order.getLastError());
+		}
+		default -> {
+			result.put("status", "pending");
+			result.put("message", "Payment is being verified");
+		}
 		}
-		
 		return result;
 	}
 
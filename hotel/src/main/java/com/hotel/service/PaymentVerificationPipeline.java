@@ -0,0 +1,257 @@
+package com.hotel.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.custom_exception.ApiException;
+import com.hotel.custom_exception.ResourceNotFoundException;
+import com.hotel.dao.PaymentOrderDao;
+import com.hotel.entities.OrderStatus;
+import com.hotel.entities.PaymentOrder;
+import com.hotel.service.PaymentGateway.GatewayException;
+import com.hotel.service.PaymentGateway.GatewayOrder;
+import com.hotel.service.PaymentGateway.Outcome;
+import com.hotel.service.PaymentGateway.Verification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Runs payment gateway calls off the request threads.
+ * - every call runs on a virtual thread; at most max-concurrent calls reach the
+ *   gateway at once and at most max-pending wait for a slot (more = "busy")
+ * - a call that takes longer than call-timeout-millis (waiting included) fails
+ *   as retryable
+ * - verification retries transient failures with exponential backoff and jitter,
+ *   recording every attempt on the payment_orders row
+ * - when retries run out the order stays VERIFYING - money may have moved, so
+ *   only a later successful check may mark it PAID or FAILED
+ * Callers get a future; controllers hand it to Spring MVC as an async result.
+ */
+@Component
+public class PaymentVerificationPipeline {
+
+	private final PaymentGateway gateway;
+	private final PaymentOrderDao orderDao;
+	private final TransactionTemplate txTemplate;
+
+	private final Semaphore slots;
+	private final int maxPending;
+	private final long callTimeoutMillis;
+	private final int maxAttempts;
+	private final long backoffMillis;
+	private final long maxBackoffMillis;
+	private final long responseWaitMillis;
+
+	private final AtomicInteger pending = new AtomicInteger();
+	//orders being verified on this node
+	private final ConcurrentHashMap<String, CompletableFuture<PaymentOrder>> running = new ConcurrentHashMap<>();
+	private final ExecutorService calls = Executors.newVirtualThreadPerTaskExecutor();
+	private final ScheduledExecutorService retryTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "payment-retry");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Counter paid;
+	private final Counter failed;
+	private final Counter retries;
+
+	public PaymentVerificationPipeline(PaymentGateway gateway, PaymentOrderDao orderDao, TransactionTemplate txTemplate,
+			MeterRegistry registry,
+			@Value("${app.payment.verify.max-concurrent:32}") int maxConcurrent,
+			@Value("${app.payment.verify.max-pending:1000}") int maxPending,
+			@Value("${app.payment.verify.call-timeout-millis:5000}") long callTimeoutMillis,
+			@Value("${app.payment.verify.max-attempts:5}") int maxAttempts,
+			@Value("${app.payment.verify.backoff-millis:200}") long backoffMillis,
+			@Value("${app.payment.verify.max-backoff-millis:5000}") long maxBackoffMillis,
+			@Value("${app.payment.verify.response-wait-millis:10000}") long responseWaitMillis) {
+		this.gateway = gateway;
+		this.orderDao = orderDao;
+		this.txTemplate = txTemplate;
+		this.slots = new Semaphore(maxConcurrent);
+		this.maxPending = maxPending;
+		this.callTimeoutMillis = callTimeoutMillis;
+		this.maxAttempts = maxAttempts;
+		this.backoffMillis = backoffMillis;
+		this.maxBackoffMillis = maxBackoffMillis;
+		this.responseWaitMillis = responseWaitMillis;
+		this.paid = Counter.builder("payment.verify").tag("result", "paid").register(registry);
+		this.failed = Counter.builder("payment.verify").tag("result", "failed").register(registry);
+		this.retries = Counter.builder("payment.verify.retries").register(registry);
+		Gauge.builder("payment.gateway.pending", pending, AtomicInteger::get).register(registry);
+	}
+
+	//---------ORDERS---------
+
+	//ONE GATEWAY CALL (NO RETRY - A LOST ORDER IS NEVER PAID AND SIMPLY EXPIRES), THEN THE CREATED ROW
+	public CompletableFuture<PaymentOrder> createOrder(Long roomId, long amount, String currency) {
+		String receipt = "room_" + roomId + "_" + System.currentTimeMillis();
+		return call(() -> gateway.createOrder(amount, currency, receipt))
+				.thenApplyAsync(order -> saveOrder(roomId, order), calls);
+	}
+
+	public String publicKey() {
+		return gateway.publicKey();
+	}
+
+	//---------VERIFICATION---------
+
+	/*
+	 * Starts verifying the payment for an order. The future completes with the
+	 * final order, or with the still VERIFYING order after response-wait-millis
+	 * (the pipeline keeps going; clients poll the order).
+	 */
+	public CompletableFuture<PaymentOrder> verify(String orderId, String paymentId, String signature) {
+		PaymentOrder order = txTemplate.execute(status -> {
+			PaymentOrder row = orderDao.findByOrderId(orderId)
+					.orElseThrow(() -> new ResourceNotFoundException("Payment order not found"));
+			if (row.getStatus() == OrderStatus.PAID || row.getStatus() == OrderStatus.FAILED) {
+				return row;
+			}
+			row.setStatus(OrderStatus.VERIFYING);
+			row.setGatewayPaymentId(paymentId);
+			row.setSignature(signature);
+			row.setUpdatedAt(LocalDateTime.now());
+			return orderDao.save(row);
+		});
+		if (order.getStatus() != OrderStatus.VERIFYING) {
+			//already settled - verification is idempotent
+			return CompletableFuture.completedFuture(order);
+		}
+		return resume(order).copy().completeOnTimeout(order, responseWaitMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * (Re)runs verification of a VERIFYING order with the payment details stored on it.
+	 * A client retrying while its order is still being verified joins the running pipeline.
+	 */
+	public CompletableFuture<PaymentOrder> resume(PaymentOrder order) {
+		CompletableFuture<PaymentOrder> started = new CompletableFuture<>();
+		CompletableFuture<PaymentOrder> done = running.computeIfAbsent(order.getOrderId(), id -> started);
+		if (done == started) {
+			done.whenComplete((result, error) -> running.remove(order.getOrderId(), started));
+			attempt(order.getOrderId(), order.getGatewayPaymentId(), order.getSignature(), order.getAttempts() + 1,
+					started);
+		}
+		return done;
+	}
+
+	private void attempt(String orderId, String paymentId, String signature, int attempt,
+			CompletableFuture<PaymentOrder> done) {
+		//follow-up (database) work runs on a virtual thread too, never on the timeout thread
+		call(() -> gateway.verify(orderId, paymentId, signature)).whenCompleteAsync((verification, error) -> {
+			try {
+				if (error == null) {
+					done.complete(settle(orderId, verification, attempt));
+					return;
+				}
+				Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+				String message = cause instanceof TimeoutException ? "Gateway call timed out" : cause.getMessage();
+				boolean retryable = cause instanceof TimeoutException || cause instanceof ApiException
+						|| (cause instanceof GatewayException gatewayError && gatewayError.isRetryable());
+				PaymentOrder order = recordAttempt(orderId, attempt, message);
+				if (retryable && attempt < maxAttempts) {
+					retries.increment();
+					retryTimer.schedule(() -> attempt(orderId, paymentId, signature, attempt + 1, done),
+							backoff(attempt), TimeUnit.MILLISECONDS);
+				} else {
+					//outcome unknown - stays VERIFYING for reconciliation
+					done.complete(order);
+				}
+			} catch (RuntimeException e) {
+				done.completeExceptionally(e);
+			}
+		}, calls);
+	}
+
+	private PaymentOrder settle(String orderId, Verification verification, int attempt) {
+		boolean captured = verification.outcome() == Outcome.CAPTURED;
+		(captured ? paid : failed).increment();
+		return txTemplate.execute(status -> {
+			PaymentOrder order = orderDao.findByOrderId(orderId).orElseThrow();
+			order.setStatus(captured ? OrderStatus.PAID : OrderStatus.FAILED);
+			order.setAttempts(attempt);
+			order.setLastError(captured ? null : verification.message());
+			order.setUpdatedAt(LocalDateTime.now());
+			return orderDao.save(order);
+		});
+	}
+
+	private PaymentOrder recordAttempt(String orderId, int attempt, String message) {
+		return txTemplate.execute(status -> {
+			PaymentOrder order = orderDao.findByOrderId(orderId).orElseThrow();
+			order.setAttempts(attempt);
+			order.setLastError(message == null ? null : message.substring(0, Math.min(500, message.length())));
+			order.setUpdatedAt(LocalDateTime.now());
+			return orderDao.save(order);
+		});
+	}
+
+	//200, 400, 800 ... ms (capped), each +-50% so retrying clients don't move in lockstep
+	long backoff(int attempt) {
+		long delay = Math.min(maxBackoffMillis, backoffMillis << Math.min(20, attempt - 1));
+		return delay / 2 + ThreadLocalRandom.current().nextLong(delay + 1);
+	}
+
+	//---------GATEWAY CALLS---------
+
+	private <T> CompletableFuture<T> call(Supplier<T> gatewayCall) {
+		if (pending.incrementAndGet() > maxPending) {
+			pending.decrementAndGet();
+			return CompletableFuture.failedFuture(new ApiException("Payment gateway is busy, please try again"));
+		}
+		CompletableFuture<T> result = new CompletableFuture<>();
+		calls.execute(() -> {
+			try {
+				slots.acquire();
+				try {
+					result.complete(gatewayCall.get());
+				} finally {
+					slots.release();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				result.completeExceptionally(new GatewayException("Gateway call interrupted", true, e));
+			} catch (RuntimeException e) {
+				result.completeExceptionally(e);
+			} finally {
+				pending.decrementAndGet();
+			}
+		});
+		//a timed out call keeps its slot until the gateway answers - the limit stays honest
+		return result.orTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS);
+	}
+
+	private PaymentOrder saveOrder(Long roomId, GatewayOrder gatewayOrder) {
+		PaymentOrder order = new PaymentOrder();
+		order.setOrderId(gatewayOrder.orderId());
+		order.setRoomId(roomId);
+		order.setAmount(gatewayOrder.amount());
+		order.setCurrency(gatewayOrder.currency());
+		return txTemplate.execute(status -> orderDao.save(order));
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		retryTimer.shutdownNow();
+		calls.shutdownNow();
+	}
+}
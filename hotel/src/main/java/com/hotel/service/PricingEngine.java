@@ -0,0 +1,232 @@
+package com.hotel.service;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.hotel.custom_exception.ApiException;
+import com.hotel.entities.Category;
+
+/*
+ * Prices a stay night by night, in paise.
+ * A room's price is its base nightly rate. Each night it is scaled by the seasonal
+ * percent of its category (app.pricing.seasons) and, on weekend-days, by the weekend
+ * percent; the stay total then gets the best length-of-stay discount it qualifies for.
+ * The per-night factors are precomputed into one calendar per Category covering
+ * horizon-days from today (rebuilt every midnight), so a quote is O(nights) array
+ * reads and never touches the database. Nights past the horizon are computed from
+ * the rules directly.
+ * Each night is rounded to the paisa on its own, so a quote is the sum of its nights.
+ */
+@Component
+public class PricingEngine {
+
+	//factors are basis points: 10000 = the base rate
+	private static final int BASE = 10_000;
+	private static final int MAX_NIGHTS = 365;
+	private static final DateTimeFormatter MONTH_DAY = DateTimeFormatter.ofPattern("MM-dd");
+
+	private final Set<DayOfWeek> weekendDays;
+	private final Map<Category, Integer> weekendPercent;
+	private final List<Season> seasons;
+	//minimum nights -> percent off
+	private final TreeMap<Integer, Integer> stayDiscounts;
+	private final int horizonDays;
+
+	private volatile RateCalendar calendar;
+
+	/*
+	 * weekend-percent: "115" for every category, "115,PRESIDENTIALSUITE:125" to override one
+	 * seasons:         "12-20..01-05:130,PRESIDENTIALSUITE@05-01..06-15:120" (ranges may wrap the
+	 *                  year; a category-scoped season beats a general one, later entries beat earlier)
+	 * stay-discounts:  "7:10,14:15" = 10% off from 7 nights, 15% off from 14
+	 */
+	public PricingEngine(@Value("${app.pricing.weekend-days:FRIDAY,SATURDAY}") String weekendDays,
+			@Value("${app.pricing.weekend-percent:100}") String weekendPercent,
+			@Value("${app.pricing.seasons:}") String seasons,
+			@Value("${app.pricing.stay-discounts:}") String stayDiscounts,
+			@Value("${app.pricing.horizon-days:730}") int horizonDays) {
+		this.weekendDays = parseDays(weekendDays);
+		this.weekendPercent = parseWeekendPercent(weekendPercent);
+		this.seasons = parseSeasons(seasons);
+		this.stayDiscounts = parseStayDiscounts(stayDiscounts);
+		this.horizonDays = horizonDays;
+		this.calendar = build(LocalDate.now());
+	}
+
+	public record Quote(int nights, long subtotal, int discountPercent, long discount, long total) {
+	}
+
+	//---------QUOTES---------
+
+	//nightlyRate = the room's base rate in paise
+	public Quote quote(Category category, long nightlyRate, LocalDate checkIn, LocalDate checkOut) {
+		if (checkIn == null || checkOut == null) {
+			throw new ApiException("Check-in and check-out dates are required");
+		}
+		if (!checkOut.isAfter(checkIn)) {
+			throw new ApiException("Check-out date must be after check-in date");
+		}
+		long first = checkIn.toEpochDay();
+		long nights = checkOut.toEpochDay() - first;
+		if (nights > MAX_NIGHTS) {
+			throw new ApiException("Stays are limited to " + MAX_NIGHTS + " nights");
+		}
+
+		RateCalendar cal = calendar;
+		int[] factors = cal.factors().get(category);
+		long subtotal = 0;
+		for (long day = first; day < first + nights; day++) {
+			long slot = day - cal.firstDay();
+			int factor = slot >= 0 && slot < factors.length ? factors[(int) slot]
+					: factor(category, LocalDate.ofEpochDay(day));
+			subtotal += (nightlyRate * factor + BASE / 2) / BASE;
+		}
+		Map.Entry<Integer, Integer> tier = stayDiscounts.floorEntry((int) nights);
+		int discountPercent = tier != null ? tier.getValue() : 0;
+		long discount = (subtotal * discountPercent + 50) / 100;
+		return new Quote((int) nights, subtotal, discountPercent, discount, subtotal - discount);
+	}
+
+	public static long toPaise(double rupees) {
+		return Math.round(rupees * 100);
+	}
+
+	public static BigDecimal toRupees(long paise) {
+		return BigDecimal.valueOf(paise, 2);
+	}
+
+	//---------CALENDAR---------
+
+	@Scheduled(cron = "${app.pricing.rebuild-cron:0 0 0 * * ?}") // every midnight by default
+	public void rebuild() {
+		calendar = build(LocalDate.now());
+	}
+
+	private RateCalendar build(LocalDate from) {
+		Map<Category, int[]> factors = new EnumMap<>(Category.class);
+		for (Category category : Category.values()) {
+			int[] days = new int[horizonDays];
+			for (int i = 0; i < horizonDays; i++) {
+				days[i] = factor(category, from.plusDays(i));
+			}
+			factors.put(category, days);
+		}
+		return new RateCalendar(from.toEpochDay(), factors);
+	}
+
+	//SEASON x WEEKEND, IN BASIS POINTS
+	int factor(Category category, LocalDate night) {
+		int season = 100;
+		boolean scoped = false;
+		MonthDay day = MonthDay.from(night);
+		for (Season s : seasons) {
+			if (s.covers(day) && (s.category() == category || (s.category() == null && !scoped))) {
+				season = s.percent();
+				scoped = s.category() != null;
+			}
+		}
+		int weekend = weekendDays.contains(night.getDayOfWeek()) ? weekendPercent.get(category) : 100;
+		return season * weekend;
+	}
+
+	private record RateCalendar(long firstDay, Map<Category, int[]> factors) {
+	}
+
+	//category null = every category
+	private record Season(Category category, MonthDay from, MonthDay to, int percent) {
+
+		boolean covers(MonthDay day) {
+			return from.isAfter(to) ? !day.isBefore(from) || !day.isAfter(to) : !day.isBefore(from) && !day.isAfter(to);
+		}
+	}
+
+	//---------CONFIGURATION---------
+
+	private static Set<DayOfWeek> parseDays(String spec) {
+		Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+		for (String day : items(spec)) {
+			days.add(DayOfWeek.valueOf(day.toUpperCase()));
+		}
+		return days;
+	}
+
+	private static Map<Category, Integer> parseWeekendPercent(String spec) {
+		Map<Category, Integer> percents = new EnumMap<>(Category.class);
+		for (Category category : Category.values()) {
+			percents.put(category, 100);
+		}
+		for (String item : items(spec)) {
+			int colon = item.indexOf(':');
+			if (colon < 0) {
+				int percent = percent(item);
+				percents.replaceAll((category, old) -> percent);
+			} else {
+				percents.put(Category.valueOf(item.substring(0, colon).trim().toUpperCase()),
+						percent(item.substring(colon + 1)));
+			}
+		}
+		return percents;
+	}
+
+	private static List<Season> parseSeasons(String spec) {
+		List<Season> seasons = new ArrayList<>();
+		for (String item : items(spec)) {
+			int at = item.indexOf('@');
+			Category category = at < 0 ? null : Category.valueOf(item.substring(0, at).trim().toUpperCase());
+			String rest = item.substring(at + 1);
+			int colon = rest.lastIndexOf(':');
+			String[] range = colon < 0 ? new String[0] : rest.substring(0, colon).split("\\.\\.");
+			if (range.length != 2) {
+				throw new IllegalArgumentException("Invalid app.pricing.seasons entry: " + item);
+			}
+			seasons.add(new Season(category, MonthDay.parse(range[0].trim(), MONTH_DAY),
+					MonthDay.parse(range[1].trim(), MONTH_DAY), percent(rest.substring(colon + 1))));
+		}
+		return seasons;
+	}
+
+	private static TreeMap<Integer, Integer> parseStayDiscounts(String spec) {
+		TreeMap<Integer, Integer> discounts = new TreeMap<>();
+		for (String item : items(spec)) {
+			String[] tier = item.split(":");
+			int percentOff = tier.length == 2 ? Integer.parseInt(tier[1].trim()) : -1;
+			if (percentOff < 0 || percentOff > 100) {
+				throw new IllegalArgumentException("Invalid app.pricing.stay-discounts entry: " + item);
+			}
+			discounts.put(Integer.parseInt(tier[0].trim()), percentOff);
+		}
+		return discounts;
+	}
+
+	private static int percent(String value) {
+		int percent = Integer.parseInt(value.trim());
+		if (percent <= 0) {
+			throw new IllegalArgumentException("Pricing percent must be positive: " + value);
+		}
+		return percent;
+	}
+
+	private static List<String> items(String spec) {
+		List<String> items = new ArrayList<>();
+		for (String item : spec.split(",")) {
+			if (!item.isBlank()) {
+				items.add(item.trim());
+			}
+		}
+		return items;
+	}
+}
@@ -0,0 +1,277 @@
+package com.hotel.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hotel.custom_exception.ApiException;
+import com.hotel.dto.QuoteRespDto;
+import com.hotel.dto.RoomRespDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Short-lived price quotes for checkout.
+ * A quote prices the stay once (PricingEngine) and holds the room's nights in
+ * RoomAvailabilityIndex for hold-minutes; the hold expires on a TimingWheel, no
+ * polling job and no database row. The client gets a signed token
+ * (base64url(payload).base64url(HMAC-SHA256)) naming guest, room, dates, total and
+ * expiry, which create-order, booking and payment accept instead of re-reading the
+ * room and re-pricing - only for the guest it was issued to. Open holds are capped
+ * per guest (max-holds-per-user) and per node (max-holds).
+ * Every node must share app.quote.secret (startup fails without it), so any node
+ * accepts any node's token. Holds however live only in the issuing node's memory:
+ * they keep that node's own quotes and bookings off the nights, but another node
+ * can still book them - the quote holder's booking then fails the database overlap
+ * check like any other late booking. Route a guest's checkout to one node (sticky
+ * sessions) for the hold to be reliable.
+ * Metered as "quote.holds" (result = claimed / expired / released) and "quote.holds.open".
+ */
+@Component
+public class QuoteService {
+
+	private static final String VERSION = "q2";
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final PricingEngine pricingEngine;
+	private final RoomCache roomCache;
+	private final RoomAvailabilityIndex availabilityIndex;
+	private final StayPolicy stayPolicy;
+	private final byte[] secret;
+	private final long holdMillis;
+	private final int maxHolds;
+	private final int maxHoldsPerUser;
+	private final TimingWheel wheel;
+
+	//quote id -> nights it holds on this node
+	private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+	//user id -> open holds on this node (no entry = none)
+	private final ConcurrentHashMap<Long, Integer> holdsPerUser = new ConcurrentHashMap<>();
+
+	private final Counter claimed;
+	private final Counter expired;
+	private final Counter released;
+
+	public QuoteService(PricingEngine pricingEngine, RoomCache roomCache, RoomAvailabilityIndex availabilityIndex,
+			StayPolicy stayPolicy, MeterRegistry registry, @Value("${app.quote.secret:}") String secret,
+			@Value("${app.quote.hold-minutes:10}") long holdMinutes,
+			@Value("${app.quote.max-holds:10000}") int maxHolds,
+			@Value("${app.quote.max-holds-per-user:3}") int maxHoldsPerUser,
+			@Value("${app.quote.tick-millis:1000}") long tickMillis,
+			@Value("${app.quote.wheel-size:1024}") int wheelSize) {
+		this.pricingEngine = pricingEngine;
+		this.roomCache = roomCache;
+		this.availabilityIndex = availabilityIndex;
+		this.stayPolicy = stayPolicy;
+		if (secret.isBlank()) {
+			//a per-process key would reject every token issued by another node
+			throw new IllegalStateException("app.quote.secret must be set, to the same value on every node");
+		}
+		this.secret = secret.getBytes(StandardCharsets.UTF_8);
+		this.holdMillis = TimeUnit.MINUTES.toMillis(holdMinutes);
+		this.maxHolds = maxHolds;
+		this.maxHoldsPerUser = maxHoldsPerUser;
+		this.wheel = new TimingWheel("quote-holds", tickMillis, wheelSize);
+		this.claimed = Counter.builder("quote.holds").tag("result", "claimed").register(registry);
+		this.expired = Counter.builder("quote.holds").tag("result", "expired").register(registry);
+		this.released = Counter.builder("quote.holds").tag("result", "released").register(registry);
+		Gauge.builder("quote.holds.open", holds, ConcurrentHashMap::size).register(registry);
+	}
+
+	//WHAT A VALID TOKEN SAYS (total in paise)
+	public record SignedQuote(String quoteId, Long userId, Long roomId, LocalDate checkIn, LocalDate checkOut,
+			long total, long expiresAt) {
+
+		public boolean isExpired() {
+			return System.currentTimeMillis() >= expiresAt;
+		}
+
+		public boolean covers(Long userId, Long roomId, LocalDate checkIn, LocalDate checkOut) {
+			return this.userId.equals(userId) && this.roomId.equals(roomId) && this.checkIn.equals(checkIn)
+					&& this.checkOut.equals(checkOut);
+		}
+	}
+
+	private record Hold(Long userId, Long roomId, LocalDate checkIn, LocalDate checkOut, TimingWheel.Timeout timeout) {
+	}
+
+	//---------QUOTES---------
+
+	//userId = the guest the stay is for
+	public QuoteRespDto quote(Long userId, Long roomId, LocalDate checkIn, LocalDate checkOut) {
+		stayPolicy.check(checkIn, checkOut);
+		RoomRespDto room = roomCache.get(roomId);
+		PricingEngine.Quote price = pricingEngine.quote(room.getCategory(), PricingEngine.toPaise(room.getPrice()),
+				checkIn, checkOut);
+		if (holds.size() >= maxHolds) {
+			throw new ApiException("Too many open quotes, please try again shortly");
+		}
+		if (!takeUserSlot(userId)) {
+			throw new ApiException("You already hold " + maxHoldsPerUser + " open quotes, book or release one first");
+		}
+		if (!availabilityIndex.tryHold(roomId, checkIn, checkOut)) {
+			releaseUserSlot(userId);
+			throw new ApiException("Room is already booked for the selected dates");
+		}
+
+		String quoteId = UUID.randomUUID().toString();
+		long expiresAt = System.currentTimeMillis() + holdMillis;
+		holds.put(quoteId,
+				new Hold(userId, roomId, checkIn, checkOut, wheel.schedule(holdMillis, () -> expire(quoteId))));
+
+		String token = sign(new SignedQuote(quoteId, userId, roomId, checkIn, checkOut, price.total(), expiresAt));
+		return new QuoteRespDto(token, roomId, checkIn, checkOut, price.nights(), PricingEngine.toRupees(price.subtotal()),
+				price.discountPercent(), PricingEngine.toRupees(price.discount()), PricingEngine.toRupees(price.total()),
+				LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAt), ZoneId.systemDefault()));
+	}
+
+	//CHECKS THE SIGNATURE - EXPIRED QUOTES ARE STILL RETURNED, CALLERS DECIDE
+	public SignedQuote read(String token) {
+		int dot = token == null ? -1 : token.indexOf('.');
+		if (dot < 0) {
+			throw new ApiException("Invalid quote token");
+		}
+		String payload = token.substring(0, dot);
+		if (!MessageDigest.isEqual(mac(payload).getBytes(StandardCharsets.US_ASCII),
+				token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII))) {
+			throw new ApiException("Invalid quote token");
+		}
+		String[] fields = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split("\\|");
+		if (fields.length != 8 || !VERSION.equals(fields[0])) {
+			throw new ApiException("Invalid quote token");
+		}
+		return new SignedQuote(fields[1], Long.valueOf(fields[2]), Long.valueOf(fields[3]), LocalDate.parse(fields[4]),
+				LocalDate.parse(fields[5]), Long.parseLong(fields[6]), Long.parseLong(fields[7]));
+	}
+
+	//QUOTED TOTAL FOR THIS STAY, EMPTY ONCE THE QUOTE HAS EXPIRED (then the stay is priced again)
+	public OptionalLong quotedTotal(String token, Long userId, Long roomId, LocalDate checkIn, LocalDate checkOut) {
+		SignedQuote quote = read(token);
+		if (!quote.covers(userId, roomId, checkIn, checkOut)) {
+			throw new ApiException("Quote does not match this booking");
+		}
+		return quote.isExpired() ? OptionalLong.empty() : OptionalLong.of(quote.total());
+	}
+
+	//---------HOLDS---------
+
+	/*
+	 * Turns the quote's hold into the current transaction's reservation of the nights
+	 * (handed back if it rolls back). False when there is no hold to take over -
+	 * expired, or held by another node - and the caller reserves as usual.
+	 * Only the guest the quote was issued to can claim it.
+	 */
+	public boolean claimForTransaction(String token, Long userId, Long roomId, LocalDate checkIn, LocalDate checkOut) {
+		SignedQuote quote = read(token);
+		if (!quote.covers(userId, roomId, checkIn, checkOut)) {
+			throw new ApiException("Quote does not match this booking");
+		}
+		Hold hold = holds.remove(quote.quoteId());
+		if (hold == null) {
+			return false;
+		}
+		hold.timeout().cancel();
+		releaseUserSlot(hold.userId());
+		claimed.increment();
+		availabilityIndex.claimHold(roomId, checkIn, checkOut);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status != STATUS_COMMITTED) {
+						availabilityIndex.release(roomId, checkIn, checkOut);
+					}
+				}
+			});
+		}
+		return true;
+	}
+
+	//CHECKOUT ABANDONED - FREE THE NIGHTS NOW (userId null = staff, may release any quote)
+	public void release(String token, Long userId) {
+		SignedQuote quote = read(token);
+		if (userId != null && !quote.userId().equals(userId)) {
+			throw new ApiException("Quote does not belong to this user");
+		}
+		Hold hold = holds.remove(quote.quoteId());
+		if (hold != null) {
+			hold.timeout().cancel();
+			releaseUserSlot(hold.userId());
+			availabilityIndex.releaseHold(hold.roomId(), hold.checkIn(), hold.checkOut());
+			released.increment();
+		}
+	}
+
+	private void expire(String quoteId) {
+		Hold hold = holds.remove(quoteId);
+		if (hold != null) {
+			releaseUserSlot(hold.userId());
+			availabilityIndex.releaseHold(hold.roomId(), hold.checkIn(), hold.checkOut());
+			expired.increment();
+		}
+	}
+
+	//COUNT ONE MORE OPEN HOLD FOR THE USER, FALSE IF THEY ARE AT THE LIMIT
+	private boolean takeUserSlot(Long userId) {
+		boolean[] taken = new boolean[1];
+		holdsPerUser.compute(userId, (id, open) -> {
+			int count = open == null ? 0 : open;
+			if (count >= maxHoldsPerUser) {
+				return open;
+			}
+			taken[0] = true;
+			return count + 1;
+		});
+		return taken[0];
+	}
+
+	private void releaseUserSlot(Long userId) {
+		holdsPerUser.computeIfPresent(userId, (id, open) -> open > 1 ? open - 1 : null);
+	}
+
+	//---------TOKENS---------
+
+	private String sign(SignedQuote quote) {
+		String payload = ENCODER.encodeToString(String.join("|", VERSION, quote.quoteId(), quote.userId().toString(),
+				quote.roomId().toString(),
+				quote.checkIn().toString(), quote.checkOut().toString(), Long.toString(quote.total()),
+				Long.toString(quote.expiresAt())).getBytes(StandardCharsets.UTF_8));
+		return payload + "." + mac(payload);
+	}
+
+	private String mac(String payload) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+			return ENCODER.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		wheel.stop();
+	}
+}
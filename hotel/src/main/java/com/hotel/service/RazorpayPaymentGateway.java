@@ -0,0 +1,76 @@
+package com.hotel.service;
+
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.razorpay.Order;
+import com.razorpay.Payment;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import com.razorpay.Utils;
+
+//RAZORPAY ORDERS API (app.payment.gateway=razorpay)
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "razorpay")
+public class RazorpayPaymentGateway implements PaymentGateway {
+
+	private final RazorpayClient client;
+	private final String keyId;
+	private final String keySecret;
+
+	public RazorpayPaymentGateway(@Value("${razorpay.key_id}") String keyId,
+			@Value("${razorpay.key_secret}") String keySecret) throws RazorpayException {
+		this.client = new RazorpayClient(keyId, keySecret);
+		this.keyId = keyId;
+		this.keySecret = keySecret;
+	}
+
+	@Override
+	public GatewayOrder createOrder(long amount, String currency, String receipt) {
+		JSONObject request = new JSONObject();
+		request.put("amount", amount);
+		request.put("currency", currency);
+		request.put("receipt", receipt);
+		try {
+			Order order = client.orders.create(request);
+			return new GatewayOrder(order.get("id"), amount, currency);
+		} catch (RazorpayException e) {
+			throw new GatewayException("Razorpay order failed: " + e.getMessage(), true, e);
+		}
+	}
+
+	@Override
+	public Verification verify(String orderId, String paymentId, String signature) {
+		if (paymentId == null || signature == null) {
+			return new Verification(Outcome.DECLINED, "Payment id and signature are required");
+		}
+		try {
+			JSONObject attributes = new JSONObject();
+			attributes.put("razorpay_order_id", orderId);
+			attributes.put("razorpay_payment_id", paymentId);
+			attributes.put("razorpay_signature", signature);
+			if (!Utils.verifyPaymentSignature(attributes, keySecret)) {
+				return new Verification(Outcome.DECLINED, "Invalid payment signature");
+			}
+			//the signature proves the checkout happened, the payment itself says whether money moved
+			Payment payment = client.payments.fetch(paymentId);
+			String status = payment.get("status");
+			if ("captured".equals(status) || "authorized".equals(status)) {
+				return new Verification(Outcome.CAPTURED, "Payment " + status);
+			}
+			if ("failed".equals(status)) {
+				return new Verification(Outcome.DECLINED, "Payment failed at the gateway");
+			}
+			throw new GatewayException("Payment still " + status, true, null);
+		} catch (RazorpayException e) {
+			throw new GatewayException("Razorpay verification failed: " + e.getMessage(), true, e);
+		}
+	}
+
+	@Override
+	public String publicKey() {
+		return keyId;
+	}
+}
@@ -1,11 +1,17 @@
 package com.hotel.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import com.hotel.dto.AddBookingRespDto;
 import com.hotel.dto.ApiResponse;
+import com.hotel.dto.BlockBookingReqDto;
 import com.hotel.dto.BookingReqDto;
 import com.hotel.dto.BookingRespDto;
+import com.hotel.dto.BulkRegisterRespDto;
+import com.hotel.dto.CompletionRespDto;
+import com.hotel.dto.CursorPageRespDto;
 import com.hotel.dto.CustomerReqDto;
 import com.hotel.dto.CustomerRespDto;
 import com.hotel.dto.LoginReqDto;
@@ -18,15 +24,23 @@ public interface ReceptionistService {
 
 	CustomerRespDto registerCustomer(CustomerReqDto reqDto);
 	
+	BulkRegisterRespDto registerCustomers(List<CustomerReqDto> reqDtos);
+	
 	CustomerRespDto getCustomerById(Long id);
 	
 	List<CustomerRespDto> getAllCustomer();
 	
+	CursorPageRespDto<CustomerRespDto> getCustomersPage(Long after, int limit);
+	
+	void exportCustomers(OutputStream out) throws IOException;
+	
 	CustomerRespDto getCustomerByEmail(String email);
 	
 	AddBookingRespDto createBooking(BookingReqDto bookDto);
 	
-	BookingRespDto makePayment(Long bookingId, PaymentReqDto paymentDto);
+	List<AddBookingRespDto> createBlockBooking(BlockBookingReqDto blockDto);
+	
+	BookingRespDto makePayment(Long bookingId, PaymentReqDto paymentDto, String idempotencyKey);
 	
 	List<BookingRespDto> getBookingsByUserId(Long userId);
 	
@@ -36,6 +50,6 @@ public interface ReceptionistService {
 	
 	//void updateCompletedBookings();
 	
-	void updateCompletedBookingsAndRooms();
+	CompletionRespDto updateCompletedBookingsAndRooms();
 	
 }
@@ -1,16 +1,21 @@
 package com.hotel.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 import org.modelmapper.ModelMapper;
-import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.hotel.custom_exception.ApiException;
@@ -21,8 +26,12 @@ import com.hotel.dao.RoomDao;
 import com.hotel.dao.UserDao;
 import com.hotel.dto.AddBookingRespDto;
 import com.hotel.dto.ApiResponse;
+import com.hotel.dto.BlockBookingReqDto;
 import com.hotel.dto.BookingReqDto;
 import com.hotel.dto.BookingRespDto;
+import com.hotel.dto.BulkRegisterRespDto;
+import com.hotel.dto.CompletionRespDto;
+import com.hotel.dto.CursorPageRespDto;
 import com.hotel.dto.CustomerReqDto;
 import com.hotel.dto.CustomerRespDto;
 import com.hotel.dto.LoginReqDto;
@@ -30,6 +39,7 @@ import com.hotel.dto.PaymentReqDto;
 import com.hotel.dto.UserRespDto;
 import com.hotel.entities.Booking;
 import com.hotel.entities.BookingStatus;
+import com.hotel.entities.Category;
 import com.hotel.entities.Method;
 import com.hotel.entities.Payment;
 import com.hotel.entities.PaymentStatus;
@@ -37,6 +47,7 @@ import com.hotel.entities.Role;
 import com.hotel.entities.Room;
 import com.hotel.entities.Status;
 import com.hotel.entities.User;
+import com.hotel.mapper.DtoMapper;
 
 import lombok.AllArgsConstructor;
 
@@ -46,13 +57,27 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class ReceptionistServiceImpl implements ReceptionistService {
 	
+	private static final int MAX_BLOCK_ROOMS = 200;
+	private static final int MAX_BLOCK_ATTEMPTS = 3;
 
-	private final BCryptPasswordEncoder passwordEncoder;
+	private final PasswordEncoder passwordEncoder;
 	private final ModelMapper modelMapper;
+	private final DtoMapper dtoMapper;
 	private final UserDao userDao;
 	private final RoomDao roomDao;
 	private final BookingDao bookingDao;
 	private final PaymentDao paymentDao;
+	private final RoomAvailabilityIndex availabilityIndex;
+	private final BookingAdmission bookingAdmission;
+	private final BookingCompletionJob completionJob;
+	private final JdbcExporter exporter;
+	private final UserBulkRegistrar bulkRegistrar;
+	private final ApplicationEventPublisher eventPublisher;
+	private final PaymentIntake paymentIntake;
+	private final PaymentServiceImpl paymentService;
+	private final PricingEngine pricingEngine;
+	private final QuoteService quoteService;
+	private final StayPolicy stayPolicy;
 	
 	@Override
 	public UserRespDto loginUser(LoginReqDto loginDto) {
@@ -61,7 +86,7 @@ public class ReceptionistServiceImpl implements ReceptionistService {
 		if (!passwordEncoder.matches(loginDto.getPassword(), user.getPassword())) {
 			throw new ApiException("Invalid email or password");
 		}
-		return modelMapper.map(user, UserRespDto.class);
+		return dtoMapper.toUserResp(user);
 	}
 
 
@@ -69,7 +94,7 @@ public class ReceptionistServiceImpl implements ReceptionistService {
 	public CustomerRespDto getCustomerById(Long id) {
 		User user = userDao.findById(id)
 				.orElseThrow(()->new ResourceNotFoundException("Invalid id"));
-		return modelMapper.map(user, CustomerRespDto.class);
+		return dtoMapper.toCustomerResp(user);
 	}
 
 
@@ -77,16 +102,39 @@ public class ReceptionistServiceImpl implements ReceptionistService {
 	public List<CustomerRespDto> getAllCustomer() {
 		return userDao.findAll()
 				.stream()
-				.map(user -> modelMapper.map(user, CustomerRespDto.class))
+				.map(user -> dtoMapper.toCustomerResp(user))
 				.collect(Collectors.toList());
 	}
 
 
+	//KEYSET PAGE OF GUESTS - cursor is the last userId seen
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageRespDto<CustomerRespDto> getCustomersPage(Long after, int limit) {
+		int size = PageLimits.clamp(limit);
+		List<User> users = userDao.findByUserIdGreaterThanOrderByUserIdAsc(after != null ? after : 0L, Limit.of(size));
+		List<CustomerRespDto> content = users.stream()
+				.map(user -> dtoMapper.toCustomerResp(user))
+				.collect(Collectors.toList());
+		Long next = users.size() == size ? users.get(users.size() - 1).getUserId() : null;
+		return new CursorPageRespDto<>(content, next, size);
+	}
+	
+	
+	//STREAM ALL GUESTS AS JSON
+	@Override
+	@Transactional(readOnly = true)
+	public void exportCustomers(OutputStream out) throws IOException {
+		exporter.export("select user_id as userId, first_name as firstName, last_name as lastName, email, phone, "
+				+ "gender, id_card as idCard, role from users order by user_id", out);
+	}
+
+
 	@Override
 	public CustomerRespDto getCustomerByEmail(String email) {
 		User user = userDao.findByEmail(email)
 				.orElseThrow(()->new ResourceNotFoundException("Invalid id"));
-		return modelMapper.map(user, CustomerRespDto.class);
+		return dtoMapper.toCustomerResp(user);
 	}
 	
 	
@@ -98,32 +146,53 @@ public class ReceptionistServiceImpl implements ReceptionistService {
 		User user = modelMapper.map(custDto, User.class);
 		Role role = Role.valueOf(custDto.getRole().toUpperCase());
 		user.setRole(role);
-		return modelMapper.map(userDao.save(user),CustomerRespDto.class);
+		return dtoMapper.toCustomerResp(userDao.save(user));
+	}
+
+	//GROUP CHECK-IN - GUESTS HAVE NO PASSWORD, ROLE DEFAULTS TO CUSTOMER
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public BulkRegisterRespDto registerCustomers(List<CustomerReqDto> custDtos) {
+		return bulkRegistrar.register(custDtos, CustomerReqDto::getEmail, dto -> null, dto -> {
+			User user = modelMapper.map(dto, User.class);
+			user.setRole(UserBulkRegistrar.roleOf(dto.getRole(), Role.CUSTOMER));
+			return user;
+		});
 	}
 
 
 	
 	//CREATE BOOKING
+	//(runs its own transaction inside the room's admission lock)
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public AddBookingRespDto createBooking(BookingReqDto bookDto) {
+		return bookingAdmission.admit(bookDto.getRoomId(), () -> bookRoom(bookDto));
+	}
+
+	private AddBookingRespDto bookRoom(BookingReqDto bookDto) {
 		User user = userDao.findById(bookDto.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        Room room = roomDao.findById(bookDto.getRoomId())
+        Room room = roomDao.findForBookingByRoomId(bookDto.getRoomId())
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
         room.setStatus(Status.NOT_AVAILABLE);
 
         
-        LocalDate today = LocalDate.now();
-        
-        if (bookDto.getCheckInDate().isBefore(today)) {
-            throw new ApiException("Check-in date cannot be in the past");
-        }
+        stayPolicy.check(bookDto.getCheckInDate(), bookDto.getCheckOutDate());
 
-        if (!bookDto.getCheckOutDate().isAfter(bookDto.getCheckInDate())) {
-            throw new ApiException("Check-out date must be after check-in date");
+        //CHECK THE REQUESTED NIGHTS AGAINST EXISTING BOOKINGS (a live quote already holds them)
+        boolean held = bookDto.getQuoteToken() != null && quoteService.claimForTransaction(bookDto.getQuoteToken(),
+                user.getUserId(), room.getRoomId(), bookDto.getCheckInDate(), bookDto.getCheckOutDate());
+        if (!held && !availabilityIndex.tryReserveForTransaction(room.getRoomId(), bookDto.getCheckInDate(), bookDto.getCheckOutDate())) {
+            throw new ApiException("Room is already booked for the selected dates");
+        }
+        //THE INDEX ONLY KNOWS THIS NODE'S BOOKINGS - THE DATABASE KNOWS EVERY NODE'S
+        //(a racing booking on another node bumps the room version and this transaction retries)
+        if (bookingDao.existsOverlapping(room.getRoomId(), RoomAvailabilityIndex.HOLDING_STATUSES,
+                bookDto.getCheckInDate(), bookDto.getCheckOutDate())) {
+            throw new ApiException("Room is already booked for the selected dates");
         }
-
         
         Booking booking = new Booking();
         booking.setUser(user);
@@ -139,22 +208,139 @@ public class ReceptionistServiceImpl implements ReceptionistService {
         roomDao.save(room);
         
         roomDao.saveAndFlush(room);
+        publishStatus(room);
         
         // Map to response DTO
         
-        AddBookingRespDto respDto = modelMapper.map(savedBooking, AddBookingRespDto.class);
-        respDto.setRoomId(savedBooking.getRoom().getRoomId());
-        respDto.setCategory(savedBooking.getRoom().getCategory());
-        respDto.setUserId(savedBooking.getUser().getUserId());
-        respDto.setUserName(savedBooking.getUser().getFirstName());
+        AddBookingRespDto respDto = dtoMapper.toAddBookingResp(savedBooking);
        
         return respDto;
 	}
 
 
+	//BLOCK BOOKING (weddings, groups) - EVERY ROOM OR NONE, IN ONE TRANSACTION
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<AddBookingRespDto> createBlockBooking(BlockBookingReqDto blockDto) {
+		stayPolicy.check(blockDto.getCheckInDate(), blockDto.getCheckOutDate());
+		BookingStatus status = blockStatus(blockDto.getBookingStatus());
+		if (blockDto.getRoomIds() != null && !blockDto.getRoomIds().isEmpty()) {
+			List<Long> roomIds = blockDto.getRoomIds().stream().distinct().sorted().toList();
+			if (roomIds.size() != blockDto.getRoomIds().size()) {
+				throw new ApiException("A room is listed more than once");
+			}
+			checkBlockSize(roomIds.size());
+			return bookingAdmission.admitAll(roomIds, () -> bookBlock(blockDto, roomIds, status, false));
+		}
+		if (blockDto.getCategory() == null || blockDto.getCount() == null || blockDto.getCount() < 1) {
+			throw new ApiException("Give either roomIds or a category and a count");
+		}
+		checkBlockSize(blockDto.getCount());
+		Category category;
+		try {
+			category = Category.valueOf(blockDto.getCategory().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new ApiException("Invalid category. Allowed values: " + Arrays.toString(Category.values()));
+		}
+		//CANDIDATES COME FROM THE DATABASE AND ARE RE-CHECKED ONCE LOCKED - PICK AGAIN IF ONE WAS TAKEN MEANWHILE
+		for (int attempt = 1;; attempt++) {
+			List<Long> roomIds = freeRoomIds(category, blockDto);
+			List<AddBookingRespDto> booked = bookingAdmission.admitAll(roomIds,
+					() -> bookBlock(blockDto, roomIds, status, true));
+			if (booked != null) {
+				return booked;
+			}
+			if (attempt >= MAX_BLOCK_ATTEMPTS) {
+				throw new ApiException("Rooms are being booked by someone else, please try again");
+			}
+		}
+	}
+
+	//THE LOWEST-ID ROOMS OF THE CATEGORY FREE IN THE DATABASE AND NOT QUOTE-HELD ON THIS NODE
+	private List<Long> freeRoomIds(Category category, BlockBookingReqDto blockDto) {
+		List<Long> free = roomDao.findFreeRoomIds(category, RoomAvailabilityIndex.HOLDING_STATUSES,
+				blockDto.getCheckInDate(), blockDto.getCheckOutDate()).stream()
+				.filter(roomId -> !availabilityIndex.isHeld(roomId, blockDto.getCheckInDate(), blockDto.getCheckOutDate()))
+				.toList();
+		if (free.size() < blockDto.getCount()) {
+			throw new ApiException("Only " + free.size() + " " + category + " rooms are free for the selected dates");
+		}
+		return free.subList(0, blockDto.getCount());
+	}
+
+	//same default as a single booking - BOOKED is set by the payment path
+	private static BookingStatus blockStatus(String status) {
+		if (status == null) {
+			return BookingStatus.CONFIRMED;
+		}
+		try {
+			return BookingStatus.valueOf(status.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new ApiException("Invalid booking status. Allowed values: " + Arrays.toString(BookingStatus.values()));
+		}
+	}
+
+	private static void checkBlockSize(int rooms) {
+		if (rooms > MAX_BLOCK_ROOMS) {
+			throw new ApiException("A block can hold at most " + MAX_BLOCK_ROOMS + " rooms");
+		}
+	}
+
+	//null when chosen rooms were booked between picking and locking them (the caller picks again)
+	private List<AddBookingRespDto> bookBlock(BlockBookingReqDto blockDto, List<Long> roomIds, BookingStatus status,
+			boolean chosen) {
+		User user = userDao.findById(blockDto.getUserId())
+				.orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+		//one SELECT ... FOR UPDATE, rows locked in room-id order
+		List<Room> rooms = roomDao.findForBookingByRoomIdIn(roomIds);
+		if (rooms.size() != roomIds.size()) {
+			throw new ResourceNotFoundException("Room not found");
+		}
+		//RE-CHECKED UNDER THE ROW LOCKS - BOOKINGS MADE ON OTHER NODES ARE NOT IN THIS NODE'S INDEX
+		List<Long> taken = bookingDao.findOverlappingRoomIds(roomIds, RoomAvailabilityIndex.HOLDING_STATUSES,
+				blockDto.getCheckInDate(), blockDto.getCheckOutDate());
+		if (!taken.isEmpty()) {
+			if (chosen) {
+				return null;
+			}
+			throw new ApiException("Rooms " + taken + " are already booked for the selected dates");
+		}
+
+		List<Booking> bookings = new ArrayList<>(rooms.size());
+		for (Room room : rooms) {
+			//a taken room fails the whole block - the rollback hands back the nights reserved so far
+			if (!availabilityIndex.tryReserveForTransaction(room.getRoomId(), blockDto.getCheckInDate(),
+					blockDto.getCheckOutDate())) {
+				throw new ApiException("Room " + room.getRoomNumber() + " is already booked for the selected dates");
+			}
+			room.setStatus(Status.NOT_AVAILABLE);
+			publishStatus(room);
+
+			Booking booking = new Booking();
+			booking.setUser(user);
+			booking.setRoom(room);
+			booking.setBookingStatus(status);
+			booking.setCheckInDate(blockDto.getCheckInDate());
+			booking.setCheckOutDate(blockDto.getCheckOutDate());
+			bookings.add(booking);
+		}
+
+		//inserts and room updates go out as JDBC batches at commit
+		return bookingDao.saveAll(bookings).stream()
+				.map(dtoMapper::toAddBookingResp)
+				.collect(Collectors.toList());
+	}
+
 	//MAKE PAYMENT
+	//(idempotent per Idempotency-Key, runs its own transaction - see PaymentIntake)
 	@Override
-	public BookingRespDto makePayment(Long bookingId, PaymentReqDto paymentDto) {
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public BookingRespDto makePayment(Long bookingId, PaymentReqDto paymentDto, String idempotencyKey) {
+		return paymentIntake.pay(bookingId, idempotencyKey, () -> pay(bookingId, paymentDto, idempotencyKey));
+	}
+
+	private BookingRespDto pay(Long bookingId, PaymentReqDto paymentDto, String idempotencyKey) {
 		Booking booking = bookingDao.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
 
@@ -162,12 +348,22 @@ public class ReceptionistServiceImpl implements ReceptionistService {
             throw new ApiException("Payment already exists for this booking");
         }
         
-        //CHECK PRICE 
+        //CHECK PRICE - THE WHOLE STAY, EXACT TO THE PAISA
         Room room = booking.getRoom();
-        double expectedAmount = room.getPrice();
+        //A LIVE QUOTE FOR THIS STAY FIXES THE PRICE, OTHERWISE PRICE IT NOW
+        OptionalLong quoted = paymentDto.getQuoteToken() == null ? OptionalLong.empty()
+        		: quoteService.quotedTotal(paymentDto.getQuoteToken(), booking.getUser().getUserId(), room.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate());
+        long expectedAmount = quoted.isPresent() ? quoted.getAsLong()
+        		: pricingEngine.quote(room.getCategory(), PricingEngine.toPaise(room.getPrice()),
+        				booking.getCheckInDate(), booking.getCheckOutDate()).total();
         
-        if(paymentDto.getAmount()!=expectedAmount) {
-        	throw new ApiException("Invalid payment amount. Expected: " + expectedAmount);
+        if(PricingEngine.toPaise(paymentDto.getAmount()) != expectedAmount) {
+        	throw new ApiException("Invalid payment amount. Expected: " + PricingEngine.toRupees(expectedAmount));
+        }
+        
+        //GATEWAY ORDER -> BOOKING, IN THE SAME TRANSACTION AS THE PAYMENT
+        if(paymentDto.getOrderId() != null) {
+        	paymentService.linkOrder(paymentDto.getOrderId(), bookingId, room.getRoomId(), paymentDto.getAmount());
         }
         
         Payment payment = new Payment();
@@ -177,6 +373,7 @@ public class ReceptionistServiceImpl implements ReceptionistService {
         payment.setMethod(method);
         payment.setPaymentStatus(paymentDto.getPaymentStatus() != null ? paymentDto.getPaymentStatus() : PaymentStatus.SUCCESS);
         payment.setBooking(booking);
+        payment.setIdempotencyKey(idempotencyKey);
         
         
         
@@ -189,53 +386,21 @@ public class ReceptionistServiceImpl implements ReceptionistService {
         bookingDao.save(booking);
 
         //Map to BookingRespDTO including payment info
-        BookingRespDto respDto = modelMapper.map(booking, BookingRespDto.class);
-        respDto.setRoomId(booking.getRoom().getRoomId());
-        respDto.setUserId(booking.getUser().getUserId());
-        respDto.setUserName(booking.getUser().getFirstName());
-
-        //Payment info
-        respDto.setPaymentId(savedPayment.getPaymentId());
-        respDto.setAmount(savedPayment.getAmount());
-        respDto.setPaymentStatus(savedPayment.getPaymentStatus());
-        respDto.setPaymentDate(savedPayment.getPaymentDate());
+        BookingRespDto respDto = dtoMapper.toBookingResp(booking);
 
         return respDto;
 	}
 	
 	//UPDATE BOOKING
 	@Override
-	@Scheduled(cron = "0 0 1 * * ?") // Runs daily at 1 AM
-    public void updateCompletedBookingsAndRooms() {
-        LocalDate today = LocalDate.now();
-
-        // Step 1: Find bookings whose check-out date is before today and not completed
-        List<Booking> expiredBookings = bookingDao
-                .findByBookingStatusNotAndCheckOutDateBefore(BookingStatus.COMPLETED, today);
-
-        // Step 2: Update booking status and collect room IDs
-        Set<Long> roomIdsToUpdate = new HashSet<>();
-
-        for (Booking booking : expiredBookings) {
-            booking.setBookingStatus(BookingStatus.COMPLETED);
-            if (booking.getRoom() != null) {
-                roomIdsToUpdate.add(booking.getRoom().getRoomId());
-            }
-        }
-
-        // Save updated bookings in batch
-        bookingDao.saveAll(expiredBookings);
-
-        // Step 3: Update room statuses to AVAILABLE
-        if (!roomIdsToUpdate.isEmpty()) {
-            List<Room> rooms = roomDao.findAllById(roomIdsToUpdate);
-
-            for (Room room : rooms) {
-                room.setStatus(Status.AVAILABLE);
-            }
-
-            roomDao.saveAll(rooms);
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletionRespDto updateCompletedBookingsAndRooms() {
+        //SET-BASED, CHUNKED - THE NIGHTLY SCHEDULE LIVES IN BookingCompletionJob
+        CompletionRespDto result = completionJob.run();
+        if (result == null) {
+            throw new ApiException("Booking completion is already running on another instance");
         }
+        return result;
     }
 	
 	
@@ -272,43 +437,17 @@ public class ReceptionistServiceImpl implements ReceptionistService {
 	//GET ALL BOOKINGS BY USERID
 	@Override
 	public List<BookingRespDto> getBookingsByUserId(Long userId) {
-		User user = userDao.findById(userId)
-				.orElseThrow(() -> new ResourceNotFoundException("User not found"));
+		if (!userDao.existsById(userId)) {
+			throw new ResourceNotFoundException("User not found");
+		}
 		
-		List<Booking> bookings = bookingDao.findByUserUserId(userId);
+		//single joined query - room, user and payment columns come back in the same row
+		List<BookingRespDto> bookings = bookingDao.findBookingRespByUserId(userId);
 		
 		if(bookings.isEmpty()) {
 			throw new ResourceNotFoundException("No bookings found for this user");
 		}
-		
-		return bookings.stream().map(booking -> {
-			BookingRespDto dto = modelMapper.map(booking, BookingRespDto.class);
-			
-			//SET ROOM AND PGPROPERTY
-	        if (booking.getRoom() != null) {
-	            dto.setRoomId(booking.getRoom().getRoomId());
-
-//	            if (booking.getRoom().getPgproperty() != null) {
-//	                dto.setPgPropertId(booking.getRoom().getPgproperty().getPgId());
-//	                dto.setPgPropertyName(booking.getRoom().getPgproperty().getName());
-//	            }
-	        }
-	        
-	     //SET USER
-	        if (booking.getUser() != null) {
-	            dto.setUserId(booking.getUser().getUserId());
-	            dto.setUserName(booking.getUser().getFirstName());
-	        }
-
-	        //SET PAYMENT
-	        if (booking.getPayment() != null) {
-	            dto.setPaymentId(booking.getPayment().getPaymentId());
-	            dto.setAmount(booking.getPayment().getAmount());
-	            dto.setPaymentStatus(booking.getPayment().getPaymentStatus());
-	            dto.setPaymentDate(booking.getPayment().getPaymentDate());
-	        }
-	        return dto;
-	    }).collect(Collectors.toList());
+		return bookings;
 	}
 
 
@@ -325,6 +464,7 @@ public class ReceptionistServiceImpl implements ReceptionistService {
         }
 
         // Step 3: Set booking status to CANCELLED
+        boolean wasHolding = RoomAvailabilityIndex.HOLDING_STATUSES.contains(booking.getBookingStatus());
         booking.setBookingStatus(BookingStatus.CANCELLED);
         bookingDao.save(booking);
 
@@ -333,6 +473,10 @@ public class ReceptionistServiceImpl implements ReceptionistService {
         if (room != null) {
             room.setStatus(com.hotel.entities.Status.AVAILABLE);
             roomDao.save(room);
+            publishStatus(room);
+            if (wasHolding) {
+                availabilityIndex.releaseAfterCommit(room.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate());
+            }
         }
 
         return new ApiResponse("Booking with ID " + bookingId + " has been cancelled successfully.");
@@ -396,30 +540,13 @@ public class ReceptionistServiceImpl implements ReceptionistService {
 	// GET BOOKING BY BOOKING ID
 	@Override
 	public BookingRespDto getBookingById(Long bookingId) {
-		Booking booking = bookingDao.findById(bookingId)
+		return bookingDao.findBookingRespById(bookingId)
 	            .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+	}	
 
-	    BookingRespDto dto = modelMapper.map(booking, BookingRespDto.class);
-
-	    // Set Room and PGProperty
-	    if (booking.getRoom() != null) {
-	        dto.setRoomId(booking.getRoom().getRoomId());
-	    }
-
-	    // Set User
-	    if (booking.getUser() != null) {
-	        dto.setUserId(booking.getUser().getUserId());
-	        dto.setUserName(booking.getUser().getFirstName());
-	    }
-
-	    // Set Payment
-	    if (booking.getPayment() != null) {
-	        dto.setPaymentId(booking.getPayment().getPaymentId());
-	        dto.setAmount(booking.getPayment().getAmount());
-	        dto.setPaymentStatus(booking.getPayment().getPaymentStatus());
-	        dto.setPaymentDate(booking.getPayment().getPaymentDate());
-	    }
+	//ROOM CACHE DROPS THE ROOM ONCE THE STATUS CHANGE COMMITS
+	private void publishStatus(Room room) {
+		eventPublisher.publishEvent(new RoomChangedEvent(room.getRoomId(), RoomChangedEvent.Kind.STATUS, room.getStatus()));
+	}
 
-	    return dto;
-	}	
 }
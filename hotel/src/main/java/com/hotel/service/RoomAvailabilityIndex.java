@@ -0,0 +1,296 @@
+package com.hotel.service;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hotel.dao.BookedStay;
+import com.hotel.dao.BookingDao;
+import com.hotel.entities.BookingStatus;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * In-memory index of booked nights - one bitmap per room.
+ * Bit i of a room's bitmap = night (origin + i) is taken, where a stay
+ * [checkIn, checkOut) occupies the nights checkIn .. checkOut-1.
+ * Overlap checks are a single nextSetBit() call on the room's bitmap.
+ * Each node keeps its own copy and only sees bookings made or loaded there, so
+ * it is only a hint: a free night lets the booking go straight on to the database
+ * check (BookingDao.existsOverlapping) before it inserts, while a booked night is
+ * re-read from the database first - a cancellation on another node never clears
+ * this node's bits. Quote holds (QuoteService) live only here, in their own bits,
+ * and are never second-guessed.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomAvailabilityIndex {
+
+	//BOOKING STATES WHICH STILL HOLD THE ROOM
+	public static final EnumSet<BookingStatus> HOLDING_STATUSES = EnumSet.of(BookingStatus.BOOKED,
+			BookingStatus.CONFIRMED);
+
+	private final BookingDao bookingDao;
+
+	private final ConcurrentMap<Long, RoomNights> rooms = new ConcurrentHashMap<>();
+
+	//LOAD ALL LIVE BOOKINGS ONCE AT STARTUP
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		rooms.clear();
+		for (BookedStay stay : bookingDao.findStaysByStatusInAndCheckOutAfter(HOLDING_STATUSES, LocalDate.now())) {
+			nights(stay.getRoomId()).set(stay.getCheckInDate(), stay.getCheckOutDate());
+		}
+	}
+
+	//RE-READ ONE ROOM'S BOOKED NIGHTS FROM THE DATABASE (quote holds are kept)
+	public void refresh(Long roomId) {
+		nights(roomId).reload(bookingDao.findStaysByRoomIdAndStatusInAndCheckOutAfter(roomId, HOLDING_STATUSES,
+				LocalDate.now()));
+	}
+
+	public boolean isFree(Long roomId, LocalDate from, LocalDate to) {
+		RoomNights nights = rooms.get(roomId);
+		return nights == null || nights.isFree(from, to);
+	}
+
+	//ATOMIC CHECK-AND-MARK, RETURNS FALSE IF ANY NIGHT IS ALREADY TAKEN
+	public boolean tryReserve(Long roomId, LocalDate from, LocalDate to) {
+		return nights(roomId).trySet(from, to);
+	}
+
+	public void release(Long roomId, LocalDate from, LocalDate to) {
+		RoomNights nights = rooms.get(roomId);
+		if (nights != null) {
+			nights.clear(from, to);
+		}
+	}
+
+	//---------QUOTE HOLDS---------
+
+	public boolean isHeld(Long roomId, LocalDate from, LocalDate to) {
+		RoomNights nights = rooms.get(roomId);
+		return nights != null && nights.isHeld(from, to);
+	}
+
+	public boolean tryHold(Long roomId, LocalDate from, LocalDate to) {
+		return nights(roomId).tryHold(from, to);
+	}
+
+	public void releaseHold(Long roomId, LocalDate from, LocalDate to) {
+		RoomNights nights = rooms.get(roomId);
+		if (nights != null) {
+			nights.clearHeld(from, to);
+		}
+	}
+
+	//THE HOLD BECOMES A BOOKING - THE NIGHTS STAY TAKEN THROUGHOUT
+	public void claimHold(Long roomId, LocalDate from, LocalDate to) {
+		nights(roomId).claimHeld(from, to);
+	}
+
+	/*
+	 * Reserve the nights for the current transaction - they are handed back
+	 * automatically if the transaction rolls back.
+	 * On a clash with this node's booked bits the room is re-read from the database
+	 * and tried again, so only a live quote hold here or a booking the database still
+	 * has turns the booking away. Callers hold the room's lock.
+	 */
+	public boolean tryReserveForTransaction(Long roomId, LocalDate from, LocalDate to) {
+		if (!tryReserve(roomId, from, to)) {
+			refresh(roomId);
+			if (!tryReserve(roomId, from, to)) {
+				return false;
+			}
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status != STATUS_COMMITTED) {
+						release(roomId, from, to);
+					}
+				}
+			});
+		}
+		return true;
+	}
+
+	//FREE THE NIGHTS ONLY ONCE THE CANCELLATION / COMPLETION IS COMMITTED
+	public void releaseAfterCommit(Long roomId, LocalDate from, LocalDate to) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			release(roomId, from, to);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				release(roomId, from, to);
+			}
+		});
+	}
+
+	public void removeRoom(Long roomId) {
+		rooms.remove(roomId);
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onRoomChanged(RoomChangedEvent event) {
+		if (event.getKind() == RoomChangedEvent.Kind.DELETED) {
+			removeRoom(event.getRoomId());
+		}
+	}
+
+	//EVERY NODE PRUNES ITS OWN COPY - NOT A LEASED JOB
+	@Scheduled(cron = "${app.availability.prune-cron:0 5 0 * * ?}") // daily just after midnight by default
+	public void pruneExpired() {
+		pruneBefore(LocalDate.now());
+	}
+
+	//DROP NIGHTS BEFORE THE GIVEN DAY SO BITMAPS STAY SMALL
+	public void pruneBefore(LocalDate day) {
+		rooms.values().forEach(nights -> nights.pruneBefore(day));
+	}
+
+	private RoomNights nights(Long roomId) {
+		return rooms.computeIfAbsent(roomId, id -> new RoomNights(LocalDate.now().toEpochDay()));
+	}
+
+	//BOOKED AND QUOTE-HELD NIGHTS OF ONE ROOM, GUARDED BY ITS OWN MONITOR
+	private static final class RoomNights {
+
+		private long origin;
+		private BitSet booked = new BitSet();
+		private BitSet held = new BitSet();
+
+		RoomNights(long origin) {
+			this.origin = origin;
+		}
+
+		synchronized boolean isFree(LocalDate from, LocalDate to) {
+			int start = offset(from);
+			int end = offset(to);
+			return end <= start || (isClear(booked, start, end) && isClear(held, start, end));
+		}
+
+		synchronized boolean isHeld(LocalDate from, LocalDate to) {
+			int start = offset(from);
+			int end = offset(to);
+			return end > start && !isClear(held, start, end);
+		}
+
+		synchronized boolean trySet(LocalDate from, LocalDate to) {
+			if (!isFree(from, to)) {
+				return false;
+			}
+			set(from, to);
+			return true;
+		}
+
+		synchronized boolean tryHold(LocalDate from, LocalDate to) {
+			if (!isFree(from, to)) {
+				return false;
+			}
+			rebaseTo(from.toEpochDay());
+			setRange(held, from, to);
+			return true;
+		}
+
+		synchronized void set(LocalDate from, LocalDate to) {
+			rebaseTo(from.toEpochDay());
+			setRange(booked, from, to);
+		}
+
+		synchronized void clear(LocalDate from, LocalDate to) {
+			clearRange(booked, from, to);
+		}
+
+		synchronized void clearHeld(LocalDate from, LocalDate to) {
+			clearRange(held, from, to);
+		}
+
+		synchronized void claimHeld(LocalDate from, LocalDate to) {
+			clearRange(held, from, to);
+			set(from, to);
+		}
+
+		synchronized void reload(List<BookedStay> stays) {
+			booked = new BitSet();
+			for (BookedStay stay : stays) {
+				set(stay.getCheckInDate(), stay.getCheckOutDate());
+			}
+		}
+
+		synchronized void pruneBefore(LocalDate day) {
+			long shift = day.toEpochDay() - origin;
+			if (shift <= 0) {
+				return;
+			}
+			booked = dropFirst(booked, shift);
+			held = dropFirst(held, shift);
+			origin = day.toEpochDay();
+		}
+
+		private void setRange(BitSet bits, LocalDate from, LocalDate to) {
+			int start = offset(from);
+			int end = offset(to);
+			if (end > start) {
+				bits.set(start, end);
+			}
+		}
+
+		private void clearRange(BitSet bits, LocalDate from, LocalDate to) {
+			int start = offset(from);
+			int end = offset(to);
+			if (end > start) {
+				bits.clear(start, end);
+			}
+		}
+
+		private static boolean isClear(BitSet bits, int start, int end) {
+			int next = bits.nextSetBit(start);
+			return next < 0 || next >= end;
+		}
+
+		private static BitSet dropFirst(BitSet bits, long shift) {
+			return shift >= bits.length() ? new BitSet() : bits.get((int) shift, bits.length());
+		}
+
+		//NIGHTS BEFORE THE ORIGIN ARE IN THE PAST - CLAMP THEM TO BIT 0 (and far-future ones to the
+		//last bit; bookings never get there, StayPolicy caps how far ahead they go)
+		private int offset(LocalDate day) {
+			return (int) Math.min(Integer.MAX_VALUE, Math.max(0, day.toEpochDay() - origin));
+		}
+
+		//MOVE THE ORIGIN BACK WHEN AN OLDER STAY IS LOADED
+		private void rebaseTo(long day) {
+			if (day >= origin) {
+				return;
+			}
+			int shift = (int) (origin - day);
+			booked = shifted(booked, shift);
+			held = shifted(held, shift);
+			origin = day;
+		}
+
+		private static BitSet shifted(BitSet bits, int shift) {
+			BitSet shifted = new BitSet(bits.length() + shift);
+			for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+				shifted.set(i + shift);
+			}
+			return shifted;
+		}
+	}
+}
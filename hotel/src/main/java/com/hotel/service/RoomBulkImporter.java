@@ -0,0 +1,245 @@
+package com.hotel.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.custom_exception.ApiException;
+import com.hotel.dao.RoomDao;
+import com.hotel.dto.BulkImportRespDto;
+import com.hotel.dto.RoomReqDto;
+import com.hotel.entities.Category;
+import com.hotel.entities.Room;
+import com.hotel.entities.Status;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Streaming room import (CSV with a header row, or NDJSON).
+ * Rows are parsed one line at a time, checked against the set of existing room
+ * numbers loaded once up front, and saved in chunks - one transaction per chunk,
+ * inserted by Hibernate in JDBC batches. Bad rows are reported, not fatal.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomBulkImporter {
+
+	static final int CHUNK_SIZE = 500;
+
+	private static final List<String> CSV_COLUMNS = List.of("roomNumber", "occupancy", "category", "price",
+			"imagePath");
+
+	private final RoomDao roomDao;
+	private final RoomCatalogVersion catalogVersion;
+	private final TransactionTemplate txTemplate;
+	private final Validator validator;
+	private final ObjectMapper objectMapper;
+
+	public BulkImportRespDto importCsv(InputStream in) throws IOException {
+		Run run = new Run();
+		BufferedReader reader = reader(in);
+		String header = reader.readLine();
+		if (header == null) {
+			return run.finish();
+		}
+		Map<String, Integer> columns = csvHeader(header);
+		if (!columns.keySet().containsAll(CSV_COLUMNS.subList(0, 4))) {
+			throw new ApiException("CSV header must contain the columns " + CSV_COLUMNS);
+		}
+		long line = 1;
+		for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+			line++;
+			if (text.isBlank()) {
+				continue;
+			}
+			List<String> fields = splitCsv(text);
+			RoomReqDto dto = new RoomReqDto();
+			dto.setRoomNumber(field(fields, columns, "roomNumber"));
+			dto.setOccupancy(field(fields, columns, "occupancy"));
+			dto.setCategory(field(fields, columns, "category"));
+			dto.setImagePath(field(fields, columns, "imagePath"));
+			String price = field(fields, columns, "price");
+			try {
+				dto.setPrice(price == null ? null : Double.valueOf(price));
+			} catch (NumberFormatException e) {
+				run.reject(line, dto.getRoomNumber(), "Invalid price: " + price);
+				continue;
+			}
+			run.accept(line, dto);
+		}
+		return run.finish();
+	}
+
+	public BulkImportRespDto importNdjson(InputStream in) throws IOException {
+		Run run = new Run();
+		BufferedReader reader = reader(in);
+		long line = 0;
+		for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+			line++;
+			if (text.isBlank()) {
+				continue;
+			}
+			RoomReqDto dto;
+			try {
+				dto = objectMapper.readValue(text, RoomReqDto.class);
+			} catch (JsonProcessingException e) {
+				run.reject(line, null, "Malformed JSON: " + e.getOriginalMessage());
+				continue;
+			}
+			run.accept(line, dto);
+		}
+		return run.finish();
+	}
+
+	private static BufferedReader reader(InputStream in) {
+		return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+	}
+
+	//ONE IMPORT - SEEN ROOM NUMBERS, THE CURRENT CHUNK AND THE REPORT
+	private final class Run {
+
+		private final Set<String> roomNumbers = new HashSet<>(roomDao.findAllRoomNumbers());
+		private final List<Room> pending = new ArrayList<>(CHUNK_SIZE);
+		private final List<Long> pendingLines = new ArrayList<>(CHUNK_SIZE);
+		private final BulkImportRespDto report = new BulkImportRespDto();
+
+		void accept(long line, RoomReqDto dto) {
+			report.setRowsRead(report.getRowsRead() + 1);
+			Set<ConstraintViolation<RoomReqDto>> violations = validator.validate(dto);
+			if (!violations.isEmpty()) {
+				report.reject(line, dto.getRoomNumber(), violations.stream()
+						.map(ConstraintViolation::getMessage)
+						.sorted()
+						.collect(Collectors.joining("; ")));
+				return;
+			}
+			Category category;
+			try {
+				category = Category.valueOf(dto.getCategory().trim().toUpperCase());
+			} catch (IllegalArgumentException e) {
+				report.reject(line, dto.getRoomNumber(),
+						"Invalid category. Allowed values: " + Arrays.toString(Category.values()));
+				return;
+			}
+			//covers both existing rooms and earlier rows of this file
+			if (!roomNumbers.add(dto.getRoomNumber())) {
+				report.reject(line, dto.getRoomNumber(), "Duplicate room");
+				return;
+			}
+			Room room = new Room();
+			room.setRoomNumber(dto.getRoomNumber());
+			room.setOccupancy(dto.getOccupancy());
+			room.setCategory(category);
+			room.setPrice(dto.getPrice());
+			room.setImagePath(dto.getImagePath());
+			room.setStatus(Status.AVAILABLE);
+			pending.add(room);
+			pendingLines.add(line);
+			if (pending.size() == CHUNK_SIZE) {
+				flush();
+			}
+		}
+
+		void reject(long line, String key, String message) {
+			report.setRowsRead(report.getRowsRead() + 1);
+			report.reject(line, key, message);
+		}
+
+		BulkImportRespDto finish() {
+			flush();
+			return report;
+		}
+
+		private void flush() {
+			if (pending.isEmpty()) {
+				return;
+			}
+			try {
+				txTemplate.executeWithoutResult(status -> {
+					roomDao.saveAll(pending);
+					catalogVersion.bump();
+				});
+				report.setInserted(report.getInserted() + pending.size());
+			} catch (DataAccessException e) {
+				//e.g. a room number added concurrently through the single-room API
+				for (int i = 0; i < pending.size(); i++) {
+					report.reject(pendingLines.get(i), pending.get(i).getRoomNumber(),
+							"Could not be saved (chunk rolled back): " + e.getMostSpecificCause().getMessage());
+				}
+			}
+			pending.clear();
+			pendingLines.clear();
+		}
+	}
+
+	//---------CSV---------
+
+	private static Map<String, Integer> csvHeader(String header) {
+		List<String> names = splitCsv(header);
+		Map<String, Integer> columns = new HashMap<>();
+		for (int i = 0; i < names.size(); i++) {
+			for (String column : CSV_COLUMNS) {
+				if (column.equalsIgnoreCase(names.get(i).trim())) {
+					columns.putIfAbsent(column, i);
+				}
+			}
+		}
+		return columns;
+	}
+
+	private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+		Integer index = columns.get(name);
+		if (index == null || index >= fields.size()) {
+			return null;
+		}
+		String value = fields.get(index).trim();
+		return value.isEmpty() ? null : value;
+	}
+
+	//SPLITS ONE CSV RECORD - QUOTED FIELDS MAY CONTAIN COMMAS AND "" ESCAPES
+	static List<String> splitCsv(String text) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+}
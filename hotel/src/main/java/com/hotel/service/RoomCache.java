@@ -0,0 +1,277 @@
+package com.hotel.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hotel.custom_exception.ResourceNotFoundException;
+import com.hotel.dao.RoomDao;
+import com.hotel.dto.RoomRespDto;
+import com.hotel.entities.Category;
+import com.hotel.entities.Room;
+import com.hotel.mapper.DtoMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Read-through cache of rooms for the room read APIs: rooms by id, the
+ * room-number -> id index and the id lists behind "all rooms" and "rooms by category".
+ * Entries are evicted after every committed RoomChangedEvent - a status flip only
+ * drops that room, edits / adds / deletes also drop the lists - and everything is
+ * dropped every app.room-cache.refresh-millis, which bounds how stale another
+ * node's writes can look here.
+ * Hits and misses are published as "room.cache.gets" (tags result, region) with a
+ * "room.cache.hit.ratio" gauge (GET /actuator/metrics/room.cache.hit.ratio).
+ * version() identifies the room catalog for conditional GETs.
+ */
+@Component
+public class RoomCache {
+
+	private static final String[] REGIONS = { "room", "number", "category", "all" };
+
+	private final RoomDao roomDao;
+	private final DtoMapper dtoMapper;
+	private final RoomCatalogVersion catalogVersions;
+
+	private final Map<Long, RoomRespDto> byId = new ConcurrentHashMap<>();
+	private final Map<String, Long> idByNumber = new ConcurrentHashMap<>();
+	private final Map<Category, List<Long>> idsByCategory = new ConcurrentHashMap<>();
+	private volatile List<Long> allIds;
+
+	/*
+	 * Bumped by every eviction, before it removes anything. A load only keeps
+	 * what it put into the cache if no eviction happened between its read and
+	 * the end of the put (checked again after putting - see cacheIfCurrent), so
+	 * a row read just before a commit can't stay cached after that commit's eviction.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+	//catalog version and the generation it was read in
+	private volatile CatalogVersion catalogVersion;
+
+	private final Map<String, AtomicLong> hits = new ConcurrentHashMap<>();
+	private final Map<String, AtomicLong> misses = new ConcurrentHashMap<>();
+
+	public RoomCache(RoomDao roomDao, DtoMapper dtoMapper, RoomCatalogVersion catalogVersions, MeterRegistry registry) {
+		this.roomDao = roomDao;
+		this.dtoMapper = dtoMapper;
+		this.catalogVersions = catalogVersions;
+		for (String region : REGIONS) {
+			hits.put(region, new AtomicLong());
+			misses.put(region, new AtomicLong());
+			FunctionCounter.builder("room.cache.gets", hits.get(region), AtomicLong::get)
+					.tags("result", "hit", "region", region).register(registry);
+			FunctionCounter.builder("room.cache.gets", misses.get(region), AtomicLong::get)
+					.tags("result", "miss", "region", region).register(registry);
+		}
+		Gauge.builder("room.cache.hit.ratio", this, RoomCache::hitRatio).register(registry);
+		Gauge.builder("room.cache.size", byId, Map::size).register(registry);
+	}
+
+	public RoomRespDto get(Long roomId) {
+		return copy(cached(roomId).orElseThrow(() -> new ResourceNotFoundException("Invalid room no")));
+	}
+
+	public RoomRespDto getByRoomNumber(String roomNumber) {
+		Long roomId = idByNumber.get(roomNumber);
+		RoomRespDto cached = roomId == null ? null : byId.get(roomId);
+		//the number may have moved to another room since it was indexed
+		if (cached != null && roomNumber.equals(cached.getRoomNumber())) {
+			count(hits, "number");
+			return copy(cached);
+		}
+		count(misses, "number");
+		long gen = generation.get();
+		Room room = roomDao.findByRoomNumber(roomNumber)
+				.orElseThrow(() -> new ResourceNotFoundException("Invalid room no"));
+		RoomRespDto dto = dtoMapper.toRoomResp(room);
+		if (cacheIfCurrent(gen, dto)) {
+			idByNumber.put(roomNumber, dto.getRoomId());
+			if (generation.get() != gen) {
+				idByNumber.remove(roomNumber, dto.getRoomId());
+			}
+		}
+		return copy(dto);
+	}
+
+	public List<RoomRespDto> getByCategory(Category category) {
+		List<Long> ids = idsByCategory.get(category);
+		if (ids != null) {
+			count(hits, "category");
+			return resolve(ids);
+		}
+		count(misses, "category");
+		return load(() -> roomDao.findByCategory(category), loaded -> idsByCategory.put(category, loaded),
+				loaded -> idsByCategory.remove(category, loaded));
+	}
+
+	public List<RoomRespDto> getAll() {
+		List<Long> ids = allIds;
+		if (ids != null) {
+			count(hits, "all");
+			return resolve(ids);
+		}
+		count(misses, "all");
+		return load(roomDao::findAll, loaded -> allIds = loaded, loaded -> {
+			if (allIds == loaded) {
+				allIds = null;
+			}
+		});
+	}
+
+	//---------INVALIDATION---------
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onRoomChanged(RoomChangedEvent event) {
+		if (event.getRoomId() == null) {
+			clear();
+			return;
+		}
+		generation.incrementAndGet();
+		byId.remove(event.getRoomId());
+		//lists only hold ids - after a status flip the room itself is reloaded on the next read
+		if (event.getKind() != RoomChangedEvent.Kind.STATUS) {
+			idByNumber.values().remove(event.getRoomId());
+			idsByCategory.clear();
+			allIds = null;
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.room-cache.refresh-millis:60000}",
+			initialDelayString = "${app.room-cache.refresh-millis:60000}")
+	public void clear() {
+		generation.incrementAndGet();
+		byId.clear();
+		idByNumber.clear();
+		idsByCategory.clear();
+		allIds = null;
+	}
+
+	/*
+	 * Catalog version, served as the ETag of the room list endpoints - the
+	 * persisted counter every room change raises (RoomCatalogVersion), so it is
+	 * the same on every node and across restarts. Read from the database once per
+	 * cache generation - a conditional GET between evictions costs no query.
+	 */
+	public String version() {
+		long gen = generation.get();
+		CatalogVersion current = catalogVersion;
+		if (current != null && current.generation() == gen) {
+			return current.value();
+		}
+		String value = Long.toString(catalogVersions.current());
+		if (generation.get() == gen) {
+			catalogVersion = new CatalogVersion(gen, value);
+		}
+		return value;
+	}
+
+	private record CatalogVersion(long generation, String value) {
+	}
+
+	public double hitRatio() {
+		long hit = hits.values().stream().mapToLong(AtomicLong::get).sum();
+		long total = hit + misses.values().stream().mapToLong(AtomicLong::get).sum();
+		return total == 0 ? 0 : (double) hit / total;
+	}
+
+	//---------INTERNALS---------
+
+	private Optional<RoomRespDto> cached(Long roomId) {
+		RoomRespDto dto = byId.get(roomId);
+		count(dto != null ? hits : misses, "room");
+		return dto != null ? Optional.of(dto) : fetch(roomId);
+	}
+
+	private Optional<RoomRespDto> fetch(Long roomId) {
+		long gen = generation.get();
+		Optional<RoomRespDto> loaded = roomDao.findById(roomId).map(dtoMapper::toRoomResp);
+		loaded.ifPresent(dto -> cacheIfCurrent(gen, dto));
+		return loaded;
+	}
+
+	/*
+	 * Caches a room read under generation gen, unless an eviction has happened
+	 * since. The check is repeated after the put: an eviction landing between
+	 * check and put has already run its remove, so the put is undone here instead.
+	 */
+	private boolean cacheIfCurrent(long gen, RoomRespDto dto) {
+		if (generation.get() != gen) {
+			return false;
+		}
+		byId.put(dto.getRoomId(), dto);
+		if (generation.get() != gen) {
+			byId.remove(dto.getRoomId(), dto);
+			return false;
+		}
+		return true;
+	}
+
+	//ROOMS OF A CACHED ID LIST - ENTRIES EVICTED BY A STATUS CHANGE ARE RELOADED ONE BY ONE
+	private List<RoomRespDto> resolve(List<Long> ids) {
+		List<RoomRespDto> rooms = new ArrayList<>(ids.size());
+		for (Long roomId : ids) {
+			RoomRespDto dto = byId.get(roomId);
+			if (dto == null) {
+				dto = fetch(roomId).orElse(null);
+			}
+			if (dto != null) {
+				rooms.add(copy(dto));
+			}
+		}
+		return rooms;
+	}
+
+	//RUNS A LIST QUERY AND CACHES THE ROOMS AND THEIR IDS, UNLESS AN EVICTION RACED THE QUERY
+	private List<RoomRespDto> load(Supplier<List<Room>> query, Consumer<List<Long>> index,
+			Consumer<List<Long>> unindex) {
+		long gen = generation.get();
+		List<Room> rooms = query.get();
+		List<RoomRespDto> dtos = new ArrayList<>(rooms.size());
+		List<Long> ids = new ArrayList<>(rooms.size());
+		for (Room room : rooms) {
+			RoomRespDto dto = dtoMapper.toRoomResp(room);
+			dtos.add(dto);
+			ids.add(dto.getRoomId());
+		}
+		if (generation.get() == gen) {
+			dtos.forEach(dto -> byId.put(dto.getRoomId(), dto));
+			List<Long> loaded = List.copyOf(ids);
+			index.accept(loaded);
+			//same re-check as cacheIfCurrent
+			if (generation.get() != gen) {
+				dtos.forEach(dto -> byId.remove(dto.getRoomId(), dto));
+				unindex.accept(loaded);
+			}
+		}
+		return dtos.stream().map(RoomCache::copy).toList();
+	}
+
+	private static void count(Map<String, AtomicLong> counters, String region) {
+		counters.get(region).incrementAndGet();
+	}
+
+	//callers get their own instance - cached entries are shared
+	private static RoomRespDto copy(RoomRespDto dto) {
+		RoomRespDto copy = new RoomRespDto();
+		copy.setRoomId(dto.getRoomId());
+		copy.setRoomNumber(dto.getRoomNumber());
+		copy.setOccupancy(dto.getOccupancy());
+		copy.setCategory(dto.getCategory());
+		copy.setPrice(dto.getPrice());
+		copy.setStatus(dto.getStatus());
+		copy.setImagePath(dto.getImagePath());
+		return copy;
+	}
+}
@@ -0,0 +1,161 @@
+package com.hotel.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hotel.dao.RoomDao;
+import com.hotel.dto.PageRespDto;
+import com.hotel.dto.RoomRespDto;
+import com.hotel.entities.Category;
+import com.hotel.entities.Room;
+import com.hotel.entities.Status;
+import com.hotel.mapper.DtoMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Read-only, price-sorted snapshot of the room catalog used for availability
+ * search. The snapshot is rebuilt after every committed room change (a status
+ * change only patches that room's entry) and is swapped in atomically, so
+ * searches never touch the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomCatalog {
+
+	private static final Comparator<Entry> BY_PRICE = Comparator.comparingDouble(Entry::price)
+			.thenComparingLong(Entry::roomId);
+
+	private final RoomDao roomDao;
+	private final DtoMapper dtoMapper;
+	private final RoomAvailabilityIndex availabilityIndex;
+
+	private volatile Snapshot snapshot = Snapshot.of(new ArrayList<>());
+
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void load() {
+		List<Entry> all = new ArrayList<>();
+		for (Room room : roomDao.findAll()) {
+			all.add(new Entry(room.getRoomId(), room.getPrice(), parseOccupancy(room.getOccupancy()),
+					room.getCategory(), dtoMapper.toRoomResp(room)));
+		}
+		snapshot = Snapshot.of(all);
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onRoomChanged(RoomChangedEvent event) {
+		//a status flip only changes the returned dto - no need to re-read every room
+		if (event.getKind() == RoomChangedEvent.Kind.STATUS && event.getRoomId() != null && event.getStatus() != null) {
+			applyStatus(event.getRoomId(), event.getStatus());
+		} else {
+			load();
+		}
+	}
+
+	private synchronized void applyStatus(long roomId, Status status) {
+		List<Entry> entries = new ArrayList<>(List.of(snapshot.all()));
+		for (ListIterator<Entry> it = entries.listIterator(); it.hasNext();) {
+			Entry entry = it.next();
+			if (entry.roomId() == roomId) {
+				//dtos already handed out stay untouched
+				it.set(new Entry(entry.roomId(), entry.price(), entry.occupancy(), entry.category(),
+						withStatus(entry.dto(), status)));
+				snapshot = Snapshot.of(entries);
+				return;
+			}
+		}
+		//not in the snapshot yet - it is stale anyway
+		load();
+	}
+
+	/*
+	 * Bookable rooms for [from, to), cheapest first.
+	 * category, maxPrice and minOccupancy are optional (null = any).
+	 */
+	public PageRespDto<RoomRespDto> search(LocalDate from, LocalDate to, Category category, Double maxPrice,
+			Integer minOccupancy, int page, int size) {
+		Snapshot current = snapshot;
+		Entry[] candidates = category == null ? current.all() : current.byCategory().get(category);
+		int end = maxPrice == null ? candidates.length : upperBound(candidates, maxPrice);
+
+		int skip = page * size;
+		long total = 0;
+		List<RoomRespDto> content = new ArrayList<>(size);
+		for (int i = 0; i < end; i++) {
+			Entry entry = candidates[i];
+			if (minOccupancy != null && entry.occupancy() < minOccupancy) {
+				continue;
+			}
+			if (!availabilityIndex.isFree(entry.roomId(), from, to)) {
+				continue;
+			}
+			if (total >= skip && content.size() < size) {
+				content.add(entry.dto());
+			}
+			total++;
+		}
+		int totalPages = (int) ((total + size - 1) / size);
+		return new PageRespDto<>(content, page, size, total, totalPages);
+	}
+
+	//FIRST INDEX WHOSE PRICE IS ABOVE maxPrice
+	private static int upperBound(Entry[] entries, double maxPrice) {
+		int lo = 0;
+		int hi = entries.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (entries[mid].price() <= maxPrice) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private static RoomRespDto withStatus(RoomRespDto dto, Status status) {
+		RoomRespDto copy = new RoomRespDto();
+		copy.setRoomId(dto.getRoomId());
+		copy.setRoomNumber(dto.getRoomNumber());
+		copy.setOccupancy(dto.getOccupancy());
+		copy.setCategory(dto.getCategory());
+		copy.setPrice(dto.getPrice());
+		copy.setStatus(status);
+		copy.setImagePath(dto.getImagePath());
+		return copy;
+	}
+
+	private static int parseOccupancy(String occupancy) {
+		try {
+			return Integer.parseInt(occupancy.trim());
+		} catch (RuntimeException e) {
+			return 0;
+		}
+	}
+
+	private record Entry(long roomId, double price, int occupancy, Category category, RoomRespDto dto) {
+	}
+
+	private record Snapshot(Entry[] all, Map<Category, Entry[]> byCategory) {
+
+		static Snapshot of(List<Entry> entries) {
+			entries.sort(BY_PRICE);
+			Map<Category, Entry[]> byCategory = new EnumMap<>(Category.class);
+			for (Category category : Category.values()) {
+				byCategory.put(category, entries.stream().filter(e -> e.category() == category).toArray(Entry[]::new));
+			}
+			return new Snapshot(entries.toArray(Entry[]::new), byCategory);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.hotel.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hotel.dao.CatalogVersionDao;
+import com.hotel.entities.CatalogVersion;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Version of the room catalog, kept in the catalog_versions table.
+ * Every transaction which changes rooms raises it by one just before it commits
+ * (RoomChangedEvent, BEFORE_COMMIT), so the version only ever grows, is the same
+ * on every node and moves exactly when a room change commits. Bumping last keeps
+ * the counter row locked only for the commit itself.
+ * Room writes made without a RoomChangedEvent inside their transaction (the bulk
+ * importer's chunks) call bump() themselves.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomCatalogVersion {
+
+	static final String ROOMS = "rooms";
+
+	private final CatalogVersionDao catalogVersionDao;
+
+	//ONE BUMP PER TRANSACTION, HOWEVER MANY ROOMS IT TOUCHED
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+	public void onRoomChanged(RoomChangedEvent event) {
+		if (TransactionSynchronizationManager.hasResource(this)) {
+			return;
+		}
+		TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(RoomCatalogVersion.this);
+			}
+		});
+		bump();
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void bump() {
+		if (catalogVersionDao.increment(ROOMS) == 0) {
+			//first room change ever
+			catalogVersionDao.save(new CatalogVersion(ROOMS, 1L));
+		}
+	}
+
+	public long current() {
+		return catalogVersionDao.findVersionByName(ROOMS).orElse(0L);
+	}
+}
@@ -0,0 +1,24 @@
+package com.hotel.service;
+
+import com.hotel.entities.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+//PUBLISHED WHENEVER A ROOM IS ADDED, EDITED, DELETED OR CHANGES STATUS
+@Getter
+@AllArgsConstructor
+@ToString
+public class RoomChangedEvent {
+
+	public enum Kind {
+		ADDED, UPDATED, DELETED, STATUS
+	}
+
+	//null when several rooms changed at once (bulk import)
+	private final Long roomId;
+	private final Kind kind;
+	//new status (null when not known / deleted)
+	private final Status status;
+}
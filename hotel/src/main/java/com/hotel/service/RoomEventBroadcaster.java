@@ -0,0 +1,178 @@
+package com.hotel.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.hotel.custom_exception.ApiException;
+import com.hotel.dto.RoomDeltaDto;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Fans committed room changes out to Server-Sent Events subscribers.
+ * Idle subscribers cost no thread - the emitter is an async servlet response.
+ * Each subscriber has a bounded buffer drained by its own virtual thread, so a
+ * slow client never blocks the committing transaction or other clients; when
+ * the buffer is full the oldest delta is dropped (the client sees a version gap
+ * and reloads).
+ */
+@Component
+public class RoomEventBroadcaster {
+
+	private final int bufferSize;
+	private final long timeoutMillis;
+	private final int maxSubscribers;
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+	private final AtomicLong version = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+
+	public RoomEventBroadcaster(@Value("${app.room-events.buffer-size:64}") int bufferSize,
+			@Value("${app.room-events.timeout-millis:1800000}") long timeoutMillis,
+			@Value("${app.room-events.max-subscribers:10000}") int maxSubscribers,
+			MeterRegistry registry) {
+		this.bufferSize = bufferSize;
+		this.timeoutMillis = timeoutMillis;
+		this.maxSubscribers = maxSubscribers;
+		Gauge.builder("room.events.subscribers", subscribers, Set::size).register(registry);
+		FunctionCounter.builder("room.events.dropped", dropped, AtomicLong::get).register(registry);
+	}
+
+	public SseEmitter subscribe() {
+		if (subscribers.size() >= maxSubscribers) {
+			throw new ApiException("Too many room event subscribers, please try again later");
+		}
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		Subscriber subscriber = new Subscriber(emitter);
+		emitter.onCompletion(() -> subscribers.remove(subscriber));
+		emitter.onTimeout(() -> subscribers.remove(subscriber));
+		emitter.onError(e -> subscribers.remove(subscriber));
+		subscribers.add(subscriber);
+		//first write commits the response headers so the client knows it is connected
+		subscriber.ping();
+		return emitter;
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onRoomChanged(RoomChangedEvent event) {
+		RoomDeltaDto delta = new RoomDeltaDto(event.getRoomId(), event.getKind().name(), event.getStatus(),
+				version.incrementAndGet());
+		for (Subscriber subscriber : subscribers) {
+			subscriber.offer(delta);
+		}
+	}
+
+	//COMMENT LINES KEEP PROXIES FROM CLOSING IDLE STREAMS AND FLUSH OUT DEAD CLIENTS
+	@Scheduled(fixedDelayString = "${app.room-events.heartbeat-millis:25000}")
+	public void heartbeat() {
+		for (Subscriber subscriber : subscribers) {
+			subscriber.ping();
+		}
+	}
+
+	public int subscriberCount() {
+		return subscribers.size();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		for (Subscriber subscriber : subscribers) {
+			subscriber.emitter.complete();
+		}
+		senders.shutdownNow();
+	}
+
+	private final class Subscriber {
+
+		private final SseEmitter emitter;
+		//guarded by this
+		private final ArrayDeque<RoomDeltaDto> buffer = new ArrayDeque<>();
+		private boolean pingPending;
+		private boolean draining;
+
+		Subscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		void offer(RoomDeltaDto delta) {
+			synchronized (this) {
+				if (buffer.size() >= bufferSize) {
+					buffer.pollFirst();
+					dropped.incrementAndGet();
+				}
+				buffer.addLast(delta);
+			}
+			startDrain();
+		}
+
+		void ping() {
+			synchronized (this) {
+				pingPending = true;
+			}
+			startDrain();
+		}
+
+		private void startDrain() {
+			synchronized (this) {
+				if (draining) {
+					return;
+				}
+				draining = true;
+			}
+			senders.execute(this::drain);
+		}
+
+		//ONE DRAINING THREAD PER SUBSCRIBER AT A TIME - SENDS STAY IN ORDER
+		private void drain() {
+			while (true) {
+				RoomDeltaDto delta;
+				boolean ping;
+				synchronized (this) {
+					delta = buffer.pollFirst();
+					ping = delta == null && pingPending;
+					pingPending = pingPending && !ping;
+					if (delta == null && !ping) {
+						draining = false;
+						return;
+					}
+				}
+				try {
+					if (ping) {
+						emitter.send(SseEmitter.event().comment("ping"));
+					} else {
+						emitter.send(SseEmitter.event()
+								.id(Long.toString(delta.getVersion()))
+								.name("room")
+								.data(delta, MediaType.APPLICATION_JSON));
+					}
+				} catch (IOException | IllegalStateException e) {
+					//client went away or the emitter already completed
+					subscribers.remove(this);
+					emitter.completeWithError(e);
+					synchronized (this) {
+						buffer.clear();
+						draining = false;
+					}
+					return;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.hotel.service;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.hotel.custom_exception.ApiException;
+
+/*
+ * Limits on a requested stay, checked before anything looks at availability:
+ * check-in not in the past, at least one night, at most max-nights nights and
+ * starting no more than max-days-ahead days from today. Keeps the per-room night
+ * bitmaps of RoomAvailabilityIndex small whatever dates a client sends.
+ */
+@Component
+public class StayPolicy {
+
+	private final int maxNights;
+	private final int maxDaysAhead;
+
+	public StayPolicy(@Value("${app.booking.max-nights:365}") int maxNights,
+			@Value("${app.booking.max-days-ahead:730}") int maxDaysAhead) {
+		this.maxNights = maxNights;
+		this.maxDaysAhead = maxDaysAhead;
+	}
+
+	public void check(LocalDate checkIn, LocalDate checkOut) {
+		if (checkIn == null || checkOut == null) {
+			throw new ApiException("Check-in and check-out dates are required");
+		}
+		LocalDate today = LocalDate.now();
+		if (checkIn.isBefore(today)) {
+			throw new ApiException("Check-in date cannot be in the past");
+		}
+		if (!checkOut.isAfter(checkIn)) {
+			throw new ApiException("Check-out date must be after check-in date");
+		}
+		if (checkIn.isAfter(today.plusDays(maxDaysAhead))) {
+			throw new ApiException("Bookings open at most " + maxDaysAhead + " days ahead");
+		}
+		if (checkOut.isAfter(checkIn.plusDays(maxNights))) {
+			throw new ApiException("Stays are limited to " + maxNights + " nights");
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.hotel.service;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Hashed timing wheel for many short timeouts (price holds).
+ * A timeout due in n ticks goes into bucket (now + n) % wheel-size; one ticker
+ * thread visits one bucket per tick and runs what is due there - entries due in
+ * a later revolution stay put. schedule() and cancel() are O(1) and never take a
+ * lock; new timeouts reach their bucket through a queue the ticker drains, so the
+ * buckets themselves are only ever touched by the ticker. Cancelled timeouts are
+ * dropped when their bucket comes round.
+ * Precision is one tick; tasks run on the ticker thread and must be short.
+ */
+public class TimingWheel {
+
+	private static final Logger log = LoggerFactory.getLogger(TimingWheel.class);
+
+	private final long tickNanos;
+	private final long startNanos = System.nanoTime();
+	private final ArrayDeque<Timeout>[] buckets;
+	private final int mask;
+	private final ConcurrentLinkedQueue<Timeout> added = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger size = new AtomicInteger();
+	private final ScheduledExecutorService ticker;
+
+	//next tick to process - ticker thread only
+	private long tick;
+
+	@SuppressWarnings("unchecked")
+	public TimingWheel(String name, long tickMillis, int wheelSize) {
+		this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+		//power of two, so the bucket is deadline & mask
+		int buckets = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+		this.buckets = new ArrayDeque[buckets];
+		for (int i = 0; i < buckets; i++) {
+			this.buckets[i] = new ArrayDeque<>();
+		}
+		this.mask = buckets - 1;
+		this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+		ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public static final class Timeout {
+
+		private final long deadline;
+		private final Runnable task;
+		private final AtomicBoolean done = new AtomicBoolean();
+
+		private Timeout(long deadline, Runnable task) {
+			this.deadline = deadline;
+			this.task = task;
+		}
+
+		//FALSE IF THE TASK ALREADY RAN (OR WAS CANCELLED BEFORE)
+		public boolean cancel() {
+			return done.compareAndSet(false, true);
+		}
+	}
+
+	public Timeout schedule(long delayMillis, Runnable task) {
+		long ticks = (TimeUnit.MILLISECONDS.toNanos(delayMillis) + tickNanos - 1) / tickNanos;
+		Timeout timeout = new Timeout(elapsedTicks() + Math.max(1, ticks), task);
+		size.incrementAndGet();
+		added.add(timeout);
+		return timeout;
+	}
+
+	//TIMEOUTS SCHEDULED AND NOT YET RUN OR DROPPED
+	public int size() {
+		return size.get();
+	}
+
+	private void advance() {
+		try {
+			long now = elapsedTicks();
+			for (Timeout timeout; (timeout = added.poll()) != null;) {
+				//already overdue ones go into the bucket visited next
+				buckets[(int) (Math.max(timeout.deadline, tick) & mask)].add(timeout);
+			}
+			for (; tick <= now; tick++) {
+				expire(buckets[(int) (tick & mask)]);
+			}
+		} catch (RuntimeException e) {
+			//an escaping exception would cancel the periodic task
+			log.error("Timing wheel tick failed", e);
+		}
+	}
+
+	private void expire(ArrayDeque<Timeout> bucket) {
+		for (Iterator<Timeout> it = bucket.iterator(); it.hasNext();) {
+			Timeout timeout = it.next();
+			if (timeout.done.get()) {
+				it.remove();
+				size.decrementAndGet();
+			} else if (timeout.deadline <= tick) {
+				it.remove();
+				size.decrementAndGet();
+				if (timeout.done.compareAndSet(false, true)) {
+					try {
+						timeout.task.run();
+					} catch (RuntimeException e) {
+						log.warn("Timeout task failed", e);
+					}
+				}
+			}
+		}
+	}
+
+	private long elapsedTicks() {
+		return (System.nanoTime() - startNanos) / tickNanos;
+	}
+
+	public void stop() {
+		ticker.shutdownNow();
+	}
+}
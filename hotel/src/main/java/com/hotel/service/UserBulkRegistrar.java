@@ -0,0 +1,192 @@
+package com.hotel.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.custom_exception.ApiException;
+import com.hotel.dao.UserDao;
+import com.hotel.dto.BulkRegisterRespDto;
+import com.hotel.dto.RowResultDto;
+import com.hotel.entities.Role;
+import com.hotel.entities.User;
+import com.hotel.security.PasswordHasher;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/*
+ * Registers a batch of users (group check-ins, staff onboarding).
+ * Emails are de-duplicated within the batch and against the database with a
+ * single IN query, passwords are hashed in parallel on the bounded
+ * PasswordHasher pool (PasswordHasher.encodeAll keeps the batch from starving logins), and users are saved in chunks with batched inserts.
+ * Every row gets a CREATED / REJECTED entry in the returned manifest.
+ */
+@Component
+public class UserBulkRegistrar {
+
+	static final int CHUNK_SIZE = 100;
+
+	private final UserDao userDao;
+	private final PasswordHasher passwordHasher;
+	private final TransactionTemplate txTemplate;
+	private final Validator validator;
+	private final int maxRows;
+
+	public UserBulkRegistrar(UserDao userDao, PasswordHasher passwordHasher, TransactionTemplate txTemplate,
+			Validator validator, @Value("${app.bulk-register.max-rows:1000}") int maxRows) {
+		this.userDao = userDao;
+		this.passwordHasher = passwordHasher;
+		this.txTemplate = txTemplate;
+		this.validator = validator;
+		this.maxRows = maxRows;
+	}
+
+	/*
+	 * toUser builds the entity for a valid row (it may throw ApiException to reject it),
+	 * passwordOf returns the raw password to hash, or null when the row has none.
+	 */
+	public <D> BulkRegisterRespDto register(List<D> dtos, Function<D, String> emailOf, Function<D, String> passwordOf,
+			Function<D, User> toUser) {
+		if (dtos == null || dtos.isEmpty()) {
+			throw new ApiException("Nothing to register");
+		}
+		if (dtos.size() > maxRows) {
+			throw new ApiException("At most " + maxRows + " users can be registered at once");
+		}
+
+		List<Row<D>> rows = new ArrayList<>(dtos.size());
+		Set<String> seen = new HashSet<>();
+		for (int i = 0; i < dtos.size(); i++) {
+			D dto = dtos.get(i);
+			Row<D> row = new Row<>(i + 1, dto, dto == null ? null : emailOf.apply(dto));
+			rows.add(row);
+			if (dto == null) {
+				row.reject("Empty row");
+				continue;
+			}
+			Set<ConstraintViolation<D>> violations = validator.validate(dto);
+			if (!violations.isEmpty()) {
+				row.reject(violations.stream()
+						.map(ConstraintViolation::getMessage)
+						.sorted()
+						.collect(Collectors.joining("; ")));
+			} else if (!seen.add(row.key())) {
+				row.reject("Duplicate email in request");
+			}
+		}
+
+		//ONE ROUND TRIP FOR ALL EMAILS
+		List<String> candidates = rows.stream().filter(Row::pending).map(row -> row.email).toList();
+		if (!candidates.isEmpty()) {
+			Set<String> existing = userDao.findEmailsByEmailIn(candidates).stream()
+					.map(email -> email.toLowerCase(Locale.ROOT))
+					.collect(Collectors.toSet());
+			rows.stream().filter(Row::pending).filter(row -> existing.contains(row.key()))
+					.forEach(row -> row.reject("Duplicate email"));
+		}
+
+		for (Row<D> row : rows) {
+			if (row.pending()) {
+				try {
+					row.user = toUser.apply(row.dto);
+				} catch (ApiException e) {
+					row.reject(e.getMessage());
+				}
+			}
+		}
+
+		hashPasswords(rows, passwordOf);
+		save(rows);
+
+		List<RowResultDto> manifest = rows.stream().map(Row::result).toList();
+		int created = (int) manifest.stream().filter(r -> r.getOutcome() == RowResultDto.Outcome.CREATED).count();
+		return new BulkRegisterRespDto(created, manifest.size() - created, manifest);
+	}
+
+	//ROLE NAME (ANY CASE) -> Role, BLANK -> fallback (null fallback = required)
+	public static Role roleOf(String name, Role fallback) {
+		if (name == null || name.isBlank()) {
+			if (fallback == null) {
+				throw new ApiException("Role is required");
+			}
+			return fallback;
+		}
+		try {
+			return Role.valueOf(name.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new ApiException("Invalid role. Allowed values: " + Arrays.toString(Role.values()));
+		}
+	}
+
+	private <D> void hashPasswords(List<Row<D>> rows, Function<D, String> passwordOf) {
+		List<Row<D>> toHash = rows.stream()
+				.filter(Row::pending)
+				.filter(row -> passwordOf.apply(row.dto) != null)
+				.toList();
+		List<String> hashes = passwordHasher.encodeAll(toHash.stream().map(row -> passwordOf.apply(row.dto)).toList());
+		for (int i = 0; i < toHash.size(); i++) {
+			toHash.get(i).user.setPassword(hashes.get(i));
+		}
+	}
+
+	private <D> void save(List<Row<D>> rows) {
+		List<Row<D>> toSave = rows.stream().filter(Row::pending).toList();
+		for (int from = 0; from < toSave.size(); from += CHUNK_SIZE) {
+			List<Row<D>> chunk = toSave.subList(from, Math.min(toSave.size(), from + CHUNK_SIZE));
+			List<User> users = chunk.stream().map(row -> row.user).toList();
+			try {
+				txTemplate.executeWithoutResult(status -> userDao.saveAll(users));
+				chunk.forEach(row -> row.created = true);
+			} catch (DataAccessException e) {
+				//e.g. one of the emails was registered concurrently
+				chunk.forEach(row -> row.reject("Could not be saved (chunk rolled back): "
+						+ e.getMostSpecificCause().getMessage()));
+			}
+		}
+	}
+
+	private static final class Row<D> {
+
+		private final int index;
+		private final D dto;
+		private final String email;
+		private User user;
+		private String error;
+		private boolean created;
+
+		Row(int index, D dto, String email) {
+			this.index = index;
+			this.dto = dto;
+			this.email = email;
+		}
+
+		boolean pending() {
+			return error == null && !created;
+		}
+
+		void reject(String message) {
+			error = message;
+		}
+
+		String key() {
+			return email.trim().toLowerCase(Locale.ROOT);
+		}
+
+		RowResultDto result() {
+			return created
+					? new RowResultDto(index, email, RowResultDto.Outcome.CREATED, user.getUserId(), null)
+					: new RowResultDto(index, email, RowResultDto.Outcome.REJECTED, null, error);
+		}
+	}
+}
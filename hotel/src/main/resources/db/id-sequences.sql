@@ -0,0 +1,32 @@
+-- Keeps the pooled id generators (id_sequences, allocationSize 50) ahead of the existing rows.
+-- Runs on every startup after Hibernate has updated the schema; only ever moves next_val up.
+
+insert into id_sequences (sequence_name, next_val) select 'bookings', 1 from dual
+	where not exists (select 1 from id_sequences where sequence_name = 'bookings');
+update id_sequences set next_val = greatest(next_val, (select coalesce(max(booking_id), 0) + 50 from bookings))
+	where sequence_name = 'bookings';
+
+insert into id_sequences (sequence_name, next_val) select 'payments', 1 from dual
+	where not exists (select 1 from id_sequences where sequence_name = 'payments');
+update id_sequences set next_val = greatest(next_val, (select coalesce(max(payment_id), 0) + 50 from payments))
+	where sequence_name = 'payments';
+
+insert into id_sequences (sequence_name, next_val) select 'rooms', 1 from dual
+	where not exists (select 1 from id_sequences where sequence_name = 'rooms');
+update id_sequences set next_val = greatest(next_val, (select coalesce(max(room_id), 0) + 50 from rooms))
+	where sequence_name = 'rooms';
+
+insert into id_sequences (sequence_name, next_val) select 'users', 1 from dual
+	where not exists (select 1 from id_sequences where sequence_name = 'users');
+update id_sequences set next_val = greatest(next_val, (select coalesce(max(user_id), 0) + 50 from users))
+	where sequence_name = 'users';
+
+insert into id_sequences (sequence_name, next_val) select 'reviews', 1 from dual
+	where not exists (select 1 from id_sequences where sequence_name = 'reviews');
+update id_sequences set next_val = greatest(next_val, (select coalesce(max(review_id), 0) + 50 from reviews))
+	where sequence_name = 'reviews';
+
+insert into id_sequences (sequence_name, next_val) select 'payment_orders', 1 from dual
+	where not exists (select 1 from id_sequences where sequence_name = 'payment_orders');
+update id_sequences set next_val = greatest(next_val, (select coalesce(max(payment_order_id), 0) + 50 from payment_orders))
+	where sequence_name = 'payment_orders';
@@ -0,0 +1,40 @@
+package com.hotel;
+
+import com.hotel.entities.Category;
+import com.hotel.entities.Role;
+import com.hotel.entities.Room;
+import com.hotel.entities.Status;
+import com.hotel.entities.User;
+
+//UNSAVED ENTITIES WITH EVERY REQUIRED COLUMN FILLED - PERSIST THEM WITH TestEntityManager OR A DAO
+public final class Fixtures {
+
+	private Fixtures() {
+	}
+
+	public static User user(String email) {
+		User user = new User();
+		user.setFirstName("Guest");
+		user.setLastName("Test");
+		user.setEmail(email);
+		user.setPhone("9999999999");
+		user.setGender("OTHER");
+		user.setRole(Role.CUSTOMER);
+		return user;
+	}
+
+	//a 2 person DELUXE room at 1500 a night
+	public static Room room(String roomNumber) {
+		return room(roomNumber, Category.DELUXE, 1500, Status.AVAILABLE);
+	}
+
+	public static Room room(String roomNumber, Category category, double price, Status status) {
+		Room room = new Room();
+		room.setRoomNumber(roomNumber);
+		room.setOccupancy("2");
+		room.setCategory(category);
+		room.setPrice(price);
+		room.setStatus(status);
+		return room;
+	}
+}
@@ -0,0 +1,141 @@
+package com.hotel;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.dao.RoomDao;
+import com.hotel.dao.UserDao;
+import com.hotel.entities.Room;
+import com.hotel.entities.User;
+
+/*
+ * Platform vs virtual request threads under load: throughput and latency
+ * percentiles (SampleTime reports p99) for GET /customer/rooms and POST /auth/login
+ * against the whole app on a random port, once per spring.threads.virtual.enabled.
+ * Runs on in-memory H2 (MySQL mode) instead of MySQL, so absolute numbers are
+ * optimistic - compare the two modes with each other. 64 client threads keep more
+ * requests in flight than the Hikari pool has connections.
+ * Not a test (surefire skips it) - run main() from the IDE, or
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.hotel.RequestLoadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+public class RequestLoadBenchmark {
+
+	private static final String EMAIL = "load@test.com";
+	private static final String PASSWORD = "Load@1234";
+
+	@Param({ "false", "true" })
+	private boolean virtualThreads;
+
+	private ServletWebServerApplicationContext context;
+	private HttpClient client;
+	private String baseUrl;
+	private String bearer;
+	private String loginBody;
+
+	@Setup
+	public void setUp() throws Exception {
+		context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(Application.class)
+				.properties(
+						"server.port=0",
+						"spring.threads.virtual.enabled=" + virtualThreads,
+						"spring.datasource.url=jdbc:h2:mem:load;MODE=MySQL;DB_CLOSE_DELAY=-1",
+						"spring.datasource.driver-class-name=org.h2.Driver",
+						"spring.datasource.username=sa",
+						"spring.datasource.password=",
+						"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+						"spring.jpa.hibernate.ddl-auto=create-drop",
+						"spring.jpa.show-sql=false",
+						"app.quote.secret=load-test",
+						//fresh schema - the pooled id generators create their own rows
+						"spring.sql.init.mode=never",
+						//a realistic login cost without making each iteration minutes long
+						"auth.password.bcrypt-strength=10")
+				.run();
+		seed();
+		baseUrl = "http://localhost:" + context.getWebServer().getPort();
+		client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		loginBody = "{\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}";
+		String token = new ObjectMapper().readTree(send(loginRequest()).body()).get("token").asText();
+		bearer = "Bearer " + token;
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int rooms() throws Exception {
+		return send(HttpRequest.newBuilder(URI.create(baseUrl + "/customer/rooms"))
+				.header("Authorization", bearer)
+				.GET().build()).statusCode();
+	}
+
+	@Benchmark
+	public int login() throws Exception {
+		return send(loginRequest()).statusCode();
+	}
+
+	private HttpRequest loginRequest() {
+		return HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(loginBody)).build();
+	}
+
+	private HttpResponse<String> send(HttpRequest request) throws Exception {
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		//a 503 from the admission filter would make the virtual mode look fast
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException(request.uri() + " answered " + response.statusCode());
+		}
+		return response;
+	}
+
+	private void seed() {
+		User user = Fixtures.user(EMAIL);
+		user.setPassword(context.getBean(PasswordEncoder.class).encode(PASSWORD));
+		context.getBean(UserDao.class).save(user);
+		List<Room> rooms = new ArrayList<>();
+		for (int i = 1; i <= 200; i++) {
+			rooms.add(Fixtures.room(String.valueOf(100 + i)));
+		}
+		context.getBean(RoomDao.class).saveAll(rooms);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(RequestLoadBenchmark.class.getSimpleName()).build()).run();
+	}
+}
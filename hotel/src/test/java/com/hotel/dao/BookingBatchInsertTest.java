@@ -0,0 +1,81 @@
+package com.hotel.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.hotel.Fixtures;
+import com.hotel.entities.Booking;
+import com.hotel.entities.BookingStatus;
+import com.hotel.entities.Room;
+import com.hotel.entities.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Bookings with pooled ids + JDBC batching go out as one INSERT per batch.
+ * Runs 2 000 rows by default; -Dbenchmark.bookings=100000 for the full run.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+class BookingBatchInsertTest {
+
+	private static final int CHUNK = 1000;
+	private static final int BATCH_SIZE = 50;
+
+	@Autowired
+	private BookingDao bookingDao;
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Test
+	void bookingInsertsAreBatched() {
+		int total = Integer.getInteger("benchmark.bookings", 2000);
+		User user = em.persist(Fixtures.user("bulk@test.com"));
+		Room room = em.persist(Fixtures.room("B-1"));
+		em.flush();
+		em.clear();
+
+		Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+		for (int done = 0; done < total; done += CHUNK) {
+			List<Booking> chunk = new ArrayList<>(CHUNK);
+			for (int i = done; i < Math.min(total, done + CHUNK); i++) {
+				chunk.add(booking(user, room, i));
+			}
+			bookingDao.saveAll(chunk);
+			em.flush();
+			em.clear();
+		}
+		long batches = (total + BATCH_SIZE - 1) / BATCH_SIZE;
+
+		assertThat(stats.getEntityInsertCount()).isEqualTo(total);
+		//per batch of 50: one INSERT, plus at most a select + update fetching the next block of 50 ids
+		assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(3 * batches + 2);
+		assertThat(bookingDao.count()).isEqualTo(total);
+	}
+
+	private Booking booking(User user, Room room, int i) {
+		Booking booking = new Booking();
+		booking.setUser(em.getEntityManager().getReference(User.class, user.getUserId()));
+		booking.setRoom(em.getEntityManager().getReference(Room.class, room.getRoomId()));
+		booking.setCheckInDate(LocalDate.now().plusDays(i));
+		booking.setCheckOutDate(LocalDate.now().plusDays(i + 1));
+		booking.setBookingStatus(BookingStatus.BOOKED);
+		return booking;
+	}
+}
@@ -0,0 +1,124 @@
+package com.hotel.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.hotel.Fixtures;
+import com.hotel.dto.BookingRespDto;
+import com.hotel.entities.Booking;
+import com.hotel.entities.BookingStatus;
+import com.hotel.entities.Method;
+import com.hotel.entities.Payment;
+import com.hotel.entities.Room;
+import com.hotel.entities.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+class BookingDaoTest {
+
+	@Autowired
+	private BookingDao bookingDao;
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	private Statistics stats;
+
+	@BeforeEach
+	void setUp() {
+		stats = emf.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void bookingListIsOneStatementWhateverTheSize() {
+		User few = persistUserWithBookings("few@test.com", 1);
+		User many = persistUserWithBookings("many@test.com", 25);
+
+		assertThat(statementsFor(few)).isEqualTo(1);
+		assertThat(statementsFor(many)).isEqualTo(1);
+	}
+
+	@Test
+	void projectionCarriesRoomUserAndPayment() {
+		User user = persistUserWithBookings("flat@test.com", 2);
+
+		List<BookingRespDto> rows = bookingDao.findBookingRespByUserId(user.getUserId());
+
+		assertThat(rows).hasSize(2);
+		//even bookings get a payment, odd ones don't
+		assertThat(rows.get(0).getPaymentId()).isNotNull();
+		assertThat(rows.get(0).getAmount()).isEqualTo(1500.0);
+		assertThat(rows.get(1).getPaymentId()).isNull();
+		assertThat(rows).allSatisfy(row -> {
+			assertThat(row.getRoomId()).isNotNull();
+			assertThat(row.getUserId()).isEqualTo(user.getUserId());
+			assertThat(row.getUserName()).isEqualTo("Guest");
+		});
+	}
+
+	@Test
+	void overlapIsHalfOpenAndIgnoresCancelledStays() {
+		persistUserWithBookings("overlap@test.com", 1);
+		Long roomId = bookingDao.findAll().get(0).getRoom().getRoomId();
+		List<BookingStatus> holding = List.of(BookingStatus.BOOKED, BookingStatus.CONFIRMED);
+		LocalDate in = LocalDate.now().plusDays(1);
+
+		assertThat(bookingDao.existsOverlapping(roomId, holding, in.minusDays(3), in.plusDays(5))).isTrue();
+		//checking out the morning the stay starts, or in the morning it ends, is no clash
+		assertThat(bookingDao.existsOverlapping(roomId, holding, in.minusDays(1), in)).isFalse();
+		assertThat(bookingDao.existsOverlapping(roomId, holding, in.plusDays(1), in.plusDays(2))).isFalse();
+		assertThat(bookingDao.existsOverlapping(roomId, List.of(BookingStatus.CANCELLED), in, in.plusDays(1))).isFalse();
+		assertThat(bookingDao.findOverlappingRoomIds(List.of(roomId, -1L), holding, in, in.plusDays(1)))
+				.containsExactly(roomId);
+	}
+
+	private long statementsFor(User user) {
+		em.clear();
+		stats.clear();
+		List<BookingRespDto> rows = bookingDao.findBookingRespByUserId(user.getUserId());
+		assertThat(rows).isNotEmpty();
+		return stats.getPrepareStatementCount();
+	}
+
+	private User persistUserWithBookings(String email, int count) {
+		User user = em.persist(Fixtures.user(email));
+
+		for (int i = 0; i < count; i++) {
+			Room room = em.persist(Fixtures.room(email + "-" + i));
+
+			Booking booking = new Booking();
+			booking.setUser(user);
+			booking.setRoom(room);
+			booking.setCheckInDate(LocalDate.now().plusDays(i + 1));
+			booking.setCheckOutDate(LocalDate.now().plusDays(i + 2));
+			booking.setBookingStatus(BookingStatus.CONFIRMED);
+			em.persist(booking);
+
+			if (i % 2 == 0) {
+				Payment payment = new Payment();
+				payment.setAmount(1500);
+				payment.setMethod(Method.UPI);
+				payment.setBooking(booking);
+				em.persist(payment);
+			}
+		}
+		em.flush();
+		return user;
+	}
+}
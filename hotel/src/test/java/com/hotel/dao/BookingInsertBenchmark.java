@@ -0,0 +1,173 @@
+package com.hotel.dao;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * Time to insert `rows` bookings (default 100 000) with the statements Hibernate
+ * issues for each id strategy:
+ *  - identity: IDENTITY ids, which turn JDBC batching off - one INSERT and one
+ *    generated-key read per row (the mapping Booking had before)
+ *  - pooledTable: the pooled TABLE generator (id_sequences, allocationSize 50) -
+ *    one select + update reserves 50 ids, then the 50 rows go out as one batch
+ * Each run commits every 1 000 rows, like BookingBatchInsertTest's chunks;
+ * that test checks the statement counts, this measures the time.
+ * In-memory H2 by default - pass -Dbenchmark.url=jdbc:mysql://...&rewriteBatchedStatements=true
+ * (plus -Dbenchmark.user / -Dbenchmark.password) for numbers that include the network round trips.
+ * Not a test (surefire skips it) - run main() from the IDE, or
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.hotel.dao.BookingInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BookingInsertBenchmark {
+
+	private static final int CHUNK = 1000;
+	private static final int BATCH_SIZE = 50;
+
+	@Param({ "100000" })
+	private int rows;
+
+	private Connection connection;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		connection = DriverManager.getConnection(
+				System.getProperty("benchmark.url", "jdbc:h2:mem:inserts;MODE=MySQL;DB_CLOSE_DELAY=-1"),
+				System.getProperty("benchmark.user", "sa"), System.getProperty("benchmark.password", ""));
+		connection.setAutoCommit(false);
+		try (Statement ddl = connection.createStatement()) {
+			ddl.execute("create table if not exists bench_identity_bookings (booking_id bigint auto_increment primary key, "
+					+ "booking_status varchar(20), check_in_date date, check_out_date date, room_id bigint, user_id bigint)");
+			ddl.execute("create table if not exists bench_pooled_bookings (booking_id bigint primary key, "
+					+ "booking_status varchar(20), check_in_date date, check_out_date date, room_id bigint, user_id bigint)");
+			ddl.execute("create table if not exists bench_id_sequences (sequence_name varchar(255) primary key, "
+					+ "next_val bigint)");
+		}
+		connection.commit();
+	}
+
+	//EVERY MEASURED RUN STARTS FROM EMPTY TABLES
+	@Setup(Level.Iteration)
+	public void truncate() throws SQLException {
+		try (Statement ddl = connection.createStatement()) {
+			ddl.execute("delete from bench_identity_bookings");
+			ddl.execute("delete from bench_pooled_bookings");
+			ddl.execute("delete from bench_id_sequences");
+			ddl.execute("insert into bench_id_sequences values ('bookings', 1)");
+		}
+		connection.commit();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		try (Statement ddl = connection.createStatement()) {
+			ddl.execute("drop table bench_identity_bookings");
+			ddl.execute("drop table bench_pooled_bookings");
+			ddl.execute("drop table bench_id_sequences");
+		}
+		connection.commit();
+		connection.close();
+	}
+
+	@Benchmark
+	public long identity() throws SQLException {
+		long lastId = 0;
+		try (PreparedStatement insert = connection.prepareStatement("insert into bench_identity_bookings "
+				+ "(booking_status, check_in_date, check_out_date, room_id, user_id) values (?, ?, ?, ?, ?)",
+				Statement.RETURN_GENERATED_KEYS)) {
+			for (int i = 0; i < rows; i++) {
+				bind(insert, 1, i);
+				insert.executeUpdate();
+				try (ResultSet keys = insert.getGeneratedKeys()) {
+					keys.next();
+					lastId = keys.getLong(1);
+				}
+				if ((i + 1) % CHUNK == 0) {
+					connection.commit();
+				}
+			}
+		}
+		connection.commit();
+		return lastId;
+	}
+
+	@Benchmark
+	public long pooledTable() throws SQLException {
+		long nextId = 0;
+		long blockEnd = 0;
+		try (PreparedStatement select = connection.prepareStatement(
+				"select next_val from bench_id_sequences where sequence_name = 'bookings' for update");
+				PreparedStatement update = connection.prepareStatement(
+						"update bench_id_sequences set next_val = ? where sequence_name = 'bookings' and next_val = ?");
+				PreparedStatement insert = connection.prepareStatement("insert into bench_pooled_bookings "
+						+ "(booking_id, booking_status, check_in_date, check_out_date, room_id, user_id) "
+						+ "values (?, ?, ?, ?, ?, ?)")) {
+			for (int i = 0; i < rows; i++) {
+				if (nextId == blockEnd) {
+					//next block of 50 ids
+					try (ResultSet rs = select.executeQuery()) {
+						rs.next();
+						nextId = rs.getLong(1);
+					}
+					blockEnd = nextId + BATCH_SIZE;
+					update.setLong(1, blockEnd);
+					update.setLong(2, nextId);
+					update.executeUpdate();
+				}
+				insert.setLong(1, nextId++);
+				bind(insert, 2, i);
+				insert.addBatch();
+				if ((i + 1) % BATCH_SIZE == 0) {
+					insert.executeBatch();
+				}
+				if ((i + 1) % CHUNK == 0) {
+					connection.commit();
+				}
+			}
+			insert.executeBatch();
+		}
+		connection.commit();
+		return nextId;
+	}
+
+	private static void bind(PreparedStatement insert, int from, int i) throws SQLException {
+		LocalDate checkIn = LocalDate.now().plusDays(i % 700);
+		insert.setString(from, "BOOKED");
+		insert.setDate(from + 1, Date.valueOf(checkIn));
+		insert.setDate(from + 2, Date.valueOf(checkIn.plusDays(1)));
+		insert.setLong(from + 3, 1 + i % 200);
+		insert.setLong(from + 4, 1 + i % 5000);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(BookingInsertBenchmark.class.getSimpleName()).build()).run();
+	}
+}
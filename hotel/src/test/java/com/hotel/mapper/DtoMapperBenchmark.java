@@ -0,0 +1,150 @@
+package com.hotel.mapper;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.Conditions;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.hotel.dto.BookingRespDto;
+import com.hotel.dto.ReviewRespDto;
+import com.hotel.dto.RoomRespDto;
+import com.hotel.entities.Booking;
+import com.hotel.entities.BookingStatus;
+import com.hotel.entities.Category;
+import com.hotel.entities.Method;
+import com.hotel.entities.Payment;
+import com.hotel.entities.Review;
+import com.hotel.entities.Role;
+import com.hotel.entities.Room;
+import com.hotel.entities.Status;
+import com.hotel.entities.User;
+
+/*
+ * Response mapping throughput: DtoMapper against the ModelMapper path it replaced
+ * (configured as in Application.modelMapper(), plus the fields the services used
+ * to patch in by hand after each map()).
+ * Not a test (surefire skips it) - run main() from the IDE, or
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.hotel.mapper.DtoMapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class DtoMapperBenchmark {
+
+	private ModelMapper modelMapper;
+	private DtoMapper dtoMapper;
+	private Room room;
+	private Review review;
+	private Booking booking;
+
+	@Setup
+	public void setUp() {
+		modelMapper = new ModelMapper();
+		modelMapper.getConfiguration()
+				.setMatchingStrategy(MatchingStrategies.STRICT)
+				.setPropertyCondition(Conditions.isNotNull());
+		dtoMapper = new DtoMapper();
+
+		User user = new User();
+		user.setUserId(7L);
+		user.setFirstName("Guest");
+		user.setLastName("Test");
+		user.setEmail("guest@test.com");
+		user.setPhone("9999999999");
+		user.setRole(Role.CUSTOMER);
+
+		room = new Room();
+		room.setRoomId(11L);
+		room.setRoomNumber("101");
+		room.setOccupancy("2");
+		room.setCategory(Category.DELUXE);
+		room.setPrice(1500);
+		room.setStatus(Status.AVAILABLE);
+
+		review = new Review();
+		review.setReviewId(3L);
+		review.setRating(4);
+		review.setComment("Quiet room");
+		review.setUser(user);
+
+		booking = new Booking();
+		booking.setBookingId(5L);
+		booking.setUser(user);
+		booking.setRoom(room);
+		booking.setCheckInDate(LocalDate.now().plusDays(1));
+		booking.setCheckOutDate(LocalDate.now().plusDays(3));
+		booking.setBookingStatus(BookingStatus.CONFIRMED);
+		Payment payment = new Payment();
+		payment.setPaymentId(9L);
+		payment.setAmount(3000);
+		payment.setMethod(Method.UPI);
+		payment.setBooking(booking);
+		booking.setPayment(payment);
+	}
+
+	@Benchmark
+	public RoomRespDto roomModelMapper() {
+		return modelMapper.map(room, RoomRespDto.class);
+	}
+
+	@Benchmark
+	public RoomRespDto roomDtoMapper() {
+		return dtoMapper.toRoomResp(room);
+	}
+
+	@Benchmark
+	public ReviewRespDto reviewModelMapper() {
+		ReviewRespDto dto = modelMapper.map(review, ReviewRespDto.class);
+		dto.setUserId(review.getUser().getUserId());
+		dto.setUserName(review.getUser().getFirstName());
+		return dto;
+	}
+
+	@Benchmark
+	public ReviewRespDto reviewDtoMapper() {
+		return dtoMapper.toReviewResp(review);
+	}
+
+	@Benchmark
+	public BookingRespDto bookingModelMapper() {
+		BookingRespDto dto = modelMapper.map(booking, BookingRespDto.class);
+		dto.setRoomId(booking.getRoom().getRoomId());
+		dto.setUserId(booking.getUser().getUserId());
+		dto.setUserName(booking.getUser().getFirstName());
+		Payment payment = booking.getPayment();
+		dto.setPaymentId(payment.getPaymentId());
+		dto.setAmount(payment.getAmount());
+		dto.setPaymentStatus(payment.getPaymentStatus());
+		dto.setPaymentDate(payment.getPaymentDate());
+		return dto;
+	}
+
+	@Benchmark
+	public BookingRespDto bookingDtoMapper() {
+		return dtoMapper.toBookingResp(booking);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DtoMapperBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,49 @@
+package com.hotel.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.hotel.dto.UpdateUserDto;
+import com.hotel.dto.UserRespDto;
+import com.hotel.entities.Role;
+import com.hotel.entities.User;
+
+class DtoMapperTest {
+
+	private final DtoMapper mapper = new DtoMapper();
+
+	@Test
+	void updateUserSkipsNullFields() {
+		User user = user();
+		UpdateUserDto dto = new UpdateUserDto();
+		dto.setPhone("8888888888");
+
+		mapper.updateUser(dto, user);
+
+		assertThat(user.getFirstName()).isEqualTo("Guest");
+		assertThat(user.getLastName()).isEqualTo("Test");
+		assertThat(user.getPhone()).isEqualTo("8888888888");
+	}
+
+	@Test
+	void userRespNeverCarriesThePasswordHash() {
+		UserRespDto dto = mapper.toUserResp(user());
+
+		assertThat(dto.getEmail()).isEqualTo("guest@test.com");
+		assertThat(dto.getRole()).isEqualTo(Role.CUSTOMER);
+		assertThat(dto.getPassword()).isNull();
+	}
+
+	private User user() {
+		User user = new User();
+		user.setUserId(7L);
+		user.setFirstName("Guest");
+		user.setLastName("Test");
+		user.setEmail("guest@test.com");
+		user.setPassword("{bcrypt}hash");
+		user.setPhone("9999999999");
+		user.setRole(Role.CUSTOMER);
+		return user;
+	}
+}
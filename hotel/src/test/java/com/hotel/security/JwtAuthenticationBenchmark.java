@@ -0,0 +1,128 @@
+package com.hotel.security;
+
+import java.security.Key;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.hotel.entities.Role;
+import com.hotel.entities.User;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/*
+ * Authenticated requests/sec through the JWT filter: the old path (three token
+ * parses, signing key rebuilt for each, user loaded per request) against the
+ * current one (one parse with the cached key, principal from the signed claims).
+ * db-micros stands in for the old per-request MySQL round trip.
+ * Not a test (surefire skips it) - run main() from the IDE, or
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.hotel.security.JwtAuthenticationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtAuthenticationBenchmark {
+
+	//same secret as JwtService
+	private static final String SECRET_KEY = "9a$Bv8!k@7T#qZzP1Xo3^yLr6U&nFsE@RgHsKt4M%JzWn8A&fLp";
+
+	@Param({ "0", "250" })
+	private long dbMicros;
+
+	private JwtAuthenticationFilter filter;
+	private String header;
+	private UserDetails stored;
+
+	@Setup
+	public void setUp() {
+		JwtService jwtService = new JwtService();
+		//role claim present - the user details service is never asked
+		filter = new JwtAuthenticationFilter(jwtService, null);
+		User user = new User();
+		user.setUserId(7L);
+		user.setEmail("guest@test.com");
+		user.setRole(Role.CUSTOMER);
+		header = "Bearer " + jwtService.generateToken(user);
+		stored = new JwtUser(7L, "guest@test.com", List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+	}
+
+	@Benchmark
+	public Authentication current() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Authorization", header);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return takeAuthentication();
+	}
+
+	@Benchmark
+	public Authentication legacy() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Authorization", header);
+		String authHeader = request.getHeader("Authorization");
+		String jwt = authHeader.substring(7);
+		String email = legacyClaims(jwt).getSubject();
+		UserDetails userDetails = loadUser(email);
+		//validateToken: subject and expiry, one parse each
+		if (legacyClaims(jwt).getSubject().equals(userDetails.getUsername())
+				&& legacyClaims(jwt).getExpiration().getTime() > System.currentTimeMillis()) {
+			SecurityContextHolder.getContext().setAuthentication(
+					new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+		}
+		return takeAuthentication();
+	}
+
+	private static Claims legacyClaims(String token) {
+		byte[] keyBytes = Decoders.BASE64.decode(Base64.getEncoder().encodeToString(SECRET_KEY.getBytes()));
+		Key key = Keys.hmacShaKeyFor(keyBytes);
+		return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+	}
+
+	private UserDetails loadUser(String email) {
+		if (dbMicros > 0) {
+			LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(dbMicros));
+		}
+		return stored;
+	}
+
+	private static Authentication takeAuthentication() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		SecurityContextHolder.clearContext();
+		return authentication;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(JwtAuthenticationBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,44 @@
+package com.hotel.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserDetailsCacheTest {
+
+	private static final String EMAIL = "cache@test.com";
+
+	@Test
+	void loadRacingAnEvictIsNotCached() {
+		UserDetailsCache cache = new UserDetailsCache(10, 300, new SimpleMeterRegistry());
+		AtomicInteger loads = new AtomicInteger();
+
+		//the row changes (and is evicted) while the old one is being loaded
+		cache.get(EMAIL, email -> {
+			loads.incrementAndGet();
+			cache.evict(email);
+			return details("old-hash");
+		});
+		assertThat(cache.size()).isZero();
+
+		UserDetails reloaded = cache.get(EMAIL, email -> {
+			loads.incrementAndGet();
+			return details("new-hash");
+		});
+		assertThat(reloaded.getPassword()).isEqualTo("new-hash");
+		assertThat(loads).hasValue(2);
+
+		//an undisturbed load is cached as before
+		assertThat(cache.get(EMAIL, email -> details("unused")).getPassword()).isEqualTo("new-hash");
+	}
+
+	private static UserDetails details(String password) {
+		return User.withUsername(EMAIL).password(password).roles("CUSTOMER").build();
+	}
+}
@@ -0,0 +1,184 @@
+package com.hotel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.Fixtures;
+import com.hotel.custom_exception.ApiException;
+import com.hotel.dao.BookingDao;
+import com.hotel.dao.PaymentDao;
+import com.hotel.dao.ReviewDao;
+import com.hotel.dao.RoomDao;
+import com.hotel.dao.UserDao;
+import com.hotel.dto.BookingReqDto;
+import com.hotel.entities.BookingStatus;
+import com.hotel.entities.Room;
+import com.hotel.entities.User;
+import com.hotel.mapper.DtoMapper;
+import com.hotel.security.CustomUserDetailsService;
+
+/*
+ * Bookings commit for real here (no test transaction), against H2.
+ * Two "nodes" share the database but each has its own availability index and
+ * admission locks, as two app instances would.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingAdmissionTest {
+
+	private static final int REQUESTS = 16;
+
+	@Autowired
+	private UserDao userDao;
+
+	@Autowired
+	private RoomDao roomDao;
+
+	@Autowired
+	private BookingDao bookingDao;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	private BookingAdmission admission;
+	private User user;
+	private Room room;
+
+	@BeforeEach
+	void setUp() {
+		admission = new BookingAdmission(new TransactionTemplate(txManager));
+		user = userDao.save(Fixtures.user("race@test.com"));
+		room = roomDao.save(Fixtures.room("R-1"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		bookingDao.deleteAll();
+		roomDao.deleteAll();
+		userDao.deleteAll();
+	}
+
+	@Test
+	void concurrentBookingsOnTwoNodesLeaveExactlyOneRow() throws Exception {
+		CustomerService[] nodes = { node(), node() };
+		LocalDate in = LocalDate.now().plusDays(3);
+
+		ExecutorService pool = Executors.newFixedThreadPool(REQUESTS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> results = new ArrayList<>();
+		for (int i = 0; i < REQUESTS; i++) {
+			CustomerService node = nodes[i % nodes.length];
+			BookingReqDto dto = booking(in);
+			results.add(pool.submit(() -> {
+				start.await();
+				return node.createBooking(dto);
+			}));
+		}
+		start.countDown();
+		int accepted = 0;
+		for (Future<?> result : results) {
+			try {
+				result.get(30, TimeUnit.SECONDS);
+				accepted++;
+			} catch (ExecutionException e) {
+				assertThat(e.getCause()).isInstanceOf(ApiException.class);
+			}
+		}
+		pool.shutdown();
+
+		assertThat(accepted).isEqualTo(1);
+		assertThat(bookingDao.count()).isEqualTo(1);
+	}
+
+	@Test
+	void cancellationOnAnotherNodeDoesNotBlockThisOne() {
+		CustomerService node = node();
+		LocalDate in = LocalDate.now().plusDays(3);
+		Long first = node.createBooking(booking(in)).getBookingId();
+		assertThatThrownBy(() -> node.createBooking(booking(in))).isInstanceOf(ApiException.class);
+
+		//cancelled elsewhere - this node's bits still say booked
+		new TransactionTemplate(txManager).executeWithoutResult(status -> bookingDao.updateStatusByIdIn(
+				List.of(first), RoomAvailabilityIndex.HOLDING_STATUSES, BookingStatus.CANCELLED));
+
+		node.createBooking(booking(in));
+		assertThat(bookingDao.count()).isEqualTo(2);
+	}
+
+	private BookingReqDto booking(LocalDate in) {
+		BookingReqDto dto = new BookingReqDto();
+		dto.setUserId(user.getUserId());
+		dto.setRoomId(room.getRoomId());
+		dto.setCheckInDate(in);
+		dto.setCheckOutDate(in.plusDays(2));
+		return dto;
+	}
+
+	//ONE APP INSTANCE: OWN INDEX AND LOCKS, SHARED DATABASE
+	private CustomerService node() {
+		return new CustomerServiceImpl(mock(PasswordEncoder.class), userDao, mock(ModelMapper.class), new DtoMapper(),
+				mock(ReviewDao.class), bookingDao, roomDao, mock(PaymentDao.class), new RoomAvailabilityIndex(bookingDao),
+				new BookingAdmission(new TransactionTemplate(txManager)), mock(BookingCompletionJob.class),
+				mock(RoomCache.class), mock(PaymentIntake.class), mock(PaymentServiceImpl.class),
+				mock(PricingEngine.class), mock(QuoteService.class), new StayPolicy(365, 730),
+				mock(ApplicationEventPublisher.class), mock(RoomCatalog.class), mock(CustomUserDetailsService.class),
+				mock(JdbcExporter.class));
+	}
+
+	@Test
+	void overlappingBlocksInOppositeOrderDoNotDeadlock() throws Exception {
+		List<Long> up = List.of(1L, 2L, 3L, 70L, 71L);
+		List<Long> down = List.of(71L, 70L, 3L, 2L, 1L);
+		AtomicInteger inBlock = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			List<Long> rooms = i % 2 == 0 ? up : down;
+			results.add(pool.submit(() -> admission.admitAll(rooms, () -> {
+				//overlapping blocks must be admitted one at a time
+				assertThat(inBlock.incrementAndGet()).isEqualTo(1);
+				LockSupport.parkNanos(50_000);
+				inBlock.decrementAndGet();
+				return rooms.size();
+			})));
+		}
+		for (Future<Integer> result : results) {
+			assertThat(result.get(30, TimeUnit.SECONDS)).isEqualTo(5);
+		}
+		pool.shutdown();
+		//every stripe was released again
+		assertThat(admission.stripeFor(1L).isLocked()).isFalse();
+		assertThat(admission.stripeFor(71L).isLocked()).isFalse();
+	}
+
+	@Test
+	void sameRoomAlwaysMapsToSameStripe() {
+		assertThat(admission.stripeFor(42L)).isSameAs(admission.stripeFor(42L));
+	}
+}
@@ -0,0 +1,76 @@
+package com.hotel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.hotel.Fixtures;
+import com.hotel.dto.CompletionRespDto;
+import com.hotel.entities.Booking;
+import com.hotel.entities.BookingStatus;
+import com.hotel.entities.Category;
+import com.hotel.entities.Room;
+import com.hotel.entities.Status;
+import com.hotel.entities.User;
+
+@DataJpaTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"app.completion.chunk-size=2" })
+@Import({ BookingCompletionJob.class, JobLeaseManager.class })
+class BookingCompletionJobTest {
+
+	@Autowired
+	private BookingCompletionJob job;
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Test
+	void completesExpiredBookingsInChunksAndLeavesCancelledOnesAlone() {
+		User user = em.persist(Fixtures.user("guest@test.com"));
+		LocalDate today = LocalDate.now();
+		Long[] expired = new Long[5];
+		for (int i = 0; i < expired.length; i++) {
+			expired[i] = persistBooking(user, "E" + i, today.minusDays(3), today.minusDays(1), BookingStatus.CONFIRMED);
+		}
+		Long cancelled = persistBooking(user, "C", today.minusDays(3), today.minusDays(1), BookingStatus.CANCELLED);
+		Long current = persistBooking(user, "A", today.minusDays(1), today.plusDays(1), BookingStatus.BOOKED);
+		em.flush();
+		em.clear();
+
+		CompletionRespDto result = job.run();
+		em.clear();
+
+		assertThat(result.getBookingsCompleted()).isEqualTo(5);
+		assertThat(result.getRoomsReleased()).isEqualTo(5);
+		assertThat(result.getChunks()).isEqualTo(3);
+		for (Long id : expired) {
+			assertThat(em.find(Booking.class, id).getBookingStatus()).isEqualTo(BookingStatus.COMPLETED);
+			assertThat(em.find(Booking.class, id).getRoom().getStatus()).isEqualTo(Status.AVAILABLE);
+		}
+		assertThat(em.find(Booking.class, cancelled).getBookingStatus()).isEqualTo(BookingStatus.CANCELLED);
+		assertThat(em.find(Booking.class, cancelled).getRoom().getStatus()).isEqualTo(Status.NOT_AVAILABLE);
+		assertThat(em.find(Booking.class, current).getBookingStatus()).isEqualTo(BookingStatus.BOOKED);
+
+		//second run has nothing left to do
+		assertThat(job.run().getBookingsCompleted()).isZero();
+	}
+
+	private Long persistBooking(User user, String roomNumber, LocalDate in, LocalDate out, BookingStatus status) {
+		Room room = em.persist(Fixtures.room(roomNumber, Category.DELUXE, 1500, Status.NOT_AVAILABLE));
+
+		Booking booking = new Booking();
+		booking.setUser(user);
+		booking.setRoom(room);
+		booking.setCheckInDate(in);
+		booking.setCheckOutDate(out);
+		booking.setBookingStatus(status);
+		return em.persist(booking).getBookingId();
+	}
+}
@@ -0,0 +1,146 @@
+package com.hotel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hotel.dao.JobLeaseDao;
+
+/*
+ * Several "nodes" (JobLeaseManagers with their own owner id) competing for
+ * the same lease row in an embedded database. Each DAO call commits on its own.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobLeaseManagerTest {
+
+	private static final int NODES = 4;
+
+	@Autowired
+	private JobLeaseDao jobLeaseDao;
+
+	private final List<JobLeaseManager> nodes = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		nodes.forEach(JobLeaseManager::shutdown);
+		jobLeaseDao.deleteAll();
+	}
+
+	@Test
+	void onlyOneNodeRunsTheJobAtATime() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		AtomicInteger runs = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(NODES);
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int n = 0; n < NODES; n++) {
+			JobLeaseManager node = node("node-" + n);
+			futures.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < 25; i++) {
+					try (JobLeaseManager.Lease lease = node.acquire("nightly", Duration.ofSeconds(30))) {
+						if (lease == null) {
+							continue;
+						}
+						int now = running.incrementAndGet();
+						maxRunning.accumulateAndGet(now, Math::max);
+						runs.incrementAndGet();
+						Thread.sleep(2);
+						running.decrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> f : futures) {
+			f.get(30, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertThat(runs.get()).isPositive();
+		assertThat(maxRunning.get()).isEqualTo(1);
+	}
+
+	@Test
+	void expiredLeaseIsTakenOverAndOldOwnerCannotRenew() throws Exception {
+		JobLeaseManager a = node("node-a");
+		JobLeaseManager b = node("node-b");
+
+		assertThat(a.tryAcquire("report", Duration.ofMillis(200))).isTrue();
+		assertThat(b.tryAcquire("report", Duration.ofMillis(200))).isFalse();
+
+		Thread.sleep(300);
+
+		assertThat(b.tryAcquire("report", Duration.ofSeconds(30))).isTrue();
+		assertThat(a.renew("report", Duration.ofSeconds(30))).isFalse();
+		assertThat(a.tryAcquire("report", Duration.ofSeconds(30))).isFalse();
+
+		b.release("report");
+		assertThat(a.tryAcquire("report", Duration.ofSeconds(30))).isTrue();
+	}
+
+	@Test
+	void heartbeatKeepsALongRunningLease() throws Exception {
+		JobLeaseManager a = node("node-a");
+		JobLeaseManager b = node("node-b");
+
+		try (JobLeaseManager.Lease lease = a.acquire("long", Duration.ofMillis(300))) {
+			assertThat(lease).isNotNull();
+			Thread.sleep(700);
+			assertThat(b.tryAcquire("long", Duration.ofSeconds(30))).isFalse();
+			assertThat(lease.isLost()).isFalse();
+		}
+		assertThat(b.tryAcquire("long", Duration.ofSeconds(30))).isTrue();
+	}
+
+	@Test
+	void takenOverLeaseIsReportedToTheRunningJobAndNotReleased() throws Exception {
+		JobLeaseManager a = node("node-a");
+		JobLeaseManager b = node("node-b");
+
+		try (JobLeaseManager.Lease lease = a.acquire("sweep", Duration.ofMillis(300))) {
+			assertThat(a.currentLeaseLost()).isFalse();
+			//node-a stalls (say a long GC pause) - holding the lease's monitor keeps its heartbeat out
+			//while the lease expires and node-b takes over
+			synchronized (lease) {
+				jobLeaseDao.release("sweep", "node-a");
+				assertThat(b.tryAcquire("sweep", Duration.ofSeconds(30))).isTrue();
+			}
+
+			//the next heartbeat finds the row taken
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (!lease.isLost() && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			assertThat(lease.isLost()).isTrue();
+			assertThat(a.currentLeaseLost()).isTrue();
+		}
+		assertThat(a.currentLeaseLost()).isFalse();
+		assertThat(a.tryAcquire("sweep", Duration.ofSeconds(30))).isFalse();
+	}
+
+	private JobLeaseManager node(String owner) {
+		JobLeaseManager node = new JobLeaseManager(jobLeaseDao, owner);
+		nodes.add(node);
+		return node;
+	}
+}
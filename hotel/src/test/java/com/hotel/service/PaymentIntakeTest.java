@@ -0,0 +1,132 @@
+package com.hotel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.custom_exception.ApiException;
+import com.hotel.dao.BookingDao;
+import com.hotel.dto.BookingRespDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PaymentIntakeTest {
+
+	private static final int BOOKINGS = 50;
+	private static final int RETRIES_PER_BOOKING = 40;
+
+	//"payments" table: idempotency key -> payment, unique on the key
+	private final Map<String, BookingRespDto> paymentsByKey = new ConcurrentHashMap<>();
+	private final AtomicInteger inserts = new AtomicInteger();
+	private final AtomicLong paymentIds = new AtomicLong();
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private PaymentIntake intake;
+
+	@BeforeEach
+	void setUp() {
+		BookingDao bookingDao = mock(BookingDao.class);
+		when(bookingDao.findBookingRespByIdempotencyKey(anyString()))
+				.thenAnswer(call -> Optional.ofNullable(paymentsByKey.get(call.getArgument(0, String.class))));
+		intake = new PaymentIntake(bookingDao, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+				registry);
+	}
+
+	@Test
+	void retryStormCreatesOnePaymentPerKey() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(64);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<BookingRespDto>> results = new ArrayList<>();
+		for (int i = 0; i < BOOKINGS * RETRIES_PER_BOOKING; i++) {
+			long bookingId = 1 + (i % BOOKINGS);
+			String key = "pay-" + bookingId;
+			results.add(pool.submit(() -> {
+				start.await();
+				return intake.pay(bookingId, key, () -> insert(bookingId, key));
+			}));
+		}
+		start.countDown();
+		Map<Long, Long> paymentOfBooking = new ConcurrentHashMap<>();
+		for (Future<BookingRespDto> result : results) {
+			BookingRespDto resp = result.get(30, TimeUnit.SECONDS);
+			//every retry sees the same payment
+			assertThat(paymentOfBooking.computeIfAbsent(resp.getBookingId(), id -> resp.getPaymentId()))
+					.isEqualTo(resp.getPaymentId());
+		}
+		pool.shutdown();
+
+		assertThat(inserts.get()).isEqualTo(BOOKINGS);
+		assertThat(paymentOfBooking).hasSize(BOOKINGS);
+		assertThat(count("created")).isEqualTo(BOOKINGS);
+		assertThat(count("created") + count("replayed") + count("collapsed"))
+				.isEqualTo(BOOKINGS * RETRIES_PER_BOOKING);
+	}
+
+	@Test
+	void duplicateCommittedOnAnotherNodeIsReplayed() {
+		BookingRespDto resp = intake.pay(7L, "k-7", () -> {
+			//another node inserted the same key while this one was validating
+			insert(7L, "k-7");
+			throw new DataIntegrityViolationException("Duplicate entry 'k-7' for key 'idempotency_key'");
+		});
+
+		assertThat(resp.getBookingId()).isEqualTo(7L);
+		assertThat(count("replayed")).isEqualTo(1);
+	}
+
+	@Test
+	void keyCannotBeReusedForAnotherBooking() {
+		intake.pay(1L, "shared", () -> insert(1L, "shared"));
+
+		assertThatThrownBy(() -> intake.pay(2L, "shared", () -> insert(2L, "shared")))
+				.isInstanceOf(ApiException.class)
+				.hasMessageContaining("another booking");
+		assertThat(inserts.get()).isEqualTo(1);
+	}
+
+	@Test
+	void withoutAKeyADuplicateIsABadRequest() {
+		assertThatThrownBy(() -> intake.pay(3L, null, () -> {
+			throw new DataIntegrityViolationException("Duplicate entry '3' for key 'booking_id'");
+		})).isInstanceOf(ApiException.class).hasMessage("Payment already exists for this booking");
+	}
+
+	private BookingRespDto insert(long bookingId, String key) {
+		//validation + insert take a moment - long enough for retries to pile up
+		LockSupport.parkNanos(1_000_000);
+		BookingRespDto resp = new BookingRespDto();
+		resp.setBookingId(bookingId);
+		resp.setPaymentId(paymentIds.incrementAndGet());
+		if (paymentsByKey.putIfAbsent(key, resp) != null) {
+			throw new DataIntegrityViolationException("Duplicate entry '" + key + "' for key 'idempotency_key'");
+		}
+		inserts.incrementAndGet();
+		return resp;
+	}
+
+	private double count(String result) {
+		return registry.get("payment.intake").tag("result", result).counter().count();
+	}
+}
@@ -0,0 +1,128 @@
+package com.hotel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.Fixtures;
+import com.hotel.dao.PaymentOrderDao;
+import com.hotel.dto.ReconciliationRespDto;
+import com.hotel.entities.Booking;
+import com.hotel.entities.BookingStatus;
+import com.hotel.entities.Category;
+import com.hotel.entities.LedgerMismatch;
+import com.hotel.entities.Method;
+import com.hotel.entities.OrderStatus;
+import com.hotel.entities.Payment;
+import com.hotel.entities.PaymentOrder;
+import com.hotel.entities.Room;
+import com.hotel.entities.Status;
+import com.hotel.entities.User;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class PaymentReconciliationJobTest {
+
+	@Autowired
+	private PaymentOrderDao orderDao;
+
+	@Autowired
+	private TransactionTemplate txTemplate;
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Test
+	void flagsLedgerMismatchesChunkByChunk() {
+		User user = em.persist(Fixtures.user("guest@test.com"));
+		LocalDateTime old = LocalDateTime.now().minusHours(2);
+		Long clean = persistOrder("o_clean", OrderStatus.PAID, 150_000, persistBooking(user, "A", 1500.0), old);
+		Long amount = persistOrder("o_amount", OrderStatus.PAID, 120_000, persistBooking(user, "B", 1500.0), old);
+		Long missing = persistOrder("o_missing", OrderStatus.PAID, 150_000, persistBooking(user, "C", null), old);
+		Long unpaid = persistOrder("o_unpaid", OrderStatus.FAILED, 150_000, persistBooking(user, "D", 1500.0), old);
+		Long unlinked = persistOrder("o_unlinked", OrderStatus.PAID, 150_000, null, old);
+		Long fresh = persistOrder("o_fresh", OrderStatus.PAID, 150_000, null, LocalDateTime.now());
+		Long stuck = persistOrder("o_stuck", OrderStatus.VERIFYING, 150_000, null, old);
+		Long expired = persistOrder("o_expired", OrderStatus.CREATED, 150_000, null, old);
+		em.flush();
+		em.clear();
+
+		PaymentVerificationPipeline pipeline = mock(PaymentVerificationPipeline.class);
+		PaymentReconciliationJob job = new PaymentReconciliationJob(orderDao, pipeline, txTemplate,
+				mock(JobLeaseManager.class), 3, 30, 10);
+		ReconciliationRespDto result = job.run();
+		em.clear();
+
+		assertThat(result.getOrdersChecked()).isEqualTo(8);
+		assertThat(result.getChunks()).isEqualTo(3);
+		assertThat(result.getFlagsChanged()).isEqualTo(5);
+		assertThat(result.getMismatches()).containsExactlyInAnyOrderEntriesOf(Map.of(
+				LedgerMismatch.AMOUNT_MISMATCH, 1, LedgerMismatch.MISSING_PAYMENT, 1, LedgerMismatch.UNPAID_ORDER, 1,
+				LedgerMismatch.UNLINKED, 1, LedgerMismatch.STUCK, 1));
+		assertThat(mismatch(clean)).isNull();
+		assertThat(mismatch(amount)).isEqualTo(LedgerMismatch.AMOUNT_MISMATCH);
+		assertThat(mismatch(missing)).isEqualTo(LedgerMismatch.MISSING_PAYMENT);
+		assertThat(mismatch(unpaid)).isEqualTo(LedgerMismatch.UNPAID_ORDER);
+		assertThat(mismatch(unlinked)).isEqualTo(LedgerMismatch.UNLINKED);
+		assertThat(mismatch(fresh)).isNull();
+		assertThat(mismatch(stuck)).isEqualTo(LedgerMismatch.STUCK);
+		assertThat(mismatch(expired)).isNull();
+		verify(pipeline).resume(any(PaymentOrder.class));
+
+		//nothing changed since - no writes, the stuck order is checked again
+		ReconciliationRespDto again = job.run();
+		assertThat(again.getFlagsChanged()).isZero();
+		assertThat(again.getMismatches()).isEqualTo(result.getMismatches());
+		verify(pipeline, times(2)).resume(any(PaymentOrder.class));
+	}
+
+	private LedgerMismatch mismatch(Long paymentOrderId) {
+		return em.find(PaymentOrder.class, paymentOrderId).getMismatch();
+	}
+
+	//paid = amount of the booking's payment row, null for none
+	private Long persistBooking(User user, String roomNumber, Double paid) {
+		Room room = em.persist(Fixtures.room(roomNumber, Category.DELUXE, 1500, Status.NOT_AVAILABLE));
+
+		Booking booking = new Booking();
+		booking.setUser(user);
+		booking.setRoom(room);
+		booking.setCheckInDate(LocalDate.now());
+		booking.setCheckOutDate(LocalDate.now().plusDays(1));
+		booking.setBookingStatus(BookingStatus.BOOKED);
+		em.persist(booking);
+
+		if (paid != null) {
+			Payment payment = new Payment();
+			payment.setAmount(paid);
+			payment.setMethod(Method.UPI);
+			payment.setBooking(booking);
+			em.persist(payment);
+		}
+		return booking.getBookingId();
+	}
+
+	private Long persistOrder(String orderId, OrderStatus status, long amount, Long bookingId, LocalDateTime updatedAt) {
+		PaymentOrder order = new PaymentOrder();
+		order.setOrderId(orderId);
+		order.setRoomId(1L);
+		order.setAmount(amount);
+		order.setCurrency("INR");
+		order.setStatus(status);
+		order.setBookingId(bookingId);
+		order.setCreatedAt(updatedAt);
+		order.setUpdatedAt(updatedAt);
+		return em.persist(order).getPaymentOrderId();
+	}
+}
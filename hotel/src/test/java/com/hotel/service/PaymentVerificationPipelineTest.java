@@ -0,0 +1,114 @@
+package com.hotel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.dao.PaymentOrderDao;
+import com.hotel.entities.OrderStatus;
+import com.hotel.entities.PaymentOrder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PaymentVerificationPipelineTest {
+
+	//"payment_orders" table
+	private final Map<String, PaymentOrder> orders = new ConcurrentHashMap<>();
+	private PaymentVerificationPipeline pipeline;
+
+	@AfterEach
+	void tearDown() {
+		if (pipeline != null) {
+			pipeline.shutdown();
+		}
+	}
+
+	@Test
+	void localGatewayIsDeterministic() {
+		LocalPaymentGateway a = localGateway(0.3, 0.0);
+		LocalPaymentGateway b = localGateway(0.3, 0.0);
+		int declined = 0;
+		for (int i = 0; i < 1000; i++) {
+			String paymentId = "pay_" + i;
+			PaymentGateway.Outcome outcome = a.verify("order_x", paymentId, null).outcome();
+			assertThat(b.verify("order_x", paymentId, null).outcome()).isEqualTo(outcome);
+			if (outcome == PaymentGateway.Outcome.DECLINED) {
+				declined++;
+			}
+		}
+		assertThat(declined).isBetween(240, 360);
+	}
+
+	@Test
+	void transientFailuresAreRetriedUntilTheOrderSettles() throws Exception {
+		pipeline = pipeline(localGateway(0.1, 0.5), 1000, 30);
+
+		List<CompletableFuture<PaymentOrder>> results = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			PaymentOrder order = pipeline.createOrder(1L + i % 5, 150_000, "INR").get(5, TimeUnit.SECONDS);
+			results.add(pipeline.verify(order.getOrderId(), "pay_" + i, null));
+		}
+		int retried = 0;
+		for (CompletableFuture<PaymentOrder> result : results) {
+			PaymentOrder order = result.get(10, TimeUnit.SECONDS);
+			assertThat(order.getStatus()).isIn(OrderStatus.PAID, OrderStatus.FAILED);
+			if (order.getAttempts() > 1) {
+				retried++;
+			}
+		}
+		assertThat(retried).isPositive();
+	}
+
+	@Test
+	void gatewayTimeoutsLeaveTheOrderVerifying() throws Exception {
+		PaymentGateway hanging = mock(PaymentGateway.class);
+		when(hanging.createOrder(anyLong(), anyString(), anyString()))
+				.thenReturn(new PaymentGateway.GatewayOrder("order_slow", 100, "INR"));
+		when(hanging.verify(anyString(), any(), any())).thenAnswer(call -> {
+			Thread.sleep(1_000);
+			return new PaymentGateway.Verification(PaymentGateway.Outcome.CAPTURED, "late");
+		});
+		pipeline = pipeline(hanging, 50, 3);
+
+		pipeline.createOrder(1L, 100, "INR").get(5, TimeUnit.SECONDS);
+		PaymentOrder order = pipeline.verify("order_slow", "pay_1", null).get(10, TimeUnit.SECONDS);
+
+		assertThat(order.getStatus()).isEqualTo(OrderStatus.VERIFYING);
+		assertThat(order.getAttempts()).isEqualTo(3);
+		assertThat(order.getLastError()).isEqualTo("Gateway call timed out");
+	}
+
+	private LocalPaymentGateway localGateway(double declineRate, double errorRate) {
+		return new LocalPaymentGateway("rzp_test", "secret", 0, declineRate, errorRate, false);
+	}
+
+	private PaymentVerificationPipeline pipeline(PaymentGateway gateway, long callTimeoutMillis, int maxAttempts) {
+		PaymentOrderDao orderDao = mock(PaymentOrderDao.class);
+		when(orderDao.findByOrderId(anyString()))
+				.thenAnswer(call -> Optional.ofNullable(orders.get(call.getArgument(0, String.class))));
+		when(orderDao.save(any(PaymentOrder.class))).thenAnswer(call -> {
+			PaymentOrder order = call.getArgument(0, PaymentOrder.class);
+			orders.put(order.getOrderId(), order);
+			return order;
+		});
+		return new PaymentVerificationPipeline(gateway, orderDao,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+				8, 1000, callTimeoutMillis, maxAttempts, 1, 10, 10_000);
+	}
+}
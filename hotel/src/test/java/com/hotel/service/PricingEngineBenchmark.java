@@ -0,0 +1,62 @@
+package com.hotel.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.hotel.entities.Category;
+
+/*
+ * Quote throughput of PricingEngine, per stay length.
+ * Not a test (surefire skips it) - run main() from the IDE, or
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.hotel.service.PricingEngineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class PricingEngineBenchmark {
+
+	@Param({ "1", "3", "14" })
+	private int nights;
+
+	private PricingEngine engine;
+	private LocalDate checkIn;
+	private Category[] categories;
+
+	@Setup
+	public void setUp() {
+		engine = new PricingEngine("FRIDAY,SATURDAY", "110,PRESIDENTIALSUITE:120",
+				"12-20..01-05:125,05-01..06-15:115", "7:10,14:15", 730);
+		checkIn = LocalDate.now().plusDays(30);
+		categories = Category.values();
+	}
+
+	@Benchmark
+	public long quote() {
+		int i = (int) (Thread.currentThread().threadId() % categories.length);
+		return engine.quote(categories[i], 250_050, checkIn, checkIn.plusDays(nights)).total();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(PricingEngineBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,64 @@
+package com.hotel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.hotel.custom_exception.ApiException;
+import com.hotel.entities.Category;
+
+class PricingEngineTest {
+
+	private final PricingEngine engine = engine(730);
+
+	@Test
+	void seasonsAndWeekendsScaleEachNight() {
+		//category season beats the general one, weekend stacks on top
+		assertThat(engine.factor(Category.DELUXE, LocalDate.of(2025, 12, 25))).isEqualTo(15_000);
+		assertThat(engine.factor(Category.STUDIO, LocalDate.of(2025, 12, 25))).isEqualTo(12_500);
+		//season wrapping the new year, on a Friday
+		assertThat(engine.factor(Category.STUDIO, LocalDate.of(2026, 1, 2))).isEqualTo(13_750);
+		assertThat(engine.factor(Category.STUDIO, LocalDate.of(2026, 3, 4))).isEqualTo(10_000);
+		assertThat(engine.factor(Category.PRESIDENTIALSUITE, LocalDate.of(2026, 3, 6))).isEqualTo(12_000);
+	}
+
+	@Test
+	void weekQuoteIsExactInPaise() {
+		//Monday to Monday: 5 weekday nights + Friday and Saturday at 110%, then 10% off for 7 nights
+		PricingEngine.Quote quote = engine.quote(Category.STUDIO, 150_000, LocalDate.of(2026, 3, 2),
+				LocalDate.of(2026, 3, 9));
+
+		assertThat(quote.nights()).isEqualTo(7);
+		assertThat(quote.subtotal()).isEqualTo(5 * 150_000 + 2 * 165_000);
+		assertThat(quote.discountPercent()).isEqualTo(10);
+		assertThat(quote.total()).isEqualTo(972_000);
+		//each night rounds to the paisa: 999.99 x 110% = 1099.989
+		assertThat(engine.quote(Category.STUDIO, 99_999, LocalDate.of(2026, 3, 6), LocalDate.of(2026, 3, 7)).total())
+				.isEqualTo(109_999);
+		assertThat(PricingEngine.toRupees(972_000)).hasToString("9720.00");
+	}
+
+	@Test
+	void nightsPastTheCalendarArePricedByTheSameRules() {
+		PricingEngine uncached = engine(0);
+		LocalDate checkIn = LocalDate.now().plusDays(5);
+		for (Category category : Category.values()) {
+			assertThat(uncached.quote(category, 250_050, checkIn, checkIn.plusDays(20)))
+					.isEqualTo(engine.quote(category, 250_050, checkIn, checkIn.plusDays(20)));
+		}
+	}
+
+	@Test
+	void rejectsEmptyStays() {
+		LocalDate day = LocalDate.of(2026, 3, 2);
+		assertThatThrownBy(() -> engine.quote(Category.STUDIO, 150_000, day, day)).isInstanceOf(ApiException.class);
+	}
+
+	private static PricingEngine engine(int horizonDays) {
+		return new PricingEngine("FRIDAY,SATURDAY", "110,PRESIDENTIALSUITE:120",
+				"12-20..01-05:125,DELUXE@12-24..12-26:150", "7:10,14:15", horizonDays);
+	}
+}
@@ -0,0 +1,146 @@
+package com.hotel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.OptionalLong;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.hotel.custom_exception.ApiException;
+import com.hotel.dao.BookingDao;
+import com.hotel.dto.QuoteRespDto;
+import com.hotel.dto.RoomRespDto;
+import com.hotel.entities.Category;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class QuoteServiceTest {
+
+	private final LocalDate checkIn = LocalDate.now().plusDays(10);
+	private final LocalDate checkOut = checkIn.plusDays(2);
+	private final Long guest = 42L;
+	private final RoomAvailabilityIndex availabilityIndex = new RoomAvailabilityIndex(mock(BookingDao.class));
+	private final QuoteService quotes = quoteService("secret");
+	private TimingWheel wheel;
+
+	@AfterEach
+	void tearDown() {
+		quotes.shutdown();
+		if (wheel != null) {
+			wheel.stop();
+		}
+	}
+
+	@Test
+	void quoteHoldsTheNightsAndSignsTheTotal() {
+		QuoteRespDto quote = quotes.quote(guest, 7L, checkIn, checkOut);
+
+		assertThat(quote.getTotal()).isEqualByComparingTo("3000.00");
+		assertThat(availabilityIndex.isFree(7L, checkIn, checkOut)).isFalse();
+		assertThatThrownBy(() -> quotes.quote(guest, 7L, checkIn, checkOut)).isInstanceOf(ApiException.class);
+		assertThat(quotes.quotedTotal(quote.getToken(), guest, 7L, checkIn, checkOut)).isEqualTo(OptionalLong.of(300_000));
+		assertThatThrownBy(() -> quotes.quotedTotal(quote.getToken(), guest, 7L, checkIn, checkOut.plusDays(1)))
+				.isInstanceOf(ApiException.class);
+
+		quotes.release(quote.getToken(), guest);
+		assertThat(availabilityIndex.isFree(7L, checkIn, checkOut)).isTrue();
+	}
+
+	@Test
+	void rejectsTamperedAndForeignTokens() {
+		String token = quotes.quote(guest, 7L, checkIn, checkOut).getToken();
+		String tampered = token.charAt(0) == 'A' ? 'B' + token.substring(1) : 'A' + token.substring(1);
+
+		assertThatThrownBy(() -> quotes.read(tampered)).isInstanceOf(ApiException.class);
+		QuoteService otherNode = quoteService("other-secret");
+		try {
+			assertThatThrownBy(() -> otherNode.read(token)).isInstanceOf(ApiException.class);
+		} finally {
+			otherNode.shutdown();
+		}
+	}
+
+	@Test
+	void blankSecretIsRefused() {
+		assertThatThrownBy(() -> quoteService(" ")).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void claimedHoldIsNoLongerReleased() {
+		String token = quotes.quote(guest, 7L, checkIn, checkOut).getToken();
+
+		assertThat(quotes.claimForTransaction(token, guest, 7L, checkIn, checkOut)).isTrue();
+		//claimed once - a second booking with the same quote has to reserve on its own
+		assertThat(quotes.claimForTransaction(token, guest, 7L, checkIn, checkOut)).isFalse();
+		quotes.release(token, null);
+		assertThat(availabilityIndex.isFree(7L, checkIn, checkOut)).isFalse();
+	}
+
+	@Test
+	void onlyTheQuotedGuestCanUseTheQuote() {
+		String token = quotes.quote(guest, 7L, checkIn, checkOut).getToken();
+
+		assertThatThrownBy(() -> quotes.claimForTransaction(token, 43L, 7L, checkIn, checkOut))
+				.isInstanceOf(ApiException.class);
+		assertThatThrownBy(() -> quotes.quotedTotal(token, 43L, 7L, checkIn, checkOut))
+				.isInstanceOf(ApiException.class);
+		assertThatThrownBy(() -> quotes.release(token, 43L)).isInstanceOf(ApiException.class);
+		assertThat(availabilityIndex.isFree(7L, checkIn, checkOut)).isFalse();
+	}
+
+	@Test
+	void holdsAreCappedPerGuest() {
+		String first = quotes.quote(guest, 7L, checkIn, checkOut).getToken();
+		quotes.quote(guest, 8L, checkIn, checkOut);
+
+		assertThatThrownBy(() -> quotes.quote(guest, 9L, checkIn, checkOut)).isInstanceOf(ApiException.class);
+		assertThat(availabilityIndex.isFree(9L, checkIn, checkOut)).isTrue();
+		//other guests are not affected, and a released hold frees a slot
+		quotes.quote(43L, 9L, checkIn, checkOut);
+		quotes.release(first, guest);
+		quotes.quote(guest, 7L, checkIn, checkOut);
+	}
+
+	@Test
+	void timingWheelRunsDueTimeoutsAndSkipsCancelledOnes() throws Exception {
+		wheel = new TimingWheel("test-wheel", 5, 8);
+		AtomicInteger ran = new AtomicInteger();
+		CountDownLatch last = new CountDownLatch(1);
+		TimingWheel.Timeout cancelled = wheel.schedule(20, ran::incrementAndGet);
+		for (int i = 0; i < 100; i++) {
+			//up to 12 revolutions of the 8 bucket wheel
+			wheel.schedule(i * 5, ran::incrementAndGet);
+		}
+		wheel.schedule(600, last::countDown);
+		assertThat(cancelled.cancel()).isTrue();
+
+		assertThat(last.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(ran.get()).isEqualTo(100);
+		assertThat(wheel.size()).isZero();
+	}
+
+	private QuoteService quoteService(String secret) {
+		RoomCache roomCache = mock(RoomCache.class);
+		when(roomCache.get(anyLong())).thenAnswer(invocation -> room(invocation.getArgument(0)));
+		PricingEngine pricingEngine = new PricingEngine("", "100", "", "", 30);
+		return new QuoteService(pricingEngine, roomCache, availabilityIndex, new StayPolicy(365, 730),
+				new SimpleMeterRegistry(), secret, 10, 100, 2, 1000, 64);
+	}
+
+	private static RoomRespDto room(Long roomId) {
+		RoomRespDto room = new RoomRespDto();
+		room.setRoomId(roomId);
+		room.setCategory(Category.STUDIO);
+		room.setPrice(1500);
+		return room;
+	}
+}
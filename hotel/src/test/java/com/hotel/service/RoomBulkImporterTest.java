@@ -0,0 +1,105 @@
+package com.hotel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.hotel.Fixtures;
+import com.hotel.dao.RoomDao;
+import com.hotel.dto.BulkImportRespDto;
+import com.hotel.dto.RowErrorDto;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({ RoomBulkImporter.class, RoomCatalogVersion.class })
+@ImportAutoConfiguration({ JacksonAutoConfiguration.class, ValidationAutoConfiguration.class })
+class RoomBulkImporterTest {
+
+	@Autowired
+	private RoomBulkImporter importer;
+
+	@Autowired
+	private RoomDao roomDao;
+
+	@Autowired
+	private TestEntityManager em;
+
+	@BeforeEach
+	void existingRoom() {
+		em.persistAndFlush(Fixtures.room("101"));
+	}
+
+	@Test
+	void csvImportReportsBadRowsAndSavesTheRest() throws Exception {
+		String csv = """
+				roomNumber,occupancy,category,price,imagePath
+				102,2,deluxe,1800,"rooms/102,a.jpg"
+				101,2,DELUXE,1500,
+				102,3,DELUXE,1900,
+				103,2,PENTHOUSE,1500,
+
+				104,2,DELUXE,cheap,
+				105,,DELUXE,1500,
+				106,4,EXECUTIVE,4200,
+				""";
+
+		BulkImportRespDto report = importer.importCsv(stream(csv));
+
+		assertThat(report.getRowsRead()).isEqualTo(7);
+		assertThat(report.getInserted()).isEqualTo(2);
+		assertThat(report.getErrors()).extracting(RowErrorDto::getLine).containsExactly(3L, 4L, 5L, 7L, 8L);
+		assertThat(report.getErrors()).extracting(RowErrorDto::getMessage).startsWith("Duplicate room",
+				"Duplicate room");
+		assertThat(roomDao.findByRoomNumber("102")).get()
+				.satisfies(room -> assertThat(room.getImagePath()).isEqualTo("rooms/102,a.jpg"));
+		assertThat(roomDao.existsByRoomNumber("106")).isTrue();
+	}
+
+	@Test
+	void ndjsonImportSkipsMalformedLines() throws Exception {
+		String ndjson = """
+				{"roomNumber":"201","occupancy":"2","category":"EXECUTIVE","price":3000}
+				{"roomNumber":"202",
+				{"roomNumber":"101","occupancy":"2","category":"EXECUTIVE","price":3000}
+				""";
+
+		BulkImportRespDto report = importer.importNdjson(stream(ndjson));
+
+		assertThat(report.getInserted()).isEqualTo(1);
+		assertThat(report.getErrors()).extracting(RowErrorDto::getLine).containsExactly(2L, 3L);
+	}
+
+	@Test
+	void errorListIsCappedButEveryRejectIsCounted() throws Exception {
+		StringBuilder csv = new StringBuilder("roomNumber,occupancy,category,price\n");
+		for (int i = 0; i < 250; i++) {
+			csv.append("X").append(i).append(",2,PENTHOUSE,1500\n");
+		}
+
+		BulkImportRespDto report = importer.importCsv(stream(csv.toString()));
+
+		assertThat(report.getRejected()).isEqualTo(250);
+		assertThat(report.getErrors()).hasSize(BulkImportRespDto.MAX_ERRORS);
+		assertThat(report.getErrors().get(0).getLine()).isEqualTo(2L);
+	}
+
+	@Test
+	void splitsQuotedCsvFields() {
+		assertThat(RoomBulkImporter.splitCsv("a,\"b,c\",\"say \"\"hi\"\"\",")).containsExactly("a", "b,c",
+				"say \"hi\"", "");
+	}
+
+	private static ByteArrayInputStream stream(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,147 @@
+package com.hotel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.hotel.Fixtures;
+import com.hotel.dao.CatalogVersionDao;
+import com.hotel.dao.RoomDao;
+import com.hotel.dto.RoomRespDto;
+import com.hotel.entities.Category;
+import com.hotel.entities.Room;
+import com.hotel.entities.Status;
+import com.hotel.mapper.DtoMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+class RoomCacheTest {
+
+	@Autowired
+	private RoomDao roomDao;
+
+	@Autowired
+	private CatalogVersionDao catalogVersionDao;
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	private Statistics stats;
+	private SimpleMeterRegistry registry;
+	private RoomCatalogVersion catalogVersion;
+	private RoomCache cache;
+	private Room deluxe;
+
+	@BeforeEach
+	void setUp() {
+		stats = emf.unwrap(SessionFactory.class).getStatistics();
+		registry = new SimpleMeterRegistry();
+		catalogVersion = new RoomCatalogVersion(catalogVersionDao);
+		cache = new RoomCache(roomDao, new DtoMapper(), catalogVersion, registry);
+		deluxe = persistRoom("101", Category.DELUXE);
+		persistRoom("102", Category.DELUXE);
+		persistRoom("201", Category.EXECUTIVE);
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	void repeatedReadsAreServedWithoutQueries() {
+		assertThat(cache.getAll()).hasSize(3);
+		assertThat(cache.getByCategory(Category.DELUXE)).hasSize(2);
+		assertThat(cache.getByRoomNumber("201").getCategory()).isEqualTo(Category.EXECUTIVE);
+
+		stats.clear();
+		assertThat(cache.getAll()).hasSize(3);
+		assertThat(cache.getByCategory(Category.DELUXE)).hasSize(2);
+		assertThat(cache.getByRoomNumber("201").getCategory()).isEqualTo(Category.EXECUTIVE);
+		assertThat(cache.get(deluxe.getRoomId()).getRoomNumber()).isEqualTo("101");
+		assertThat(stats.getPrepareStatementCount()).isZero();
+
+		assertThat(cache.hitRatio()).isGreaterThan(0.5);
+		assertThat(registry.get("room.cache.gets").tags("result", "hit", "region", "all").functionCounter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void statusChangeReloadsOnlyThatRoom() {
+		cache.getAll();
+		Room room = roomDao.findById(deluxe.getRoomId()).orElseThrow();
+		room.setStatus(Status.NOT_AVAILABLE);
+		em.flush();
+		em.clear();
+
+		cache.onRoomChanged(new RoomChangedEvent(room.getRoomId(), RoomChangedEvent.Kind.STATUS, Status.NOT_AVAILABLE));
+
+		stats.clear();
+		assertThat(cache.getAll()).filteredOn(r -> r.getRoomId().equals(room.getRoomId()))
+				.extracting(RoomRespDto::getStatus).containsExactly(Status.NOT_AVAILABLE);
+		assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void editDropsTheListsAndTheOldRoomNumber() {
+		cache.getByCategory(Category.DELUXE);
+		cache.getByRoomNumber("101");
+		Room room = roomDao.findById(deluxe.getRoomId()).orElseThrow();
+		room.setRoomNumber("105");
+		room.setCategory(Category.STUDIO);
+		em.flush();
+		em.clear();
+
+		cache.onRoomChanged(new RoomChangedEvent(room.getRoomId(), RoomChangedEvent.Kind.UPDATED, room.getStatus()));
+
+		assertThat(cache.getByCategory(Category.DELUXE)).extracting(RoomRespDto::getRoomNumber).containsExactly("102");
+		assertThat(cache.getByCategory(Category.STUDIO)).extracting(RoomRespDto::getRoomNumber).containsExactly("105");
+		assertThat(cache.getByRoomNumber("105").getRoomId()).isEqualTo(room.getRoomId());
+	}
+
+	@Test
+	void versionIsTheSharedCounterAndOnlyGrows() {
+		String version = cache.version();
+		stats.clear();
+		assertThat(cache.version()).isEqualTo(version);
+		assertThat(stats.getPrepareStatementCount()).isZero();
+
+		//periodic refresh and another node see the same catalog
+		cache.clear();
+		assertThat(cache.version()).isEqualTo(version);
+		assertThat(new RoomCache(roomDao, new DtoMapper(), catalogVersion, new SimpleMeterRegistry()).version())
+				.isEqualTo(version);
+
+		//a delete then as many updates as the deleted room had versions - still a new version
+		roomDao.deleteById(deluxe.getRoomId());
+		catalogVersion.bump();
+		cache.onRoomChanged(new RoomChangedEvent(deluxe.getRoomId(), RoomChangedEvent.Kind.DELETED, null));
+		String afterDelete = cache.version();
+		catalogVersion.bump();
+		cache.onRoomChanged(new RoomChangedEvent(null, RoomChangedEvent.Kind.UPDATED, null));
+
+		assertThat(Long.parseLong(afterDelete)).isGreaterThan(Long.parseLong(version));
+		assertThat(Long.parseLong(cache.version())).isGreaterThan(Long.parseLong(afterDelete));
+	}
+
+	@Test
+	void callersCannotChangeCachedEntries() {
+		cache.get(deluxe.getRoomId()).setPrice(1);
+
+		assertThat(cache.get(deluxe.getRoomId()).getPrice()).isEqualTo(1500);
+	}
+
+	private Room persistRoom(String number, Category category) {
+		return em.persist(Fixtures.room(number, category, 1500, Status.AVAILABLE));
+	}
+}
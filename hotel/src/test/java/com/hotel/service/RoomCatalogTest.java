@@ -0,0 +1,107 @@
+package com.hotel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.hotel.Fixtures;
+import com.hotel.dao.BookingDao;
+import com.hotel.dao.RoomDao;
+import com.hotel.dto.RoomRespDto;
+import com.hotel.entities.Category;
+import com.hotel.entities.Room;
+import com.hotel.entities.Status;
+import com.hotel.mapper.DtoMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = {
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+class RoomCatalogTest {
+
+	private final LocalDate from = LocalDate.now().plusDays(1);
+
+	@Autowired
+	private RoomDao roomDao;
+
+	@Autowired
+	private BookingDao bookingDao;
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	private RoomCatalog catalog;
+	private Room deluxe;
+
+	@BeforeEach
+	void setUp() {
+		catalog = new RoomCatalog(roomDao, new DtoMapper(), new RoomAvailabilityIndex(bookingDao));
+		deluxe = persistRoom("101", Category.DELUXE, 1500);
+		persistRoom("201", Category.EXECUTIVE, 3000);
+		em.flush();
+		em.clear();
+		catalog.load();
+	}
+
+	@Test
+	void addedAndUpdatedRoomsAreSearchable() {
+		Room added = persistRoom("102", Category.DELUXE, 1200);
+		Room room = roomDao.findById(deluxe.getRoomId()).orElseThrow();
+		room.setPrice(2500);
+		em.flush();
+		em.clear();
+
+		catalog.onRoomChanged(new RoomChangedEvent(added.getRoomId(), RoomChangedEvent.Kind.ADDED, Status.AVAILABLE));
+		assertThat(search(Category.DELUXE, null)).extracting(RoomRespDto::getRoomNumber).containsExactly("102", "101");
+
+		catalog.onRoomChanged(new RoomChangedEvent(room.getRoomId(), RoomChangedEvent.Kind.UPDATED, room.getStatus()));
+		assertThat(search(null, 2000.0)).extracting(RoomRespDto::getRoomNumber).containsExactly("102");
+	}
+
+	@Test
+	void deletedRoomsDropOut() {
+		roomDao.deleteById(deluxe.getRoomId());
+		em.flush();
+
+		catalog.onRoomChanged(new RoomChangedEvent(deluxe.getRoomId(), RoomChangedEvent.Kind.DELETED, null));
+
+		assertThat(search(null, null)).extracting(RoomRespDto::getRoomNumber).containsExactly("201");
+	}
+
+	@Test
+	void statusChangeIsPatchedInWithoutQueries() {
+		List<RoomRespDto> before = search(Category.DELUXE, null);
+		Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+
+		catalog.onRoomChanged(
+				new RoomChangedEvent(deluxe.getRoomId(), RoomChangedEvent.Kind.STATUS, Status.NOT_AVAILABLE));
+
+		assertThat(search(Category.DELUXE, null)).extracting(RoomRespDto::getStatus)
+				.containsExactly(Status.NOT_AVAILABLE);
+		assertThat(stats.getPrepareStatementCount()).isZero();
+		//results already returned keep what they showed
+		assertThat(before.get(0).getStatus()).isEqualTo(Status.AVAILABLE);
+	}
+
+	private List<RoomRespDto> search(Category category, Double maxPrice) {
+		return catalog.search(from, from.plusDays(2), category, maxPrice, null, 0, 10).getContent();
+	}
+
+	private Room persistRoom(String number, Category category, double price) {
+		return em.persist(Fixtures.room(number, category, price, Status.AVAILABLE));
+	}
+}
@@ -0,0 +1,109 @@
+package com.hotel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hotel.Fixtures;
+import com.hotel.dao.UserDao;
+import com.hotel.dto.BulkRegisterRespDto;
+import com.hotel.dto.RowResultDto;
+import com.hotel.dto.UserReqDto;
+import com.hotel.entities.Role;
+import com.hotel.entities.User;
+import com.hotel.security.PasswordHasher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class UserBulkRegistrarTest {
+
+	@Autowired
+	private UserDao userDao;
+
+	@Autowired
+	private TransactionTemplate txTemplate;
+
+	@Autowired
+	private TestEntityManager em;
+
+	private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+	private PasswordHasher hasher;
+	private UserBulkRegistrar registrar;
+
+	@BeforeEach
+	void setUp() {
+		hasher = new PasswordHasher(encoder, new SimpleMeterRegistry(), 2, 16, 5000);
+		registrar = new UserBulkRegistrar(userDao, hasher, txTemplate,
+				Validation.buildDefaultValidatorFactory().getValidator(), 1000);
+
+		em.persistAndFlush(Fixtures.user("taken@test.com"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		hasher.shutdown();
+	}
+
+	@Test
+	void manifestHasOneEntryPerRowInRequestOrder() {
+		List<UserReqDto> rows = new ArrayList<>(Arrays.asList(
+				user("a@test.com", "pass#1"),
+				user("TAKEN@test.com", "pass#1"),
+				user("b@test.com", "pass#1"),
+				user("A@test.com", "pass#1"),
+				user("not-an-email", "pass#1"),
+				null));
+		//more hashes than the hasher queue holds, more than one save chunk
+		for (int i = 0; i < 150; i++) {
+			rows.add(user("group" + i + "@test.com", "pass#" + i));
+		}
+
+		BulkRegisterRespDto result = registrar.register(rows, UserReqDto::getEmail, UserReqDto::getPassword,
+				dto -> {
+					User user = new User();
+					user.setFirstName(dto.getFirstName());
+					user.setLastName(dto.getLastName());
+					user.setEmail(dto.getEmail());
+					user.setPhone(dto.getPhone());
+					user.setGender(dto.getGender());
+					user.setRole(UserBulkRegistrar.roleOf(dto.getRole(), Role.CUSTOMER));
+					return user;
+				});
+		em.clear();
+
+		assertThat(result.getRows()).extracting(RowResultDto::getRow).startsWith(1, 2, 3, 4, 5, 6);
+		assertThat(result.getRows().subList(0, 6)).extracting(RowResultDto::getOutcome).containsExactly(
+				RowResultDto.Outcome.CREATED, RowResultDto.Outcome.REJECTED, RowResultDto.Outcome.CREATED,
+				RowResultDto.Outcome.REJECTED, RowResultDto.Outcome.REJECTED, RowResultDto.Outcome.REJECTED);
+		assertThat(result.getCreated()).isEqualTo(152);
+		assertThat(result.getRejected()).isEqualTo(4);
+
+		User saved = userDao.findByEmail("group7@test.com").orElseThrow();
+		assertThat(result.getRows().get(6 + 7).getUserId()).isEqualTo(saved.getUserId());
+		assertThat(encoder.matches("pass#7", saved.getPassword())).isTrue();
+	}
+
+	private static UserReqDto user(String email, String password) {
+		UserReqDto dto = new UserReqDto();
+		dto.setFirstName("Guest");
+		dto.setLastName("Group");
+		dto.setEmail(email);
+		dto.setPassword(password);
+		dto.setPhone("9999999999");
+		dto.setGender("OTHER");
+		return dto;
+	}
+}